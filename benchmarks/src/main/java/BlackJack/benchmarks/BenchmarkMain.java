@@ -0,0 +1,47 @@
+package BlackJack.benchmarks;
+
+import java.io.IOException;
+
+/**
+ * Punto di ingresso dei benchmark.
+ * Passa le opzioni a {@link org.openjdk.jmh.Main}, quindi valgono tutte le opzioni di JMH
+ * (anche -l, -lp, -lprof e -h), e abilita sempre il profiler delle allocazioni (-prof gc).
+ */
+public class BenchmarkMain {
+
+    /**
+     * Esegue i benchmark, o l'operazione richiesta dalle opzioni.
+     * @param args opzioni della riga di comando di JMH (es. un filtro sui nomi dei benchmark)
+     * @throws IOException se JMH non riesce a leggere l'elenco dei benchmark o a scrivere i risultati
+     */
+    public static void main(String[] args) throws IOException {
+        org.openjdk.jmh.Main.main(hasGcProfiler(args) ? args : withGcProfiler(args));
+    }
+
+    /**
+     * Verifica se il profiler delle allocazioni è già tra le opzioni.
+     * @param args opzioni della riga di comando
+     * @return true se è presente -prof gc
+     */
+    private static boolean hasGcProfiler(String[] args) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("-prof") && (args[i + 1].equals("gc") || args[i + 1].startsWith("gc:"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aggiunge -prof gc in testa alle opzioni.
+     * @param args opzioni della riga di comando
+     * @return le opzioni con il profiler delle allocazioni
+     */
+    private static String[] withGcProfiler(String[] args) {
+        String[] all = new String[args.length + 2];
+        all[0] = "-prof";
+        all[1] = "gc";
+        System.arraycopy(args, 0, all, 2, args.length);
+        return all;
+    }
+}
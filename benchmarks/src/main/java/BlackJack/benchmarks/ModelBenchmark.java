@@ -0,0 +1,158 @@
+package BlackJack.benchmarks;
+
+import BlackJack.Cards;
+import BlackJack.Model;
+import BlackJack.RandomAlgorithm;
+import BlackJack.Rules;
+import BlackJack.simulation.RoundEngine;
+import BlackJack.simulation.SimulationResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark dei percorsi critici del modello: distribuzione, rimescolamento, pescata,
+ * valore delle carte, riduzione degli assi e turno del dealer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    @Param({"1", "3"})
+    private int players;
+
+    @Param({"1", "8"})
+    private int decks;
+
+    private Model model;
+    private RoundEngine engine;
+    private SimulationResult result;
+    private int code;
+
+    // Ingressi di reduceAce: campi non final, perché il JIT non possa precalcolare il risultato
+    private int softSum = 17, softAces = 1;
+    private int bustSum = 32, bustAces = 2;
+    private int manyAcesSum = 44, manyAces = 4;
+
+    /**
+     * Sabot appena mescolato per {@link #drawCard}: il rimescolamento avviene prima di ogni chiamata,
+     * fuori dalla misura, e senza seme, così non crea un generatore nuovo a ogni sabot.
+     */
+    @State(Scope.Thread)
+    public static class FreshShoe {
+        private Model model;
+
+        @Setup
+        public void setup(ModelBenchmark benchmark) {
+            model = new Model(benchmark.players, new Rules(benchmark.decks, 0));
+            model.setRandomGenerator(RandomAlgorithm.SPLITTABLE.create(42L));
+        }
+
+        @Setup(Level.Invocation)
+        public void shuffle() {
+            model.getShoe().reset();
+        }
+    }
+
+    /**
+     * Crea il modello e il motore con un seme fisso, per confrontare esecuzioni diverse.
+     */
+    @Setup
+    public void setup() {
+        Rules rules = new Rules(decks, 0);
+        rules.setSeed(42L);
+        model = new Model(players, rules);
+        model.startNewGame();
+        engine = new RoundEngine(players, Model.DEALER_STAND, rules);
+        result = new SimulationResult(players);
+    }
+
+    /**
+     * Nuova partita: rimescolamento del sabot e distribuzione delle carte iniziali.
+     */
+    @Benchmark
+    public Model startNewGame() {
+        model.startNewGame();
+        return model;
+    }
+
+    /**
+     * Ricostruzione e rimescolamento del sabot, che sostituiscono buildDeck e shuffleDeck.
+     */
+    @Benchmark
+    public int shuffleShoe() {
+        model.getShoe().reset();
+        return model.getShoe().remaining();
+    }
+
+    /**
+     * Pescata di una carta dal sabot: un mazzo di pescate per chiamata, tutte nello stesso sabot,
+     * quindi senza rimescolamenti nel tempo misurato. Il risultato è per singola carta.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Cards.DECK_SIZE)
+    public void drawCard(FreshShoe shoe, Blackhole bh) {
+        Model drawModel = shoe.model;
+        for (int i = 0; i < Cards.DECK_SIZE; i++) {
+            bh.consume(drawModel.drawCard());
+        }
+    }
+
+    /**
+     * Valore numerico di una carta.
+     */
+    @Benchmark
+    public int cardGetValue() {
+        code = code == Cards.DECK_SIZE - 1 ? 0 : code + 1;
+        return Model.Card.of(code).getValue();
+    }
+
+    /**
+     * Riduzione degli assi su mani morbide e dure.
+     */
+    @Benchmark
+    public void reduceAce(Blackhole bh) {
+        bh.consume(model.reduceAce(softSum, softAces));
+        bh.consume(model.reduceAce(bustSum, bustAces));
+        bh.consume(model.reduceAce(manyAcesSum, manyAces));
+    }
+
+    /**
+     * Turno del dealer e dei bot, come in Controller.stayAction, preceduto dalla distribuzione.
+     * Per isolare il turno sottrarre il tempo di {@link #startNewGame()}.
+     */
+    @Benchmark
+    public int dealerTurn() {
+        model.startNewGame();
+        model.playDealerTurn();
+        model.playBotTurns();
+        return model.getDealerSum();
+    }
+
+    /**
+     * Mano completa del motore senza interfaccia.
+     */
+    @Benchmark
+    public SimulationResult playRound() {
+        engine.playRound(result);
+        return result;
+    }
+}
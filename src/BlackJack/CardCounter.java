@@ -0,0 +1,155 @@
+package BlackJack;
+
+/**
+ * Conteggio delle carte viste dall'inizio del sabot, con tre sistemi: Hi-Lo, KO e Omega II.
+ * Il sabot aggiorna il conteggio a ogni carta pescata con tre somme su tabelle per classe di valore,
+ * senza creare oggetti; il conteggio riparte quando il sabot viene rimescolato.
+ * La carta coperta del dealer non è vista finché non viene rivelata: il modello la nasconde
+ * con {@link #hide(int)} quando viene distribuita e la conta con {@link #reveal()} al turno del dealer.
+ * Il conteggio vero è il conteggio corrente diviso per i mazzi non ancora visti.
+ */
+public class CardCounter {
+
+    // Sistemi di conteggio
+    public static final int HI_LO = 0;
+    public static final int KO = 1;
+    public static final int OMEGA_II = 2;
+    public static final int SYSTEMS = 3;
+
+    // Valori delle carte per classe di valore (asso, da 2 a 9, carte da 10)
+    private static final int[] HI_LO_TAGS = { -1, 1, 1, 1, 1, 1, 0, 0, 0, -1 };
+    private static final int[] KO_TAGS = { -1, 1, 1, 1, 1, 1, 1, 0, 0, -1 };
+    private static final int[] OMEGA_II_TAGS = { 0, 1, 1, 2, 2, 2, 1, 0, -1, -2 };
+
+    private final int decks;
+
+    // Conteggi correnti e carte non ancora viste
+    private int hiLo, ko, omegaII;
+    private int unseen;
+
+    // Carta coperta del dealer non ancora rivelata (-1 = nessuna)
+    private int hidden = -1;
+
+    /**
+     * Costruttore del conteggio per un sabot appena mescolato.
+     * @param decks Il numero di mazzi del sabot.
+     */
+    public CardCounter(int decks) {
+        this.decks = decks;
+        reset();
+    }
+
+    /**
+     * Riporta il conteggio all'inizio di un sabot appena mescolato.
+     * Il KO è sbilanciato (+4 per mazzo) e parte da 4 - 4 * mazzi, così che il punto chiave sia +4.
+     */
+    public void reset() {
+        hiLo = 0;
+        ko = initialKo();
+        omegaII = 0;
+        unseen = decks * Cards.DECK_SIZE;
+        hidden = -1;
+    }
+
+    private int initialKo() {
+        return 4 - 4 * decks;
+    }
+
+    /**
+     * Conta una carta vista.
+     * @param code Il codice della carta.
+     */
+    public void count(int code) {
+        int c = Cards.valueClass(code);
+        hiLo += HI_LO_TAGS[c];
+        ko += KO_TAGS[c];
+        omegaII += OMEGA_II_TAGS[c];
+        unseen--;
+    }
+
+    /**
+     * Toglie dal conteggio una carta appena contata, perché coperta: sarà contata da {@link #reveal()}.
+     * @param code Il codice della carta.
+     */
+    public void hide(int code) {
+        int c = Cards.valueClass(code);
+        hiLo -= HI_LO_TAGS[c];
+        ko -= KO_TAGS[c];
+        omegaII -= OMEGA_II_TAGS[c];
+        unseen++;
+        hidden = code;
+    }
+
+    /**
+     * Conta la carta coperta, se ce n'è una non ancora rivelata.
+     */
+    public void reveal() {
+        if (hidden >= 0) {
+            int code = hidden;
+            hidden = -1;
+            count(code);
+        }
+    }
+
+    /**
+     * Ricalcola il conteggio dalla composizione delle carte ancora da pescare, dopo che il sabot
+     * ha rimescolato le carte scartate durante una partita.
+     * @param remainingCounts Le carte ancora da pescare per classe di valore.
+     * @param remaining Il numero di carte ancora da pescare.
+     */
+    void resync(int[] remainingCounts, int remaining) {
+        // Il sabot completo somma a zero per Hi-Lo e Omega II e a 4 per mazzo per il KO
+        hiLo = 0;
+        ko = initialKo() + 4 * decks;
+        omegaII = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            hiLo -= HI_LO_TAGS[c] * remainingCounts[c];
+            ko -= KO_TAGS[c] * remainingCounts[c];
+            omegaII -= OMEGA_II_TAGS[c] * remainingCounts[c];
+        }
+        unseen = remaining;
+        // La carta coperta è tra quelle già distribuite, ma resta non vista
+        if (hidden >= 0) {
+            hide(hidden);
+        }
+    }
+
+    /**
+     * Restituisce il conteggio corrente di un sistema.
+     * @param system Il sistema ({@link #HI_LO}, {@link #KO} o {@link #OMEGA_II}).
+     * @return Il conteggio corrente.
+     */
+    public int getRunningCount(int system) {
+        switch (system) {
+            case HI_LO: return hiLo;
+            case KO: return ko;
+            case OMEGA_II: return omegaII;
+            default: throw new IllegalArgumentException("Sistema di conteggio non valido: " + system);
+        }
+    }
+
+    /**
+     * Restituisce il conteggio vero di un sistema: il conteggio corrente per mazzo non ancora visto.
+     * @param system Il sistema.
+     * @return Il conteggio vero.
+     */
+    public double getTrueCount(int system) {
+        return unseen > 0 ? getRunningCount(system) * (double) Cards.DECK_SIZE / unseen : 0;
+    }
+
+    /**
+     * Restituisce il conteggio vero che avrebbe un sabot appena mescolato.
+     * @param system Il sistema.
+     * @return Il conteggio vero iniziale (diverso da zero solo per il KO).
+     */
+    public double getInitialTrueCount(int system) {
+        return system == KO ? initialKo() / (double) decks : 0;
+    }
+
+    // Metodi getter
+    public int getDecks() { return decks; }
+    public int getUnseen() { return unseen; }
+    public int getHiLo() { return hiLo; }
+    public int getKo() { return ko; }
+    public int getOmegaII() { return omegaII; }
+}
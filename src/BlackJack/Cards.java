@@ -0,0 +1,138 @@
+package BlackJack;
+
+/**
+ * Codifica compatta delle carte da gioco.
+ * Ogni carta è un intero da 0 a 51 (sta in un byte) con rango e seme impacchettati:
+ * i due bit bassi contengono il seme, i bit alti il rango.
+ * Valore e asso sono letti da tabelle precalcolate, senza confronti tra stringhe.
+ */
+public final class Cards {
+
+    // Numero di carte in un mazzo
+    public static final int DECK_SIZE = 52;
+
+    // Numero di ranghi e di semi
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+
+    // Numero di classi di valore: asso, da 2 a 9, e le carte che valgono 10
+    public static final int VALUE_CLASSES = 10;
+
+    // Nomi dei ranghi e dei semi, negli stessi formati usati per i file delle immagini
+    static final String[] RANK_NAMES = {"A", "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K"};
+    static final String[] SUIT_NAMES = {"C", "D", "H", "S"};
+
+    // Tabelle precalcolate indicizzate per codice della carta
+    private static final byte[] VALUES = new byte[DECK_SIZE];
+    private static final boolean[] ACES = new boolean[DECK_SIZE];
+    private static final byte[] VALUE_CLASS = new byte[DECK_SIZE];
+
+    static {
+        for (int code = 0; code < DECK_SIZE; code++) {
+            int rank = rank(code);
+            VALUES[code] = (byte) (rank == 0 ? 11 : Math.min(rank + 1, 10));
+            ACES[code] = rank == 0;
+            VALUE_CLASS[code] = (byte) Math.min(rank, VALUE_CLASSES - 1);
+        }
+    }
+
+    private Cards() {
+    }
+
+    /**
+     * Codifica una carta a partire da rango e seme.
+     * @param rank Il rango (0 = asso, 1..9 = da 2 a 10, 10..12 = J, Q, K).
+     * @param suit Il seme (0 = C, 1 = D, 2 = H, 3 = S).
+     * @return Il codice della carta.
+     */
+    public static int encode(int rank, int suit) {
+        return (rank << 2) | suit;
+    }
+
+    /**
+     * Codifica una carta a partire dalle stringhe usate da {@link Model.Card}.
+     * @param value Il valore della carta ("A", "2", ..., "K").
+     * @param type Il seme della carta ("C", "D", "H", "S").
+     * @return Il codice della carta.
+     */
+    public static int encode(String value, String type) {
+        int rank = indexOf(RANK_NAMES, value);
+        int suit = indexOf(SUIT_NAMES, type);
+        if (rank < 0 || suit < 0) {
+            throw new IllegalArgumentException("Carta non valida: " + value + "-" + type);
+        }
+        return encode(rank, suit);
+    }
+
+    /**
+     * Restituisce il rango della carta.
+     * @param code Il codice della carta.
+     * @return Il rango (0 = asso, ..., 12 = K).
+     */
+    public static int rank(int code) {
+        return code >>> 2;
+    }
+
+    /**
+     * Restituisce il seme della carta.
+     * @param code Il codice della carta.
+     * @return Il seme (0 = C, 1 = D, 2 = H, 3 = S).
+     */
+    public static int suit(int code) {
+        return code & 3;
+    }
+
+    /**
+     * Restituisce il valore numerico della carta (l'asso vale 11).
+     * @param code Il codice della carta.
+     * @return Il valore numerico.
+     */
+    public static int value(int code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Verifica se la carta è un asso.
+     * @param code Il codice della carta.
+     * @return true se la carta è un asso, false altrimenti.
+     */
+    public static boolean isAce(int code) {
+        return ACES[code];
+    }
+
+    /**
+     * Restituisce la classe di valore della carta, usata per descrivere la composizione del sabot.
+     * @param code Il codice della carta.
+     * @return La classe di valore (0 = asso, 1..8 = da 2 a 9, 9 = carte da 10).
+     */
+    public static int valueClass(int code) {
+        return VALUE_CLASS[code];
+    }
+
+    /**
+     * Restituisce il numero di carte di una classe di valore in un mazzo.
+     * @param valueClass La classe di valore.
+     * @return Le carte della classe in un mazzo (4, oppure 16 per le carte da 10).
+     */
+    public static int perDeck(int valueClass) {
+        return valueClass == VALUE_CLASSES - 1 ? 4 * SUITS : SUITS;
+    }
+
+    /**
+     * Restituisce il nome della carta nel formato valore-seme (es. "10-H").
+     * @param code Il codice della carta.
+     * @return Il nome della carta.
+     */
+    public static String name(int code) {
+        return RANK_NAMES[rank(code)] + "-" + SUIT_NAMES[suit(code)];
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,97 @@
+package BlackJack;
+
+/**
+ * Stato di una mano impacchettato in un int, aggiornato in tempo costante a ogni carta.
+ * Contiene il totale duro (assi contati come 1), la presenza di un asso, il flag di mano morbida,
+ * il flag di mano sballata, il flag di blackjack e il numero di carte, così che il totale
+ * finale si legga senza ripetere la riduzione degli assi.
+ */
+public final class HandState {
+
+    // Stato di una mano vuota
+    public static final int EMPTY = 0;
+
+    // Disposizione dei campi nell'int
+    private static final int HARD_MASK = 0x3F;
+    private static final int HAS_ACE = 1 << 6;
+    private static final int SOFT = 1 << 7;
+    private static final int BUST = 1 << 8;
+    private static final int BLACKJACK = 1 << 9;
+    private static final int COUNT_SHIFT = 10;
+    private static final int COUNT_MASK = 0x1F;
+    private static final int DOUBLED = 1 << 15;
+    private static final int SURRENDERED = 1 << 16;
+    private static final int SPLIT = 1 << 17;
+
+    // Flag conservati quando si aggiunge una carta
+    private static final int ACTION_FLAGS = DOUBLED | SURRENDERED | SPLIT;
+
+    private HandState() {
+    }
+
+    /**
+     * Aggiunge una carta allo stato della mano.
+     * @param state Lo stato corrente.
+     * @param code Il codice della carta (vedi {@link Cards}).
+     * @return Il nuovo stato.
+     */
+    public static int add(int state, int code) {
+        boolean ace = Cards.isAce(code);
+        int next = of(hard(state) + (ace ? 1 : Cards.value(code)), hasAce(state) || ace, count(state) + 1);
+        next |= state & ACTION_FLAGS;
+        return isSplit(state) ? next & ~BLACKJACK : next;
+    }
+
+    /**
+     * Costruisce lo stato di una mano a partire dai suoi valori.
+     * @param hard Il totale contando gli assi come 1.
+     * @param hasAce true se la mano contiene almeno un asso.
+     * @param count Il numero di carte.
+     * @return Lo stato della mano.
+     */
+    public static int of(int hard, boolean hasAce, int count) {
+        int state = Math.min(hard, HARD_MASK) | (count << COUNT_SHIFT);
+        if (hasAce) state |= HAS_ACE;
+        if (hasAce && hard + 10 <= 21) state |= SOFT;
+        if (hard > 21) state |= BUST;
+        if (count == 2 && hasAce && hard == 11) state |= BLACKJACK;
+        return state;
+    }
+
+    /**
+     * Costruisce lo stato a partire dalla somma con gli assi contati come 11, come in {@link Model}.
+     * @param sum La somma con gli assi contati come 11.
+     * @param aceCount Il numero di assi.
+     * @param count Il numero di carte.
+     * @return Lo stato della mano.
+     */
+    public static int fromSum(int sum, int aceCount, int count) {
+        return of(sum - 10 * aceCount, aceCount > 0, count);
+    }
+
+    /**
+     * Restituisce il totale migliore della mano (un asso conta 11 se non fa sballare).
+     * @param state Lo stato della mano.
+     * @return Il totale della mano.
+     */
+    public static int total(int state) {
+        return (state & SOFT) != 0 ? hard(state) + 10 : hard(state);
+    }
+
+    // Metodi di lettura dei singoli campi
+    public static int hard(int state) { return state & HARD_MASK; }
+    public static boolean hasAce(int state) { return (state & HAS_ACE) != 0; }
+    public static boolean isSoft(int state) { return (state & SOFT) != 0; }
+    public static boolean isBust(int state) { return (state & BUST) != 0; }
+    public static boolean isBlackjack(int state) { return (state & BLACKJACK) != 0; }
+    public static int count(int state) { return (state >>> COUNT_SHIFT) & COUNT_MASK; }
+    public static boolean isDoubled(int state) { return (state & DOUBLED) != 0; }
+    public static boolean isSurrendered(int state) { return (state & SURRENDERED) != 0; }
+    public static boolean isSplit(int state) { return (state & SPLIT) != 0; }
+
+    // Metodi che impostano i flag delle azioni
+    public static int copyFlags(int state, int from) { return isSplit(from) ? markSplit(state | (from & ACTION_FLAGS)) : state | (from & ACTION_FLAGS); }
+    public static int markDoubled(int state) { return state | DOUBLED; }
+    public static int markSurrendered(int state) { return state | SURRENDERED; }
+    public static int markSplit(int state) { return (state | SPLIT) & ~BLACKJACK; }
+}
@@ -1,11 +1,18 @@
 package BlackJack;
 
+import BlackJack.history.EventLog;
+import BlackJack.history.RoundReplayer;
+import BlackJack.profile.Profile;
+import BlackJack.profile.ProfileStore;
 import BlackJack.views.*;
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class JBlackJack {
 
@@ -16,6 +23,9 @@ public class JBlackJack {
     // Colore di sfondo del gioco
     public static final Color BACKGROUND_COLOR = new Color(53, 101, 77);
 
+    // Intervallo tra due azioni quando si rivede una partita, in millisecondi
+    private static final int REVIEW_DELAY = 800;
+
     // Riferimenti ai vari pannelli del gioco
     private Start start;
     private Home home;
@@ -26,20 +36,47 @@ public class JBlackJack {
 
     // Variabili di stato del gioco
     private int avatar = 1; // Avatar del giocatore
-    private int importo = 5000; // Importo iniziale del giocatore
-    private int winCount = 0, defeatCount = 0, drawCount = 0; // Contatori delle partite vinte, perse e pareggiate
-    private int avatarBot1, winCountBot1 = 0, defeatCountBot1 = 0, drawCountBot1 = 0; // Contatori per il primo bot
-    private int avatarBot2, winCountBot2 = 0, defeatCountBot2 = 0, drawCountBot2 = 0; // Contatori per il secondo bot
+    private int avatarBot1, avatarBot2; // Avatar dei bot
+    private Profile profile; // Importo e contatori del giocatore e dei bot
+
+    // Modelli delle partite, uno per numero di giocatori: il sabot resta lo stesso da una partita all'altra
+    private final Model[] models = new Model[4];
+
+    // Seme della sessione e indice del primo sabot: con gli stessi valori le partite ricevono le stesse carte
+    private long seed = RandomAlgorithm.SPLITTABLE.create().nextLong();
+    private long firstShoe;
+
+    // Dati per riprodurre l'ultima partita giocata, mostrati nella Home (null prima della prima partita)
+    private String lastReplayKey;
+
+    // Modello dell'ultima partita giocata, il cui registro degli eventi contiene solo quella partita
+    private Model lastModel;
+
+    // Riproduzione della partita che si sta rivedendo (null se non se ne sta rivedendo una)
+    private ReplayController reviewController;
+
+    // Numeri nei dati di una partita da riprodurre
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+");
+
+    // Archivio dei profili su disco (null se non disponibile: i profili restano solo in memoria)
+    private ProfileStore profiles;
 
     // Finestra principale del gioco
     private JFrame frame;
 
     /**
      * Metodo principale per avviare l'applicazione BlackJack.
-     * @param args argomenti della riga di comando (non utilizzati)
+     * @param args seme e indice del sabot (facoltativi) per ripetere una sessione: la prima partita
+     *             di ogni modalità riceve le carte di quel sabot. Una singola partita si riproduce dalla Home
      */
     public static void main(String[] args) {
+        // Decodifica le immagini in background mentre si prepara la finestra
+        SpriteAtlas.preload();
         JBlackJack main = new JBlackJack();
+        if (args.length > 0) {
+            main.seed = Long.parseLong(args[0]);
+            main.firstShoe = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        }
         main.setupGUI();
     }
 
@@ -48,6 +85,8 @@ public class JBlackJack {
      * Inizializza la finestra e imposta il pannello iniziale.
      */
     private void setupGUI() {
+        openProfiles();
+
         frame = new JFrame("Black Jack");
         frame.setSize(BOARD_WIDTH, BOARD_HEIGHT);
         frame.setLocationRelativeTo(null);
@@ -66,6 +105,19 @@ public class JBlackJack {
         start.addRightButtonListener(e -> switchAvatarRight());
     }
 
+    /**
+     * Apre l'archivio dei profili e lo chiude all'uscita, completando i salvataggi in attesa.
+     * Se l'archivio non è disponibile il gioco continua senza salvare i profili.
+     */
+    private void openProfiles() {
+        try {
+            profiles = new ProfileStore();
+            Runtime.getRuntime().addShutdownHook(new Thread(profiles::close));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Inizia il gioco dopo che l'utente ha inserito un nickname valido.
      * Controlla la validità del nickname e avvia il gioco se corretto.
@@ -81,13 +133,10 @@ public class JBlackJack {
             JOptionPane.showMessageDialog(frame, "Nickname non valido. Lunghezza massima: 10 caratteri.");
         } else {
             generateBotAvatars(); // Genera gli avatar casuali per i bot
-            // Inizializza il pannello Home con i dati del giocatore e dei bot
-            home = new Home(nickname, avatar, winCount, defeatCount, drawCount, importo, avatarBot1, avatarBot2, winCountBot1, defeatCountBot1, drawCountBot1, winCountBot2, defeatCountBot2, drawCountBot2);
-            switchToPanel(home); // Cambia il pannello visualizzato
-            // Aggiunge listener ai bottoni del pannello Home per selezionare la modalità di gioco
-            home.addOnePlayerButtonListener(e -> bet(nickname, avatar, 1));
-            home.addTwoPlayersButtonListener(e -> bet(nickname, avatar, 2));
-            home.addThreePlayersButtonListener(e -> bet(nickname, avatar, 3));
+            // Recupera il profilo salvato del giocatore, o ne crea uno nuovo
+            profile = profiles != null ? profiles.getProfile(nickname) : new Profile(nickname);
+            // Mostra il pannello Home con i dati del giocatore e dei bot
+            showHome(nickname, avatar);
         }
     }
 
@@ -134,7 +183,18 @@ public class JBlackJack {
      */
     private void bet(String nickname, int avatar, int players) {
         AudioManager.getInstance().play("src/BlackJack/resources/audio/click.wav");
-        betPanel = new Bet(importo); // Crea il pannello delle scommesse
+        // Un giocatore senza importo riparte da quello iniziale, anche se il profilo salvato era a zero
+        if (profile.refill()) {
+            if (profiles != null) {
+                profiles.save(profile);
+            }
+            JOptionPane.showMessageDialog(frame, "Importo esaurito: il tuo importo torna a " + Profile.INITIAL_IMPORTO + ".");
+        }
+        betPanel = new Bet(profile.getImporto()); // Crea il pannello delle scommesse
+        if (models[players] != null) {
+            // Suggerisce il conteggio del sabot con cui si giocherà la prossima partita
+            betPanel.setCountHint(models[players].getNextRoundTrueCount(CardCounter.HI_LO));
+        }
         switchToPanel(betPanel); // Cambia il pannello visualizzato
         betPanel.addBetButtonListener(e -> startGameWithPlayers(nickname, avatar, players)); // Aggiunge listener al pulsante della scommessa
     }
@@ -153,6 +213,104 @@ public class JBlackJack {
         } else if (players == 3) {
             threePlayersSelected(nickname, avatar); // Inizia una partita a tre giocatori
         }
+        // Conserva i dati che servono a riprodurre la partita, mostrati poi nella Home, e il modello per rivederla
+        lastReplayKey = "Partita a " + players + " giocatori: " + models[players].getReplayKey();
+        lastModel = models[players];
+    }
+
+    /**
+     * Mostra di nuovo l'ultima partita giocata, così come è stata giocata: le azioni del giocatore
+     * vengono rigiocate dal registro degli eventi una alla volta, poi il turno del dealer e dei bot.
+     * La partita rivista non modifica l'importo né i contatori.
+     * @param nickname nickname del giocatore
+     * @param avatar avatar del giocatore
+     */
+    private void review(String nickname, int avatar) {
+        AudioManager.getInstance().play("src/BlackJack/resources/audio/click.wav");
+        JPanel panel;
+        GameView view;
+        if (lastModel.getPlayers() == 1) {
+            OnePlayer review = new OnePlayer();
+            review.gamePanel.addHomeButtonListener(e -> returnHome(nickname, avatar));
+            panel = review;
+            view = review;
+        } else if (lastModel.getPlayers() == 2) {
+            TwoPlayers review = new TwoPlayers();
+            review.gamePanel.addHomeButtonListener(e -> returnHome(nickname, avatar));
+            panel = review;
+            view = review;
+        } else {
+            ThreePlayers review = new ThreePlayers();
+            review.gamePanel.addHomeButtonListener(e -> returnHome(nickname, avatar));
+            panel = review;
+            view = review;
+        }
+        // Il registro contiene solo l'ultima partita: la riproduzione avviene su un modello separato
+        RoundReplayer replayer = new RoundReplayer(lastModel.getEventLog(), lastModel.getRules());
+        switchToPanel(panel);
+        reviewController = new ReplayController(replayer, 0, view, REVIEW_DELAY);
+    }
+
+    /**
+     * Chiede i dati di una partita da riprodurre, nel formato mostrato nella Home (giocatori, seme, sabot,
+     * partita e carta), e la prepara: dopo la puntata vengono distribuite le stesse carte di allora.
+     * @param nickname nickname del giocatore
+     * @param avatar avatar del giocatore
+     */
+    private void replay(String nickname, int avatar) {
+        AudioManager.getInstance().play("src/BlackJack/resources/audio/click.wav");
+        String text = JOptionPane.showInputDialog(frame,
+                "Dati della partita da riprodurre (giocatori, seme, sabot, partita, carta):", lastReplayKey);
+        if (text == null) {
+            return;
+        }
+        long[] values = new long[5];
+        int count = 0;
+        Matcher matcher = NUMBER.matcher(text);
+        try {
+            while (count < values.length && matcher.find()) {
+                values[count++] = Long.parseLong(matcher.group());
+            }
+        } catch (NumberFormatException e) {
+            count = -1;
+        }
+        int players = (int) values[0];
+        if (count < values.length || matcher.find() || players < 1 || players > 3
+                || values[3] > Integer.MAX_VALUE || values[4] > Integer.MAX_VALUE) {
+            JOptionPane.showMessageDialog(frame, "Dati della partita non validi.");
+            return;
+        }
+        Model model = new Model(players);
+        try {
+            model.seekRound(values[1], values[2], (int) values[3], (int) values[4]);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(frame, "Dati della partita non validi: " + e.getMessage());
+            return;
+        }
+        models[players] = model;
+        bet(nickname, avatar, players);
+    }
+
+    /**
+     * Restituisce il modello per il numero di giocatori indicato, creandolo alla prima partita.
+     * Il modello viene riusato così che il sabot, e il suo conteggio, proseguano tra le partite;
+     * gli osservatori della partita precedente vengono rimossi.
+     * Il sabot è mescolato con il seme della sessione, a partire dal sabot indicato all'avvio.
+     * @param players numero di giocatori (1, 2 o 3)
+     * @return il modello pronto per una nuova partita
+     */
+    private Model getModel(int players) {
+        if (models[players] == null) {
+            models[players] = new Model(players);
+            models[players].setSeed(seed, firstShoe);
+        }
+        // Il registro degli eventi conserva solo la partita che sta per iniziare, per poterla rivedere
+        if (models[players].getEventLog() == null) {
+            models[players].setEventLog(new EventLog(64));
+        }
+        models[players].getEventLog().clear();
+        models[players].deleteObservers();
+        return models[players];
     }
 
     /**
@@ -163,13 +321,13 @@ public class JBlackJack {
     private void onePlayerSelected(String nickname, int avatar) {
         AudioManager.getInstance().play("src/BlackJack/resources/audio/click2.wav");
         onePlayer = new OnePlayer(); // Crea il pannello per un giocatore
-        Model model = new Model(1); // Inizializza il modello del gioco per un giocatore
+        Model model = getModel(1); // Recupera il modello del gioco per un giocatore
         model.addObserver(onePlayer); // Aggiunge il pannello come osservatore del modello
         model.startNewGame(); // Avvia una nuova partita
         new Controller(model, onePlayer); // Crea un controller per gestire il gioco
         switchToPanel(onePlayer); // Cambia il pannello visualizzato
         // Aggiunge listener per il ritorno alla schermata Home dopo la partita
-        onePlayer.gamePanel.addHomeButtonListener(e -> backHome(nickname, avatar, onePlayer.getResult(), 0, 0));
+        onePlayer.gamePanel.addHomeButtonListener(e -> backHome(nickname, avatar, onePlayer.getResult(), onePlayer.getPayout(), 0, 0));
     }
 
     /**
@@ -180,13 +338,13 @@ public class JBlackJack {
     private void twoPlayersSelected(String nickname, int avatar) {
         AudioManager.getInstance().play("src/BlackJack/resources/audio/click2.wav");
         twoPlayers = new TwoPlayers(); // Crea il pannello per due giocatori
-        Model model = new Model(2); // Inizializza il modello del gioco per due giocatori
+        Model model = getModel(2); // Recupera il modello del gioco per due giocatori
         model.addObserver(twoPlayers); // Aggiunge il pannello come osservatore del modello
         model.startNewGame(); // Avvia una nuova partita
         new Controller(model, twoPlayers); // Crea un controller per gestire il gioco
         switchToPanel(twoPlayers); // Cambia il pannello visualizzato
         // Aggiunge listener per il ritorno alla schermata Home dopo la partita
-        twoPlayers.gamePanel.addHomeButtonListener(e -> backHome(nickname, avatar, twoPlayers.getResult(), twoPlayers.getBot1Result(), 0));
+        twoPlayers.gamePanel.addHomeButtonListener(e -> backHome(nickname, avatar, twoPlayers.getResult(), twoPlayers.getPayout(), twoPlayers.getBot1Result(), 0));
     }
 
     /**
@@ -197,13 +355,13 @@ public class JBlackJack {
     private void threePlayersSelected(String nickname, int avatar) {
         AudioManager.getInstance().play("src/BlackJack/resources/audio/click2.wav");
         threePlayers = new ThreePlayers(); // Crea il pannello per tre giocatori
-        Model model = new Model(3); // Inizializza il modello del gioco per tre giocatori
+        Model model = getModel(3); // Recupera il modello del gioco per tre giocatori
         model.addObserver(threePlayers); // Aggiunge il pannello come osservatore del modello
         model.startNewGame(); // Avvia una nuova partita
         new Controller(model, threePlayers); // Crea un controller per gestire il gioco
         switchToPanel(threePlayers); // Cambia il pannello visualizzato
         // Aggiunge listener per il ritorno alla schermata Home dopo la partita
-        threePlayers.gamePanel.addHomeButtonListener(e -> backHome(nickname, avatar, threePlayers.getResult(), threePlayers.getBot1Result(), threePlayers.getBot2Result()));
+        threePlayers.gamePanel.addHomeButtonListener(e -> backHome(nickname, avatar, threePlayers.getResult(), threePlayers.getPayout(), threePlayers.getBot1Result(), threePlayers.getBot2Result()));
     }
 
     /**
@@ -211,70 +369,76 @@ public class JBlackJack {
      * @param nickname nickname del giocatore
      * @param avatar avatar del giocatore
      * @param result risultato della partita per il giocatore (1=vittoria, 2=sconfitta, 3=pareggio)
+     * @param payout vincita netta del giocatore in unità della puntata
      * @param bot1result risultato della partita per il primo bot
      * @param bot2result risultato della partita per il secondo bot
      */
-    private void backHome(String nickname, int avatar, int result, int bot1result, int bot2result) {
+    private void backHome(String nickname, int avatar, int result, double payout, int bot1result, int bot2result) {
         AudioManager.getInstance().play("src/BlackJack/resources/audio/click.wav");
 
         // Aggiorna i contatori basati sui risultati della partita
-        updateCounts(result, bot1result, bot2result);
+        updateCounts(result, payout, bot1result, bot2result);
         // Ritorna al pannello Home con i dati aggiornati
-        home = new Home(nickname, avatar, winCount, defeatCount, drawCount, importo, avatarBot1, avatarBot2, winCountBot1, defeatCountBot1, drawCountBot1, winCountBot2, defeatCountBot2, drawCountBot2);
+        showHome(nickname, avatar);
+    }
+
+    /**
+     * Ritorna al pannello Home dopo aver rivisto una partita, senza aggiornare i contatori.
+     * La riproduzione viene fermata, anche se la partita non è ancora finita.
+     * @param nickname nickname del giocatore
+     * @param avatar avatar del giocatore
+     */
+    private void returnHome(String nickname, int avatar) {
+        reviewController.stop();
+        reviewController = null;
+        AudioManager.getInstance().play("src/BlackJack/resources/audio/click.wav");
+        showHome(nickname, avatar);
+    }
+
+    /**
+     * Crea e mostra il pannello Home e aggiunge i listener per selezionare la modalità di gioco,
+     * riprodurre una partita o rivedere l'ultima.
+     * @param nickname nickname del giocatore
+     * @param avatar avatar del giocatore
+     */
+    private void showHome(String nickname, int avatar) {
+        home = newHome(nickname, avatar);
         switchToPanel(home); // Cambia il pannello visualizzato
 
-        // Aggiunge listener per selezionare nuovamente la modalità di gioco
         home.addOnePlayerButtonListener(e -> bet(nickname, avatar, 1));
         home.addTwoPlayersButtonListener(e -> bet(nickname, avatar, 2));
         home.addThreePlayersButtonListener(e -> bet(nickname, avatar, 3));
+        home.addReplayButtonListener(e -> replay(nickname, avatar));
+        home.addReviewButtonListener(e -> review(nickname, avatar));
     }
 
     /**
-     * Aggiorna i contatori delle vittorie, sconfitte e pareggi per il giocatore e i bot.
-     * @param result risultato della partita per il giocatore (1=vittoria, 2=sconfitta, 3=pareggio)
-     * @param bot1result risultato della partita per il primo bot
-     * @param bot2result risultato della partita per il secondo bot
+     * Crea il pannello Home con i dati del profilo del giocatore e dei bot e quelli dell'ultima partita.
+     * @param nickname nickname del giocatore
+     * @param avatar avatar del giocatore
+     * @return il pannello Home
      */
-    private void updateCounts(int result, int bot1result, int bot2result) {
-        // Aggiorna i contatori del giocatore in base al risultato
-        if (result == 1) {
-            winCount++;
-            importo += betPanel.puntata;
-        } else if (result == 2) {
-            defeatCount++;
-            importo -= betPanel.puntata;
-        } else if (result == 3) {
-            drawCount++;
-        }
-        // Aggiorna i contatori per i bot
-        updateBotCounts(bot1result, 1);
-        updateBotCounts(bot2result, 2);
+    private Home newHome(String nickname, int avatar) {
+        Home newHome = new Home(nickname, avatar, profile.getWinCount(), profile.getDefeatCount(), profile.getDrawCount(), profile.getImporto(),
+                avatarBot1, avatarBot2, profile.getWinCountBot1(), profile.getDefeatCountBot1(), profile.getDrawCountBot1(),
+                profile.getWinCountBot2(), profile.getDefeatCountBot2(), profile.getDrawCountBot2());
+        newHome.setReplayKey(lastReplayKey);
+        return newHome;
     }
 
     /**
-     * Aggiorna i contatori delle vittorie, sconfitte e pareggi per un bot specifico.
-     * @param result risultato della partita per il bot (1=vittoria, 2=sconfitta, 3=pareggio)
-     * @param botNumber numero del bot (1 o 2)
+     * Aggiorna i contatori delle vittorie, sconfitte e pareggi per il giocatore e i bot,
+     * e salva il profilo. Il salvataggio su disco avviene fuori dal thread della GUI.
+     * @param result risultato della partita per il giocatore (1=vittoria, 2=sconfitta, 3=pareggio)
+     * @param payout vincita netta del giocatore in unità della puntata (1.5 per il blackjack, -0.5 per la resa, ...)
+     * @param bot1result risultato della partita per il primo bot
+     * @param bot2result risultato della partita per il secondo bot
      */
-    private void updateBotCounts(int result, int botNumber) {
-        // Aggiorna i contatori del primo bot
-        if (botNumber == 1) {
-            if (result == 1) {
-                winCountBot1++;
-            } else if (result == 2) {
-                defeatCountBot1++;
-            } else if (result == 3) {
-                drawCountBot1++;
-            }
-        // Aggiorna i contatori del secondo bot
-        } else if (botNumber == 2) {
-            if (result == 1) {
-                winCountBot2++;
-            } else if (result == 2) {
-                defeatCountBot2++;
-            } else if (result == 3) {
-                drawCountBot2++;
-            }
+    private void updateCounts(int result, double payout, int bot1result, int bot2result) {
+        // L'importo varia secondo la vincita netta, che tiene conto di blackjack, raddoppi, divisioni e resa
+        profile.recordRound(result, (int) Math.round(betPanel.puntata * payout), bot1result, bot2result);
+        if (profiles != null) {
+            profiles.save(profile);
         }
     }
 
@@ -1,47 +1,130 @@
 package BlackJack;
 
+import BlackJack.history.EventLog;
+import BlackJack.strategy.BotStrategy;
+import BlackJack.strategy.DealerMimicStrategy;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Observable;
-import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.random.RandomGenerator;
 
 /**
  * Modello per il gioco del BlackJack.
  * Gestisce la logica del gioco, incluso il mazzo, le mani dei giocatori e i punteggi.
+ * Le mani sono conservate in un {@link Table} indicizzato per posto; i getter per dealer,
+ * giocatore e bot sono viste sui posti corrispondenti.
+ * Le regole estese di {@link Rules} (blackjack naturale, raddoppio, divisione, resa tardiva)
+ * sono applicate qui, sia per il Controller sia per le simulazioni senza interfaccia.
+ * Se è impostato un {@link EventLog}, ogni carta e ogni azione della partita vi viene registrata.
  */
 public class Model extends Observable{
 
-    private List<Card> deck;
-    private Random random;
+    // Codici del risultato di una mano, gli stessi usati dalle viste e da JBlackJack
+    public static final int RESULT_WIN = 1;
+    public static final int RESULT_LOSS = 2;
+    public static final int RESULT_DRAW = 3;
 
-    private Card hiddenCard;
+    // Soglia sotto la quale dealer e bot continuano a pescare
+    public static final int DEALER_STAND = 17;
 
-    private List<Card> dealerHand;
-    private List<Card> playerHand;
-    private List<Card> bot1Hand;
-    private List<Card> bot2Hand;
+    // Posti dei due bot delle viste a due e tre giocatori
+    private static final int BOT1 = Table.PLAYER + 1;
+    private static final int BOT2 = Table.PLAYER + 2;
 
-    private int dealerSum;
-    private int playerSum;
-    private int bot1Sum;
-    private int bot2Sum;
+    private Shoe shoe;
+    private Table table;
 
-    private int dealerAceCount;
-    private int playerAceCount;
-    private int bot1AceCount;
-    private int bot2AceCount;
+    // Viste sulle mani, create una sola volta (la mano del dealer esclude la carta coperta)
+    private List<Card> dealerHand;
+    private final List<List<Card>> hands;
+    private List<Card> playerCards;
 
     private int players;
+    private Rules rules;
+
+    // Strategie dei bot, indicizzate per posto; per default la stessa regola del dealer
+    private BotStrategy[] strategies;
+
+    // Mano del giocatore su cui agiscono i pulsanti
+    private int activeHand;
+
+    // Registro degli eventi (null = nessuna registrazione)
+    private EventLog log;
 
     /**
-     * Costruttore del modello.
+     * Costruttore del modello con le regole predefinite.
      * @param players Il numero di giocatori nella partita.
      */
     public Model(int players) {
+        this(players, new Rules());
+    }
+
+    /**
+     * Costruttore del modello.
+     * @param players Il numero di giocatori nella partita (da 1 a 7).
+     * @param rules Le regole del tavolo (numero di mazzi, penetrazione, generatore casuale).
+     */
+    public Model(int players, Rules rules) {
         this.players = players;
-        random = new Random();
+        this.rules = rules;
+        shoe = new Shoe(rules.getDecks(), rules.getPenetration(), rules.newRandomGenerator());
+        if (rules.getSeed() != null) {
+            shoe.seed(rules.getRandomAlgorithm(), rules.getSeed(), 0);
+        }
+        table = new Table(players);
+
+        dealerHand = table.handView(Table.DEALER, 1);
+        playerCards = table.seatView(Table.PLAYER);
+        hands = new ArrayList<>(table.getSeats());
+        hands.add(null); // il dealer ha la sua mano a parte
+        strategies = new BotStrategy[table.getSeats()];
+        for (int seat = Table.PLAYER; seat < table.getSeats(); seat++) {
+            hands.add(table.handView(seat, 0));
+            strategies[seat] = new DealerMimicStrategy();
+        }
+    }
+
+    /**
+     * Sostituisce il generatore di numeri casuali usato per mescolare il sabot,
+     * ad esempio con un flusso dedicato a un thread di simulazione.
+     * Ha effetto dal prossimo rimescolamento.
+     * @param random Il nuovo generatore.
+     */
+    public void setRandomGenerator(RandomGenerator random) {
+        shoe.setRandom(random);
+    }
+
+    /**
+     * Rende riproducibili le carte: il sabot con l'indice indicato, e ciascuno dei successivi,
+     * viene mescolato con un generatore derivato soltanto dal seme e dal proprio indice.
+     * La prossima partita inizia dal sabot indicato, appena mescolato.
+     * @param seed Il seme.
+     * @param shoeIndex L'indice del primo sabot (almeno 0).
+     */
+    public void setSeed(long seed, long shoeIndex) {
+        shoe.seed(rules.getRandomAlgorithm(), seed, shoeIndex);
+    }
+
+    /**
+     * Prepara la prossima partita con le stesse carte di una partita già giocata con seme,
+     * descritta dai valori di {@link #getReplayKey()}.
+     * @param seed Il seme.
+     * @param shoeIndex L'indice del sabot.
+     * @param round L'indice della partita nel sabot.
+     * @param firstCard La posizione nel sabot della prima carta della partita.
+     */
+    public void seekRound(long seed, long shoeIndex, int round, int firstCard) {
+        shoe.seek(rules.getRandomAlgorithm(), seed, shoeIndex, round, firstCard);
+    }
+
+    /**
+     * Descrive la partita in corso con i dati che servono a riprodurla.
+     * @return Seme, indice del sabot, indice della partita nel sabot e posizione della sua prima carta.
+     */
+    public String getReplayKey() {
+        return String.format("seme %d, sabot %d, partita %d, carta %d",
+                shoe.getSeed(), shoe.getShoeIndex(), shoe.getRound(), shoe.getRoundFirstCard());
     }
 
     /**
@@ -55,92 +138,439 @@ public class Model extends Observable{
 
     /**
      * Inizia una nuova partita.
-     * Crea e mischia il mazzo, distribuisce le carte iniziali.
+     * Rimescola il sabot se la carta di taglio è stata superata, distribuisce le carte iniziali:
+     * prima la carta coperta e quella scoperta del dealer, poi due carte per ogni giocatore.
+     * Se il dealer ha blackjack o il giocatore ha un blackjack naturale, il turno del giocatore è già concluso.
      */
     public void startNewGame() {
-        buildDeck();
-        shuffleDeck();
+        // La carta coperta della partita precedente è stata vista alla fine della partita
+        shoe.getCounter().reveal();
+        shoe.startRound();
+        table.clear();
+        activeHand = 0;
+        if (log != null) log.round(players);
+
+        deal(Table.DEALER, 0);
+        shoe.getCounter().hide(table.card(Table.DEALER, 0));
+        deal(Table.DEALER, 0);
+
+        for (int seat = Table.PLAYER; seat < table.getSeats(); seat++) {
+            deal(seat, 0);
+            deal(seat, 0);
+        }
+        advancePlayer();
+    }
 
-        if (players > 0) {
-            dealerHand = new ArrayList<>();
-            playerHand = new ArrayList<>();
+    /**
+     * Pesca una carta dal mazzo.
+     * @return La carta pescata.
+     */
+    public Card drawCard() {
+        return Card.of(shoe.draw());
+    }
 
-            dealerSum = playerSum = dealerAceCount = playerAceCount = 0;
+    /**
+     * Pesca una carta e la aggiunge alla mano di un posto.
+     * @param seat Il posto (vedi {@link Table}).
+     * @return La carta pescata.
+     */
+    public Card hit(int seat) {
+        return hit(seat, 0);
+    }
 
-            hiddenCard = drawCard();
-            dealerSum += hiddenCard.getValue();
-            dealerAceCount += hiddenCard.isAce() ? 1 : 0;
+    /**
+     * Pesca una carta e la aggiunge a una mano di un posto.
+     * @param seat Il posto (vedi {@link Table}).
+     * @param hand La mano del posto.
+     * @return La carta pescata.
+     */
+    public Card hit(int seat, int hand) {
+        int code = draw(seat, hand);
+        if (log != null) log.card(seat == Table.DEALER ? EventLog.DEALER_DRAW : EventLog.HIT, seat, hand, code);
+        return Card.of(code);
+    }
 
-            dealerHand.add(drawCard());
-            dealerSum += dealerHand.get(0).getValue();
-            dealerAceCount += dealerHand.get(0).isAce() ? 1 : 0;
+    /**
+     * Distribuisce una carta senza che sia una scelta del posto: la distribuzione iniziale
+     * e la carta data a ciascuna mano dopo una divisione.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     */
+    private void deal(int seat, int hand) {
+        int code = draw(seat, hand);
+        if (log != null) log.card(EventLog.DEAL, seat, hand, code);
+    }
 
-            Stream.generate(this::drawCard)
-                  .limit(2)
-                  .forEach(card -> {
-                      playerSum += card.getValue();
-                      playerAceCount += card.isAce() ? 1 : 0;
-                      playerHand.add(card);
-                  });
+    private int draw(int seat, int hand) {
+        int code = shoe.draw();
+        table.add(seat, hand, code);
+        return code;
+    }
+
+    /**
+     * Pesca una carta e la aggiunge alla mano attiva del giocatore.
+     * @return La carta pescata.
+     */
+    public Card hitPlayer() {
+        Card card = hit(Table.PLAYER, activeHand);
+        advancePlayer();
+        return card;
+    }
+
+    /**
+     * Il giocatore sta sulla mano attiva e passa alla successiva, se ha diviso.
+     */
+    public void standPlayer() {
+        if (log != null) log.action(EventLog.STAY, Table.PLAYER, activeHand);
+        activeHand++;
+        advancePlayer();
+    }
+
+    /**
+     * Il giocatore raddoppia sulla mano attiva.
+     */
+    public void doublePlayer() {
+        doubleDown(Table.PLAYER, activeHand);
+        advancePlayer();
+    }
+
+    /**
+     * Il giocatore divide la coppia della mano attiva.
+     */
+    public void splitPlayer() {
+        split(Table.PLAYER, activeHand);
+        advancePlayer();
+    }
+
+    /**
+     * Il giocatore si arrende sulla mano attiva.
+     */
+    public void surrenderPlayer() {
+        surrender(Table.PLAYER, activeHand);
+        advancePlayer();
+    }
+
+    /**
+     * Salta le mani del giocatore che non richiedono più decisioni.
+     */
+    private void advancePlayer() {
+        while (activeHand < table.getHands(Table.PLAYER) && isHandDone(Table.PLAYER, activeHand)) {
+            activeHand++;
         }
+    }
 
-        if (players > 1) {
-            bot1Hand = new ArrayList<>();
+    /**
+     * Verifica se il giocatore ha concluso tutte le sue mani.
+     * @return true se il turno del giocatore è finito.
+     */
+    public boolean isPlayerTurnOver() {
+        return activeHand >= table.getHands(Table.PLAYER);
+    }
 
-            bot1Sum = bot1AceCount = 0;
+    public boolean canPlayerDouble() { return !isPlayerTurnOver() && canDouble(Table.PLAYER, activeHand); }
+    public boolean canPlayerSplit() { return !isPlayerTurnOver() && canSplit(Table.PLAYER, activeHand); }
+    public boolean canPlayerSurrender() { return !isPlayerTurnOver() && canSurrender(Table.PLAYER, activeHand); }
+
+    /**
+     * Verifica se il dealer ha un blackjack naturale. Il dealer controlla subito la carta coperta,
+     * quindi in quel caso nessuna mano viene giocata.
+     * @return true se il dealer ha blackjack.
+     */
+    public boolean isDealerBlackjack() {
+        return HandState.isBlackjack(table.getState(Table.DEALER));
+    }
 
-            Stream.generate(this::drawCard)
-                  .limit(2)
-                  .forEach(card -> {
-                      bot1Sum += card.getValue();
-                      bot1AceCount += card.isAce() ? 1 : 0;
-                      bot1Hand.add(card);
-                  });
+    /**
+     * Verifica se una mano non richiede più decisioni: sballata, raddoppiata, arresa, arrivata a 21,
+     * un asso diviso con la sua unica carta, o il dealer ha blackjack.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return true se la mano è conclusa.
+     */
+    public boolean isHandDone(int seat, int hand) {
+        int state = table.getState(seat, hand);
+        if (isDealerBlackjack() || HandState.isBust(state) || HandState.isDoubled(state)
+                || HandState.isSurrendered(state) || HandState.total(state) == 21) {
+            return true;
         }
+        return isSplitAce(seat, hand) && HandState.count(state) >= 2 && !canSplit(seat, hand);
+    }
+
+    /**
+     * Verifica se una mano può raddoppiare: due carte, raddoppio consentito (anche dopo una divisione,
+     * se previsto), e non si tratta di un asso diviso.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return true se il raddoppio è consentito.
+     */
+    public boolean canDouble(int seat, int hand) {
+        int state = table.getState(seat, hand);
+        return rules.isDoubleAllowed() && HandState.count(state) == 2 && !isHandDone(seat, hand)
+                && (!HandState.isSplit(state) || rules.isDoubleAfterSplit()) && !isSplitAce(seat, hand);
+    }
+
+    /**
+     * Verifica se una mano può essere divisa: una coppia di carte dello stesso valore,
+     * entro il limite di mani delle regole; gli assi divisi si ridividono solo se previsto.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return true se la divisione è consentita.
+     */
+    public boolean canSplit(int seat, int hand) {
+        return table.getCount(seat, hand) == 2 && table.getHands(seat) < rules.getMaxHands() && !isDealerBlackjack()
+                && Cards.valueClass(table.card(seat, hand, 0)) == Cards.valueClass(table.card(seat, hand, 1))
+                && (!isSplitAce(seat, hand) || rules.isResplitAces());
+    }
 
-        if (players > 2) {
-            bot2Hand = new ArrayList<>();
+    /**
+     * Verifica se una mano può arrendersi: resa tardiva consentita, prime due carte, nessuna divisione.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return true se la resa è consentita.
+     */
+    public boolean canSurrender(int seat, int hand) {
+        int state = table.getState(seat, hand);
+        return rules.isLateSurrender() && table.getHands(seat) == 1 && HandState.count(state) == 2
+                && !HandState.isSplit(state) && !isHandDone(seat, hand);
+    }
 
-            bot2Sum = bot2AceCount = 0;
+    private boolean isSplitAce(int seat, int hand) {
+        return HandState.isSplit(table.getState(seat, hand)) && Cards.isAce(table.card(seat, hand, 0));
+    }
 
-            Stream.generate(this::drawCard)
-                  .limit(2)
-                  .forEach(card -> {
-                      bot2Sum += card.getValue();
-                      bot2AceCount += card.isAce() ? 1 : 0;
-                      bot2Hand.add(card);
-                  });
+    /**
+     * Raddoppia una mano: la puntata raddoppia e la mano riceve una sola carta.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     */
+    public void doubleDown(int seat, int hand) {
+        if (!canDouble(seat, hand)) {
+            throw new IllegalStateException("Raddoppio non consentito: posto " + seat + ", mano " + hand);
         }
+        table.setState(seat, hand, HandState.markDoubled(table.getState(seat, hand)));
+        int code = draw(seat, hand);
+        if (log != null) log.card(EventLog.DOUBLE, seat, hand, code);
     }
 
     /**
-     * Costruisce il mazzo di carte.
+     * Divide una coppia in due mani e dà una carta a ciascuna.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
      */
-    private void buildDeck() {
-        deck = Stream.of("C", "D", "H", "S")
-                     .flatMap(type -> Stream.of("A", "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K")
-                                             .map(value -> new Card(value, type)))
-                     .collect(Collectors.toList());
+    public void split(int seat, int hand) {
+        if (!canSplit(seat, hand)) {
+            throw new IllegalStateException("Divisione non consentita: posto " + seat + ", mano " + hand);
+        }
+        if (log != null) log.action(EventLog.SPLIT, seat, hand);
+        int newHand = table.split(seat, hand);
+        deal(seat, hand);
+        deal(seat, newHand);
     }
 
     /**
-     * Mischia il mazzo di carte.
+     * Si arrende su una mano, perdendo metà della puntata.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
      */
-    private void shuffleDeck() {
-        for (int i = 0; i < deck.size(); i++) {
-            int j = random.nextInt(deck.size());
-            Card temp = deck.get(i);
-            deck.set(i, deck.get(j));
-            deck.set(j, temp);
+    public void surrender(int seat, int hand) {
+        if (!canSurrender(seat, hand)) {
+            throw new IllegalStateException("Resa non consentita: posto " + seat + ", mano " + hand);
         }
+        table.setState(seat, hand, HandState.markSurrendered(table.getState(seat, hand)));
+        if (log != null) log.action(EventLog.SURRENDER, seat, hand);
     }
 
     /**
-     * Pesca una carta dal mazzo.
-     * @return La carta pescata.
+     * Restituisce le opzioni consentite per una mano, nella forma passata a {@link BotStrategy#decide}.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return La maschera delle opzioni.
      */
-    public Card drawCard() {
-        return deck.remove(deck.size() - 1);
+    public int getOptions(int seat, int hand) {
+        int options = 0;
+        if (canDouble(seat, hand)) options |= BotStrategy.CAN_DOUBLE;
+        if (canSplit(seat, hand)) options |= BotStrategy.CAN_SPLIT;
+        if (canSurrender(seat, hand)) options |= BotStrategy.CAN_SURRENDER;
+        return options;
+    }
+
+    /**
+     * Gioca il turno del dealer: pesca finché il totale, con gli assi ridotti, è inferiore a 17.
+     */
+    public void playDealerTurn() {
+        shoe.getCounter().reveal();
+        while (HandState.total(table.getState(Table.DEALER)) < DEALER_STAND) {
+            hit(Table.DEALER);
+        }
+    }
+
+    /**
+     * Chiude la partita dopo il turno del giocatore: gioca il turno del dealer e quello dei bot,
+     * poi registra la vincita netta di ogni posto se è impostato un registro degli eventi.
+     */
+    public void finishRound() {
+        playDealerTurn();
+        playBotTurns();
+        if (log != null) {
+            for (int seat = Table.PLAYER; seat < table.getSeats(); seat++) {
+                log.settle(seat, getPayout(seat));
+            }
+        }
+    }
+
+    /**
+     * Gioca il turno dei bot presenti, ciascuno secondo la propria strategia.
+     */
+    public void playBotTurns() {
+        int upcard = getDealerUpcard();
+        for (int seat = BOT1; seat < table.getSeats(); seat++) {
+            playSeat(seat, strategies[seat], upcard);
+        }
+    }
+
+    /**
+     * Gioca le mani di un posto con la strategia indicata, comprese quelle nate da divisioni,
+     * finché la strategia sta o la mano è conclusa.
+     * @param seat Il posto.
+     * @param strategy La strategia da seguire.
+     * @param upcard La classe di valore della carta scoperta del dealer.
+     */
+    public void playSeat(int seat, BotStrategy strategy, int upcard) {
+        for (int hand = 0; hand < table.getHands(seat); hand++) {
+            while (!isHandDone(seat, hand)) {
+                int state = table.getState(seat, hand);
+                int options = getOptions(seat, hand);
+                int pair = (options & BotStrategy.CAN_SPLIT) != 0 ? Cards.valueClass(table.card(seat, hand, 0)) : -1;
+                int action = strategy.decide(HandState.total(state), HandState.isSoft(state), pair, upcard, options,
+                        shoe.getCounter());
+                if (action == BotStrategy.STAND) {
+                    if (log != null) log.action(EventLog.STAY, seat, hand);
+                    break;
+                }
+                play(seat, hand, action);
+            }
+        }
+    }
+
+    /**
+     * Gioca un'azione su una mano.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @param action L'azione (vedi {@link BotStrategy}).
+     */
+    public void play(int seat, int hand, int action) {
+        switch (action) {
+            case BotStrategy.HIT: hit(seat, hand); break;
+            case BotStrategy.DOUBLE: doubleDown(seat, hand); break;
+            case BotStrategy.SPLIT: split(seat, hand); break;
+            case BotStrategy.SURRENDER: surrender(seat, hand); break;
+            default: throw new IllegalArgumentException("Azione non valida: " + action);
+        }
+    }
+
+    /**
+     * Restituisce la classe di valore della carta scoperta del dealer, usata dalle strategie.
+     * @return La classe di valore (vedi {@link Cards#valueClass(int)}).
+     */
+    public int getDealerUpcard() {
+        return Cards.valueClass(table.card(Table.DEALER, 1));
+    }
+
+    /**
+     * Restituisce il conteggio vero con cui inizierà la prossima mano, da usare prima di
+     * {@link #startNewGame()}: se il sabot verrà rimescolato è quello di un sabot nuovo.
+     * @param system Il sistema di conteggio (vedi {@link CardCounter}).
+     * @return Il conteggio vero.
+     */
+    public double getNextRoundTrueCount(int system) {
+        CardCounter counter = shoe.getCounter();
+        return shoe.needsShuffle() ? counter.getInitialTrueCount(system) : counter.getTrueCount(system);
+    }
+
+    /**
+     * Copia la composizione delle carte non viste dal giocatore, per classe di valore:
+     * le carte ancora nel sabot più la carta coperta del dealer.
+     * @param dest L'array di destinazione, lungo almeno {@link Cards#VALUE_CLASSES}.
+     */
+    public void copyUnseenCounts(int[] dest) {
+        shoe.copyRemainingCounts(dest);
+        dest[Cards.valueClass(table.card(Table.DEALER, 0))]++;
+    }
+
+    /**
+     * Restituisce il totale di un posto, con gli assi ridotti.
+     * Il valore è letto dallo stato aggiornato a ogni carta, senza ricalcoli.
+     * @param seat Il posto.
+     * @return Il totale della mano.
+     */
+    public int getTotal(int seat) {
+        return HandState.total(table.getState(seat));
+    }
+
+    /**
+     * Restituisce lo stato impacchettato della mano di un posto (vedi {@link HandState}).
+     * @param seat Il posto.
+     * @return Lo stato della mano.
+     */
+    public int getHandState(int seat) {
+        return table.getState(seat);
+    }
+
+    /**
+     * Restituisce la vincita netta di una mano, in unità della puntata iniziale:
+     * il blackjack naturale paga secondo le regole, la resa perde metà puntata,
+     * una mano raddoppiata vince o perde il doppio. Se il dealer ha blackjack si perde solo la puntata iniziale.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return La vincita netta (negativa in caso di perdita).
+     */
+    public double getPayout(int seat, int hand) {
+        int state = table.getState(seat, hand);
+        int dealer = table.getState(Table.DEALER);
+        if (HandState.isSurrendered(state)) return -0.5;
+        if (HandState.isBlackjack(state)) return HandState.isBlackjack(dealer) ? 0 : rules.getBlackjackPayout();
+        if (HandState.isBlackjack(dealer)) return -1;
+
+        int bet = HandState.isDoubled(state) ? 2 : 1;
+        switch (determineResult(HandState.total(state), HandState.total(dealer))) {
+            case RESULT_WIN: return bet;
+            case RESULT_LOSS: return -bet;
+            default: return 0;
+        }
+    }
+
+    /**
+     * Restituisce la vincita netta di tutte le mani di un posto.
+     * @param seat Il posto.
+     * @return La vincita netta in unità della puntata iniziale.
+     */
+    public double getPayout(int seat) {
+        double payout = 0;
+        for (int hand = 0; hand < table.getHands(seat); hand++) {
+            payout += getPayout(seat, hand);
+        }
+        return payout;
+    }
+
+    /**
+     * Restituisce il risultato complessivo di un posto, dal segno della vincita netta.
+     * @param seat Il posto.
+     * @return Il codice del risultato (1 = vittoria, 2 = sconfitta, 3 = pareggio).
+     */
+    public int getResult(int seat) {
+        double payout = getPayout(seat);
+        return payout > 0 ? RESULT_WIN : payout < 0 ? RESULT_LOSS : RESULT_DRAW;
+    }
+
+    /**
+     * Restituisce il risultato di una singola mano di un posto, dal segno della sua vincita netta.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @return Il codice del risultato (1 = vittoria, 2 = sconfitta, 3 = pareggio).
+     */
+    public int getResult(int seat, int hand) {
+        double payout = getPayout(seat, hand);
+        return payout > 0 ? RESULT_WIN : payout < 0 ? RESULT_LOSS : RESULT_DRAW;
     }
 
     /**
@@ -157,52 +587,139 @@ public class Model extends Observable{
         return sum;
     }
 
-    // Metodi getter
-    public Card getHiddenCard() { return hiddenCard; }
+    /**
+     * Verifica se una mano è morbida, cioè se dopo la riduzione resta un asso contato come 11.
+     * @param sum La somma della mano con gli assi contati come 11.
+     * @param aceCount Il numero di assi.
+     * @return true se la mano è morbida.
+     */
+    public boolean isSoft(int sum, int aceCount) {
+        return aceCount > (sum - reduceAce(sum, aceCount)) / 10;
+    }
 
-    public List<Card> getDealerHand() { return dealerHand; }
-    public List<Card> getPlayerHand() { return playerHand; }
-    public List<Card> getBot1Hand() { return bot1Hand; }
-    public List<Card> getBot2Hand() { return bot2Hand; }
+    /**
+     * Determina il risultato di una mano confrontandola con quella del dealer.
+     * @param playerSum La somma finale del giocatore, con gli assi già ridotti.
+     * @param dealerSum La somma finale del dealer, con gli assi già ridotti.
+     * @return Il codice del risultato (1 = vittoria, 2 = sconfitta, 3 = pareggio).
+     */
+    public static int determineResult(int playerSum, int dealerSum) {
+        if (playerSum > 21) return RESULT_LOSS;
+        if (dealerSum > 21) return RESULT_WIN;
+        if (playerSum == dealerSum) return RESULT_DRAW;
+        return playerSum > dealerSum ? RESULT_WIN : RESULT_LOSS;
+    }
 
-    public int getDealerSum() { return dealerSum; }
-    public int getPlayerSum() { return playerSum; }
-    public int getBot1Sum() { return bot1Sum; }
-    public int getBot2Sum() { return bot2Sum; }
+    // Metodi getter
+    public Card getHiddenCard() { return table.getCount(Table.DEALER) > 0 ? Card.of(table.card(Table.DEALER, 0)) : null; }
 
-    public int getDealerAceCount() { return dealerAceCount; }
-    public int getPlayerAceCount() { return playerAceCount; }
-    public int getBot1AceCount() { return bot1AceCount; }
-    public int getBot2AceCount() { return bot2AceCount; }
+    public List<Card> getDealerHand() { return dealerHand; }
+    public List<Card> getPlayerHand() { return hands.get(Table.PLAYER); }
+    public List<Card> getPlayerCards() { return playerCards; }
+    public List<Card> getBot1Hand() { return getHand(BOT1); }
+    public List<Card> getBot2Hand() { return getHand(BOT2); }
+    public List<Card> getHand(int seat) { return seat < hands.size() ? hands.get(seat) : null; }
+
+    public int getDealerSum() { return table.getSum(Table.DEALER); }
+    public int getPlayerSum() { return table.getSum(Table.PLAYER); }
+    public int getBot1Sum() { return getSum(BOT1); }
+    public int getBot2Sum() { return getSum(BOT2); }
+    public int getSum(int seat) { return seat < table.getSeats() ? table.getSum(seat) : 0; }
+
+    public int getDealerAceCount() { return table.getAceCount(Table.DEALER); }
+    public int getPlayerAceCount() { return table.getAceCount(Table.PLAYER); }
+    public int getBot1AceCount() { return getAceCount(BOT1); }
+    public int getBot2AceCount() { return getAceCount(BOT2); }
+    public int getAceCount(int seat) { return seat < table.getSeats() ? table.getAceCount(seat) : 0; }
+
+    public int getDealerTotal() { return getTotal(Table.DEALER); }
+    public int getPlayerTotal() { return getTotal(Table.PLAYER); }
+    public int getBot1Total() { return getTotal(BOT1); }
+    public int getBot2Total() { return getTotal(BOT2); }
+
+    public int getPlayerResult() { return getResult(Table.PLAYER); }
+    public int getBot1Result() { return getResult(BOT1); }
+    public int getBot2Result() { return getResult(BOT2); }
+
+    public int getHandCount(int seat) { return table.getHands(seat); }
+    public int getActiveHand() { return activeHand; }
+    public int getHandState(int seat, int hand) { return table.getState(seat, hand); }
 
     public int getPlayers() { return players; }
+    public Rules getRules() { return rules; }
+    public Shoe getShoe() { return shoe; }
+    public boolean isSeeded() { return shoe.isSeeded(); }
+    public long getSeed() { return shoe.getSeed(); }
+    public long getShoeIndex() { return shoe.getShoeIndex(); }
+    public int getRoundInShoe() { return shoe.getRound(); }
+    public CardCounter getCounter() { return shoe.getCounter(); }
+    public Table getTable() { return table; }
+    public EventLog getEventLog() { return log; }
+    public BotStrategy getBot1Strategy() { return getStrategy(BOT1); }
+    public BotStrategy getBot2Strategy() { return getStrategy(BOT2); }
+    public BotStrategy getStrategy(int seat) { return strategies[seat]; }
 
     // Metodi setter
-    public void setDealerSum(int sum) { this.dealerSum = sum; }
-    public void setPlayerSum(int sum) { this.playerSum = sum; }
-    public void setBot1Sum(int sum) { this.bot1Sum = sum; }
-    public void setBot2Sum(int sum) { this.bot2Sum = sum; }
+    public void setDealerSum(int sum) { table.setSum(Table.DEALER, sum); }
+    public void setPlayerSum(int sum) { table.setSum(Table.PLAYER, sum); }
+    public void setBot1Sum(int sum) { table.setSum(BOT1, sum); }
+    public void setBot2Sum(int sum) { table.setSum(BOT2, sum); }
 
-    public void setDealerAceCount(int count) { this.dealerAceCount = count; }
-    public void setPlayerAceCount(int count) { this.playerAceCount = count; }
-    public void setBot1AceCount(int count) { this.bot1AceCount = count; }
-    public void setBot2AceCount(int count) { this.bot2AceCount = count; }
+    public void setDealerAceCount(int count) { table.setAceCount(Table.DEALER, count); }
+    public void setPlayerAceCount(int count) { table.setAceCount(Table.PLAYER, count); }
+    public void setBot1AceCount(int count) { table.setAceCount(BOT1, count); }
+    public void setBot2AceCount(int count) { table.setAceCount(BOT2, count); }
+
+    public void setBot1Strategy(BotStrategy strategy) { setStrategy(BOT1, strategy); }
+    public void setBot2Strategy(BotStrategy strategy) { setStrategy(BOT2, strategy); }
+    public void setStrategy(int seat, BotStrategy strategy) { strategies[seat] = strategy; }
+    public void setEventLog(EventLog log) { this.log = log; }
 
     /**
      * Classe interna che rappresenta una carta da gioco.
+     * È una vista sul codice compatto definito in {@link Cards}: esiste una sola istanza
+     * per ciascuna delle 52 carte, ottenibile con {@link #of(int)}.
      */
-    public class Card {
-        private final String value;
-        private final String type;
-    
+    public static class Card {
+        // Le 52 istanze condivise, indicizzate per codice
+        private static final Card[] CARDS = new Card[Cards.DECK_SIZE];
+
+        static {
+            for (int code = 0; code < Cards.DECK_SIZE; code++) {
+                CARDS[code] = new Card(code);
+            }
+        }
+
+        private final byte code;
+
         /**
          * Costruttore della carta.
          * @param value Il valore della carta.
          * @param type Il seme della carta.
          */
         public Card(String value, String type) {
-            this.value = value;
-            this.type = type;
+            this(Cards.encode(value, type));
+        }
+
+        private Card(int code) {
+            this.code = (byte) code;
+        }
+
+        /**
+         * Restituisce l'istanza condivisa della carta con il codice indicato.
+         * @param code Il codice della carta (vedi {@link Cards}).
+         * @return La carta.
+         */
+        public static Card of(int code) {
+            return CARDS[code];
+        }
+
+        /**
+         * Ottiene il codice compatto della carta.
+         * @return Il codice della carta.
+         */
+        public int getCode() {
+            return code;
         }
     
         /**
@@ -210,10 +727,7 @@ public class Model extends Observable{
          * @return Il valore numerico della carta.
          */
         public int getValue() {
-            if ("AJQK".contains(value)) {
-                return value.equals("A") ? 11 : 10;
-            }
-            return Integer.parseInt(value);
+            return Cards.value(code);
         }
     
         /**
@@ -221,7 +735,7 @@ public class Model extends Observable{
          * @return true se la carta è un asso, false altrimenti.
          */
         public boolean isAce() {
-            return value.equals("A");
+            return Cards.isAce(code);
         }
     
         /**
@@ -229,7 +743,7 @@ public class Model extends Observable{
          * @return Il percorso dell'immagine della carta.
          */
         public String getImagePath() {
-            return "/BlackJack/resources/images/cards/" + value + "-" + type + ".png";
+            return "/BlackJack/resources/images/cards/" + Cards.name(code) + ".png";
         }
     
         /**
@@ -238,7 +752,7 @@ public class Model extends Observable{
          */
         @Override
         public String toString() {
-            return value + "-" + type;
+            return Cards.name(code);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package BlackJack;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Algoritmi di generazione di numeri casuali selezionabili per mescolare il sabot.
+ * Ogni generatore creato appartiene a un solo modello, quindi non è condiviso tra thread.
+ */
+public enum RandomAlgorithm {
+
+    // Generatore classico del JDK, con seme atomico condiviso
+    JDK_RANDOM("Random"),
+    // Generatore veloce e divisibile, adatto a un flusso per thread
+    SPLITTABLE("SplittableRandom"),
+    // Generatore LXM divisibile con periodo lungo
+    L64X128("L64X128MixRandom"),
+    // Generatore xoshiro con salti per flussi indipendenti
+    XOSHIRO256("Xoshiro256PlusPlus");
+
+    private final String factoryName;
+
+    // Fabbrica del generatore, cercata alla prima richiesta e poi riusata. È volatile perché i thread
+    // delle simulazioni la chiedono insieme: al più la cercano due volte, ma vedono sempre una fabbrica completa
+    private volatile RandomGeneratorFactory<RandomGenerator> factory;
+
+    RandomAlgorithm(String factoryName) {
+        this.factoryName = factoryName;
+    }
+
+    private RandomGeneratorFactory<RandomGenerator> factory() {
+        RandomGeneratorFactory<RandomGenerator> result = factory;
+        if (result == null) {
+            result = RandomGeneratorFactory.of(factoryName);
+            factory = result;
+        }
+        return result;
+    }
+
+    /**
+     * Crea un generatore con il seme indicato: lo stesso seme produce sempre la stessa sequenza.
+     * @param seed Il seme del generatore.
+     * @return Il nuovo generatore.
+     */
+    public RandomGenerator create(long seed) {
+        // Costruttori diretti per i generatori più usati, senza la creazione riflessiva della fabbrica
+        switch (this) {
+            case JDK_RANDOM: return new Random(seed);
+            case SPLITTABLE: return new SplittableRandom(seed);
+            default: return factory().create(seed);
+        }
+    }
+
+    /**
+     * Riporta un generatore all'inizio della sequenza del seme indicato, senza crearne uno nuovo
+     * quando l'algoritmo lo consente: {@link #JDK_RANDOM} reimposta il seme di un {@link Random},
+     * {@link #SPLITTABLE} usa un generatore SplitMix64 reimpostabile con la stessa sequenza di
+     * {@link SplittableRandom}. Per {@link #L64X128} e {@link #XOSHIRO256}, che il JDK non permette
+     * di reimpostare, viene creato un nuovo generatore a ogni chiamata.
+     * @param generator Il generatore da reimpostare, ottenuto da una chiamata precedente, o null.
+     * @param seed Il seme del generatore.
+     * @return Il generatore reimpostato, o uno nuovo se non è stato possibile riusarlo.
+     */
+    public RandomGenerator reseed(RandomGenerator generator, long seed) {
+        switch (this) {
+            case JDK_RANDOM:
+                if (generator != null && generator.getClass() == Random.class) {
+                    ((Random) generator).setSeed(seed);
+                    return generator;
+                }
+                return new Random(seed);
+            case SPLITTABLE:
+                if (generator instanceof SplitMix64) {
+                    ((SplitMix64) generator).setSeed(seed);
+                    return generator;
+                }
+                return new SplitMix64(seed);
+            default:
+                return create(seed);
+        }
+    }
+
+    /**
+     * Crea un generatore con un seme scelto a caso.
+     * @return Il nuovo generatore.
+     */
+    public RandomGenerator create() {
+        return factory().create();
+    }
+}
@@ -0,0 +1,80 @@
+package BlackJack;
+
+import BlackJack.history.RoundReplayer;
+import BlackJack.views.GameView;
+
+import javax.swing.Timer;
+
+/**
+ * Controller che mostra in una vista una partita registrata, al posto dei pulsanti del giocatore.
+ * I pulsanti restano disabilitati per tutta la riproduzione. Le azioni del giocatore vengono rigiocate
+ * una alla volta a intervalli regolari e mostrate con {@link GameView#showTurn(Model)}; poi si rigiocano
+ * il turno del dealer e dei bot, così che la vista mostri la rivelazione e il risultato come in una
+ * partita normale. Quando si lascia la vista la riproduzione va fermata con {@link #stop()}.
+ */
+public class ReplayController {
+
+    private final RoundReplayer replayer;
+    private final GameView view;
+    private final Model model;
+    private final Timer timer;
+
+    /**
+     * Costruttore del controller di riproduzione. La riproduzione parte subito.
+     * @param replayer Il riproduttore con il registro delle partite.
+     * @param round L'indice della partita da mostrare.
+     * @param view La vista in cui mostrare la partita (una partita a N giocatori va mostrata nella vista a N giocatori).
+     * @param delay L'intervallo tra due azioni, in millisecondi.
+     */
+    public ReplayController(RoundReplayer replayer, int round, GameView view, int delay) {
+        this.replayer = replayer;
+        this.view = view;
+        this.model = replayer.begin(round);
+
+        // Durante la riproduzione il giocatore non può agire
+        view.setHitButtonEnabled(false);
+        view.setDoubleButtonEnabled(false);
+        view.setSplitButtonEnabled(false);
+        view.setSurrenderButtonEnabled(false);
+        view.setStayButtonEnabled(false);
+
+        timer = new Timer(delay, e -> nextStep());
+        if (replayer.hasPlayerAction()) {
+            view.showTurn(model);
+            timer.start();
+        } else {
+            finishRound();
+        }
+    }
+
+    /**
+     * Rigioca la prossima azione del giocatore o, se sono finite, chiude la partita.
+     */
+    private void nextStep() {
+        if (replayer.hasPlayerAction()) {
+            replayer.step();
+            view.showTurn(model);
+        } else {
+            timer.stop();
+            finishRound();
+        }
+    }
+
+    /**
+     * Ferma la riproduzione, ad esempio quando si torna alla Home prima della fine.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Rigioca il turno del dealer e dei bot; con il pulsante Stay disabilitato la vista chiude la partita.
+     */
+    private void finishRound() {
+        replayer.finish();
+        view.updateView(model);
+    }
+
+    // Metodi getter
+    public Model getModel() { return model; }
+}
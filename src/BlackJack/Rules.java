@@ -0,0 +1,151 @@
+package BlackJack;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Configurazione delle regole del tavolo.
+ * I valori predefiniti riproducono il gioco originale: un solo mazzo, rimescolato a ogni partita.
+ * Le regole estese seguono il tavolo americano: il dealer controlla subito se ha blackjack,
+ * il blackjack naturale paga 3:2, si può raddoppiare sulle prime due carte, dividere
+ * le coppie fino a quattro mani e arrendersi dopo il controllo del dealer (resa tardiva).
+ */
+public class Rules {
+
+    // Limiti sul numero di mazzi nel sabot
+    public static final int MIN_DECKS = 1;
+    public static final int MAX_DECKS = 8;
+
+    private int decks = 1;
+
+    // Frazione del sabot distribuita prima della carta di taglio (0 = rimescola a ogni partita)
+    private double penetration = 0;
+
+    // Algoritmo usato per mescolare il sabot
+    private RandomAlgorithm randomAlgorithm = RandomAlgorithm.SPLITTABLE;
+
+    // Seme esplicito da cui derivare il generatore di ogni sabot (null = seme casuale)
+    private Long seed;
+
+    // Pagamento del blackjack naturale, in unità della puntata
+    private double blackjackPayout = 1.5;
+
+    // Raddoppio sulle prime due carte, anche dopo una divisione
+    private boolean doubleAllowed = true;
+    private boolean doubleAfterSplit = true;
+
+    // Numero massimo di mani ottenibili dividendo (1 = divisione non consentita)
+    private int maxHands = Table.MAX_HANDS;
+
+    // Possibilità di dividere di nuovo una coppia di assi
+    private boolean resplitAces = false;
+
+    // Resa tardiva sulle prime due carte
+    private boolean lateSurrender = true;
+
+    /**
+     * Costruttore con le regole predefinite.
+     */
+    public Rules() {
+    }
+
+    /**
+     * Costruttore con numero di mazzi e penetrazione.
+     * @param decks Il numero di mazzi nel sabot (da 1 a 8).
+     * @param penetration La frazione del sabot da distribuire prima di rimescolare (da 0 a 1 escluso).
+     */
+    public Rules(int decks, double penetration) {
+        setDecks(decks);
+        setPenetration(penetration);
+    }
+
+    // Metodi getter
+    public int getDecks() { return decks; }
+    public double getPenetration() { return penetration; }
+    public RandomAlgorithm getRandomAlgorithm() { return randomAlgorithm; }
+    public Long getSeed() { return seed; }
+    public double getBlackjackPayout() { return blackjackPayout; }
+    public boolean isDoubleAllowed() { return doubleAllowed; }
+    public boolean isDoubleAfterSplit() { return doubleAfterSplit; }
+    public int getMaxHands() { return maxHands; }
+    public boolean isResplitAces() { return resplitAces; }
+    public boolean isLateSurrender() { return lateSurrender; }
+
+    // Metodi setter delle regole estese senza vincoli
+    public void setDoubleAllowed(boolean doubleAllowed) { this.doubleAllowed = doubleAllowed; }
+    public void setDoubleAfterSplit(boolean doubleAfterSplit) { this.doubleAfterSplit = doubleAfterSplit; }
+    public void setResplitAces(boolean resplitAces) { this.resplitAces = resplitAces; }
+    public void setLateSurrender(boolean lateSurrender) { this.lateSurrender = lateSurrender; }
+
+    /**
+     * Imposta il numero di mazzi nel sabot.
+     * @param decks Il numero di mazzi (da 1 a 8).
+     */
+    public void setDecks(int decks) {
+        if (decks < MIN_DECKS || decks > MAX_DECKS) {
+            throw new IllegalArgumentException("Numero di mazzi non valido: " + decks);
+        }
+        this.decks = decks;
+    }
+
+    /**
+     * Imposta la penetrazione, cioè la posizione della carta di taglio come frazione del sabot.
+     * Quando la carta di taglio è stata superata il sabot viene rimescolato prima della partita successiva.
+     * @param penetration La penetrazione (da 0 a 1 escluso).
+     */
+    public void setPenetration(double penetration) {
+        if (penetration < 0 || penetration >= 1) {
+            throw new IllegalArgumentException("Penetrazione non valida: " + penetration);
+        }
+        this.penetration = penetration;
+    }
+
+    /**
+     * Imposta l'algoritmo di generazione dei numeri casuali usato per mescolare.
+     * @param randomAlgorithm L'algoritmo da usare.
+     */
+    public void setRandomAlgorithm(RandomAlgorithm randomAlgorithm) {
+        if (randomAlgorithm == null) {
+            throw new IllegalArgumentException("Algoritmo casuale non valido");
+        }
+        this.randomAlgorithm = randomAlgorithm;
+    }
+
+    /**
+     * Imposta un seme esplicito, per rendere riproducibile la sequenza delle carte:
+     * ogni sabot è mescolato con un generatore derivato dal seme e dal proprio indice (vedi {@link Shoe#seed}).
+     * @param seed Il seme, o null per usare un seme casuale.
+     */
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Imposta il pagamento del blackjack naturale (1.5 per il 3:2, 1.2 per il 6:5).
+     * @param blackjackPayout Il pagamento in unità della puntata (almeno 1).
+     */
+    public void setBlackjackPayout(double blackjackPayout) {
+        if (blackjackPayout < 1) {
+            throw new IllegalArgumentException("Pagamento del blackjack non valido: " + blackjackPayout);
+        }
+        this.blackjackPayout = blackjackPayout;
+    }
+
+    /**
+     * Imposta il limite di divisione, come numero massimo di mani per posto.
+     * @param maxHands Il numero massimo di mani (da 1, nessuna divisione, a {@link Table#MAX_HANDS}).
+     */
+    public void setMaxHands(int maxHands) {
+        if (maxHands < 1 || maxHands > Table.MAX_HANDS) {
+            throw new IllegalArgumentException("Numero massimo di mani non valido: " + maxHands);
+        }
+        this.maxHands = maxHands;
+    }
+
+    /**
+     * Crea il generatore di numeri casuali descritto da queste regole.
+     * @return Il nuovo generatore.
+     */
+    public RandomGenerator newRandomGenerator() {
+        return seed != null ? randomAlgorithm.create(seed) : randomAlgorithm.create();
+    }
+}
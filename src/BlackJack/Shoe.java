@@ -0,0 +1,344 @@
+package BlackJack;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sabot di carte riutilizzabile, composto da uno o più mazzi.
+ * Le carte sono codici compatti (vedi {@link Cards}) conservati in un array fisso:
+ * il sabot viene rimescolato sul posto tra una partita e l'altra quando la carta di taglio
+ * è stata superata, senza creare nuovi oggetti.
+ * Ogni carta pescata viene contata da un {@link CardCounter}, che riparte a ogni rimescolamento.
+ * Con un seme (vedi {@link #seed(RandomAlgorithm, long, long)}) ogni rimescolamento usa un generatore
+ * derivato solo dal seme e dall'indice del sabot: le carte di un sabot non dipendono da quelli precedenti,
+ * quindi una partita si riproduce conoscendo seme, indice del sabot e indice della partita nel sabot.
+ * Il generatore del sabot con seme viene reimpostato a ogni rimescolamento, senza crearne uno nuovo,
+ * tranne che per gli algoritmi che il JDK non permette di reimpostare (vedi {@link RandomAlgorithm#reseed}).
+ */
+public class Shoe {
+
+    private final byte[] cards;
+    private final byte[] scratch;
+
+    // Sabot ordinato, da cui parte il mescolamento di ogni sabot con seme
+    private final byte[] ordered;
+
+    // Carte ancora da pescare per ciascuna classe di valore (vedi Cards.valueClass)
+    private final int[] remainingCounts = new int[Cards.VALUE_CLASSES];
+    private final int decks;
+    private RandomGenerator random;
+
+    // Posizione della carta di taglio
+    private final int cutCard;
+
+    // Posizione della prossima carta da pescare
+    private int cursor;
+
+    // Posizione della prima carta distribuita nella partita in corso (0 dopo un rimescolamento degli scarti)
+    private int roundStart;
+
+    // Posizione del sabot all'inizio della partita in corso, che non cambia se si rimescolano gli scarti
+    private int roundFirstCard;
+
+    // true se le prossime carte sono state disposte con stack e non vanno rimescolate
+    private boolean stacked;
+
+    // true se durante la partita sono stati rimescolati gli scarti: la prossima partita rimescola tutto il sabot
+    private boolean discardsReshuffled;
+
+    // Conteggio delle carte pescate dall'ultimo rimescolamento
+    private final CardCounter counter;
+
+    // Algoritmo e seme da cui derivare il generatore di ogni sabot (algoritmo null = nessun seme)
+    private RandomAlgorithm algorithm;
+    private long seed;
+
+    // Generatore della modalità con seme, reimpostato a ogni sabot
+    private RandomGenerator seededRandom;
+
+    // Indice del sabot corrente (rimescolamenti completi) e della partita in corso nel sabot
+    private long shoeIndex = -1;
+    private int round;
+
+    // Costante di Weyl usata per separare i semi dei sabot successivi
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Costruttore del sabot con un solo mazzo, rimescolato a ogni partita.
+     * @param random Il generatore di numeri casuali usato per mescolare.
+     */
+    public Shoe(RandomGenerator random) {
+        this(1, 0, random);
+    }
+
+    /**
+     * Costruttore del sabot.
+     * @param decks Il numero di mazzi (da 1 a 8).
+     * @param penetration La frazione del sabot da distribuire prima di rimescolare (0 = a ogni partita).
+     * @param random Il generatore di numeri casuali usato per mescolare.
+     */
+    public Shoe(int decks, double penetration, RandomGenerator random) {
+        if (decks < Rules.MIN_DECKS || decks > Rules.MAX_DECKS) {
+            throw new IllegalArgumentException("Numero di mazzi non valido: " + decks);
+        }
+        this.decks = decks;
+        this.random = random;
+        this.cards = new byte[decks * Cards.DECK_SIZE];
+        this.scratch = new byte[cards.length];
+        this.ordered = new byte[cards.length];
+        this.cutCard = (int) (cards.length * penetration);
+        for (int i = 0; i < cards.length; i++) {
+            ordered[i] = (byte) (i % Cards.DECK_SIZE);
+        }
+        System.arraycopy(ordered, 0, cards, 0, cards.length);
+        this.cursor = cards.length;
+        this.counter = new CardCounter(decks);
+    }
+
+    /**
+     * Prepara il sabot per una nuova partita, rimescolando se la carta di taglio è stata superata.
+     */
+    public void startRound() {
+        if (stacked) {
+            stacked = false;
+            round++;
+        } else if (needsShuffle()) {
+            reset();
+        } else {
+            round++;
+        }
+        roundStart = cursor;
+        roundFirstCard = cursor;
+    }
+
+    /**
+     * Passa alla modalità con seme: il prossimo rimescolamento prepara il sabot con l'indice indicato
+     * e i successivi proseguono con gli indici seguenti. Le carte restanti vengono scartate,
+     * quindi la prossima partita inizia da un sabot appena mescolato.
+     * @param algorithm L'algoritmo del generatore.
+     * @param seed Il seme.
+     * @param shoeIndex L'indice del primo sabot da distribuire (almeno 0).
+     */
+    public void seed(RandomAlgorithm algorithm, long seed, long shoeIndex) {
+        if (shoeIndex < 0) {
+            throw new IllegalArgumentException("Indice del sabot non valido: " + shoeIndex);
+        }
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.shoeIndex = shoeIndex - 1;
+        this.stacked = false;
+        this.cursor = cards.length;
+    }
+
+    /**
+     * Porta il sabot con seme all'inizio di una partita già giocata: mescola il sabot indicato e scarta
+     * le carte distribuite nelle partite precedenti, che risultano viste anche per i conteggi.
+     * La prossima partita riceve quindi le stesse carte di allora, qualunque mossa sia stata fatta prima.
+     * Dopo un rimescolamento degli scarti a metà partita si passa a un sabot nuovo,
+     * quindi ogni partita inizia in una posizione fissa del sabot appena mescolato; se il sabot finisce
+     * durante la partita riprodotta, gli scarti vengono rimescolati allo stesso punto di allora.
+     * @param algorithm L'algoritmo del generatore.
+     * @param seed Il seme.
+     * @param shoeIndex L'indice del sabot (almeno 0).
+     * @param round L'indice della partita nel sabot.
+     * @param firstCard La posizione nel sabot della prima carta della partita (vedi {@link #getRoundFirstCard()}).
+     */
+    public void seek(RandomAlgorithm algorithm, long seed, long shoeIndex, int round, int firstCard) {
+        if (round < 0 || firstCard < 0 || firstCard >= cards.length || (round == 0) != (firstCard == 0)) {
+            throw new IllegalArgumentException("Partita non valida: partita " + round + ", carta " + firstCard);
+        }
+        seed(algorithm, seed, shoeIndex);
+        reset();
+        for (int i = 0; i < firstCard; i++) {
+            draw();
+        }
+        // startRound non rimescola e passa alla partita richiesta
+        this.round = round - 1;
+        stacked = true;
+    }
+
+    /**
+     * Calcola il seme del generatore di un sabot, mescolando i bit di seme e indice
+     * con la funzione finale di SplitMix64, così che sabot vicini abbiano semi non correlati.
+     * @param seed Il seme.
+     * @param shoeIndex L'indice del sabot.
+     * @return Il seme del generatore del sabot.
+     */
+    public static long shoeSeed(long seed, long shoeIndex) {
+        long z = seed + SEED_GAMMA * (shoeIndex + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Rimette tutte le carte nel sabot e porta in cima quelle indicate, nell'ordine in cui
+     * verranno pescate; la partita successiva non rimescola. Usato per rigiocare una partita registrata:
+     * il sabot resta una permutazione completa, quindi i conteggi delle carte restano coerenti.
+     * @param codes I codici delle carte, nell'ordine di pescata.
+     * @param offset La posizione della prima carta nell'array.
+     * @param length Il numero di carte.
+     */
+    public void stack(byte[] codes, int offset, int length) {
+        if (length > cards.length) {
+            throw new IllegalArgumentException("Troppe carte per il sabot: " + length);
+        }
+        refill();
+        for (int i = 0; i < length; i++) {
+            byte code = codes[offset + i];
+            int j = i;
+            while (j < cards.length && cards[j] != code) j++;
+            if (j == cards.length) {
+                throw new IllegalArgumentException("Carta non disponibile nel sabot: " + Cards.name(code));
+            }
+            cards[j] = cards[i];
+            cards[i] = code;
+        }
+        stacked = true;
+    }
+
+    /**
+     * Verifica se la carta di taglio è stata superata, o se nella partita appena giocata
+     * il sabot è finito e sono stati rimescolati gli scarti.
+     * @return true se il sabot va rimescolato prima della prossima partita.
+     */
+    public boolean needsShuffle() {
+        return cursor >= cutCard || discardsReshuffled;
+    }
+
+    /**
+     * Rimette tutte le carte nel sabot e le mescola.
+     */
+    public void reset() {
+        shoeIndex++;
+        round = 0;
+        if (algorithm != null) {
+            // Il mescolamento parte dal sabot ordinato, non dalla permutazione del sabot precedente
+            seededRandom = algorithm.reseed(seededRandom, shoeSeed(seed, shoeIndex));
+            random = seededRandom;
+            System.arraycopy(ordered, 0, cards, 0, cards.length);
+        }
+        shuffle(0, cards.length);
+        refill();
+    }
+
+    /**
+     * Rimette tutte le carte nel sabot senza mescolarle.
+     */
+    private void refill() {
+        cursor = 0;
+        roundStart = 0;
+        discardsReshuffled = false;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            remainingCounts[c] = Cards.perDeck(c) * decks;
+        }
+        counter.reset();
+    }
+
+    /**
+     * Mescola sul posto le carte nell'intervallo indicato con l'algoritmo di Fisher-Yates,
+     * che rende tutte le permutazioni equiprobabili.
+     * @param from La prima posizione (inclusa).
+     * @param to L'ultima posizione (esclusa).
+     */
+    private void shuffle(int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            byte temp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = temp;
+        }
+    }
+
+    /**
+     * Pesca la prossima carta. Se il sabot finisce durante una partita, le carte
+     * delle partite precedenti vengono rimescolate e la partita prosegue con quelle, e la partita successiva
+     * inizia da un sabot nuovo; se non ci sono carte scartate il sabot viene rimescolato per intero.
+     * @return Il codice della carta pescata.
+     */
+    public int draw() {
+        if (cursor == cards.length) {
+            if (roundStart == 0) {
+                reset();
+            } else {
+                reshuffleDiscards();
+            }
+        }
+        int code = cards[cursor++];
+        remainingCounts[Cards.valueClass(code)]--;
+        counter.count(code);
+        return code;
+    }
+
+    /**
+     * Sposta in testa le carte della partita in corso e rimescola dietro di esse le carte scartate.
+     */
+    private void reshuffleDiscards() {
+        int inPlay = cards.length - roundStart;
+        System.arraycopy(cards, roundStart, scratch, 0, inPlay);
+        System.arraycopy(cards, 0, cards, inPlay, roundStart);
+        System.arraycopy(scratch, 0, cards, 0, inPlay);
+        roundStart = 0;
+        cursor = inPlay;
+        discardsReshuffled = true;
+        shuffle(inPlay, cards.length);
+        Arrays.fill(remainingCounts, 0);
+        for (int i = cursor; i < cards.length; i++) {
+            remainingCounts[Cards.valueClass(cards[i])]++;
+        }
+        counter.resync(remainingCounts, remaining());
+    }
+
+    /**
+     * Restituisce il numero di carte ancora da pescare.
+     * @return Le carte rimanenti.
+     */
+    public int remaining() {
+        return cards.length - cursor;
+    }
+
+    /**
+     * Restituisce il numero di carte ancora da pescare di una classe di valore.
+     * @param valueClass La classe di valore (vedi {@link Cards#valueClass(int)}).
+     * @return Le carte rimanenti della classe.
+     */
+    public int remaining(int valueClass) {
+        return remainingCounts[valueClass];
+    }
+
+    /**
+     * Copia la composizione delle carte ancora da pescare, per classe di valore.
+     * @param dest L'array di destinazione, lungo almeno {@link Cards#VALUE_CLASSES}.
+     */
+    public void copyRemainingCounts(int[] dest) {
+        System.arraycopy(remainingCounts, 0, dest, 0, Cards.VALUE_CLASSES);
+    }
+
+    /**
+     * Restituisce il numero totale di carte del sabot.
+     * @return La dimensione del sabot.
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * Sostituisce il generatore di numeri casuali usato per mescolare, uscendo dalla modalità con seme.
+     * @param random Il nuovo generatore.
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+        this.algorithm = null;
+    }
+
+    // Metodi getter
+    public int getDecks() { return decks; }
+    public RandomGenerator getRandom() { return random; }
+    public int getCutCard() { return cutCard; }
+    public CardCounter getCounter() { return counter; }
+    public boolean isSeeded() { return algorithm != null; }
+    public long getSeed() { return seed; }
+    public long getShoeIndex() { return shoeIndex; }
+    public int getRound() { return round; }
+    public int getRoundFirstCard() { return roundFirstCard; }
+}
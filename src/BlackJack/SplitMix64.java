@@ -0,0 +1,48 @@
+package BlackJack;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generatore SplitMix64 con seme reimpostabile.
+ * Produce la stessa sequenza di {@code new SplittableRandom(seed)}, ma il seme si può cambiare
+ * con {@link #setSeed(long)} senza creare un nuovo oggetto: il sabot con seme ne usa uno solo
+ * e lo reimposta a ogni rimescolamento.
+ */
+final class SplitMix64 implements RandomGenerator {
+
+    // Incremento del seme a ogni numero generato, lo stesso di SplittableRandom
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long seed;
+
+    /**
+     * Costruttore del generatore.
+     * @param seed Il seme iniziale.
+     */
+    SplitMix64(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Riporta il generatore all'inizio della sequenza del seme indicato.
+     * @param seed Il nuovo seme.
+     */
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = seed += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt() {
+        long z = seed += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+}
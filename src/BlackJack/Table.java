@@ -0,0 +1,232 @@
+package BlackJack;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Stato del tavolo organizzato per posto, con array di primitivi invece di un oggetto per mano.
+ * Il posto 0 è il dealer (la prima carta è quella coperta), il posto 1 il giocatore,
+ * i posti successivi i bot. Per ogni posto si tengono le carte, il loro numero,
+ * la somma con gli assi contati come 11, il numero di assi e lo stato impacchettato
+ * della mano (vedi {@link HandState}), tutti aggiornati a ogni carta.
+ * Ogni posto ha {@link #MAX_HANDS} mani preallocate per le divisioni: la mano 0 è quella
+ * distribuita all'inizio e i metodi che ricevono solo il posto lavorano su di essa.
+ */
+public class Table {
+
+    // Posti del dealer e del giocatore
+    public static final int DEALER = 0;
+    public static final int PLAYER = 1;
+
+    // Numero massimo di giocatori al tavolo, escluso il dealer
+    public static final int MAX_PLAYERS = 7;
+
+    // Numero massimo di carte in una mano: 21 carte da 1 più quella che sballa
+    public static final int MAX_CARDS = 22;
+
+    // Numero massimo di mani per posto, dopo le divisioni
+    public static final int MAX_HANDS = 4;
+
+    private final int seats;
+    private final byte[] cards;
+    private final int[] counts;
+    private final int[] sums;
+    private final int[] aceCounts;
+    private final int[] states;
+
+    // Numero di mani in gioco per ogni posto
+    private final int[] hands;
+
+    /**
+     * Costruttore del tavolo.
+     * @param players Il numero di giocatori, escluso il dealer (da 1 a 7).
+     */
+    public Table(int players) {
+        if (players < 1 || players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Numero di giocatori non valido: " + players);
+        }
+        this.seats = players + 1;
+        this.cards = new byte[seats * MAX_HANDS * MAX_CARDS];
+        this.counts = new int[seats * MAX_HANDS];
+        this.sums = new int[seats * MAX_HANDS];
+        this.aceCounts = new int[seats * MAX_HANDS];
+        this.states = new int[seats * MAX_HANDS];
+        this.hands = new int[seats];
+        clear();
+    }
+
+    /**
+     * Svuota tutte le mani, lasciando una sola mano per posto.
+     */
+    public void clear() {
+        for (int slot = 0; slot < counts.length; slot++) {
+            counts[slot] = sums[slot] = aceCounts[slot] = 0;
+            states[slot] = HandState.EMPTY;
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            hands[seat] = 1;
+        }
+    }
+
+    /**
+     * Aggiunge una carta alla prima mano di un posto, aggiornando somma, assi e stato.
+     * @param seat Il posto.
+     * @param code Il codice della carta (vedi {@link Cards}).
+     */
+    public void add(int seat, int code) {
+        add(seat, 0, code);
+    }
+
+    /**
+     * Aggiunge una carta a una mano di un posto, aggiornando somma, assi e stato.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @param code Il codice della carta (vedi {@link Cards}).
+     */
+    public void add(int seat, int hand, int code) {
+        int slot = slot(seat, hand);
+        cards[slot * MAX_CARDS + counts[slot]++] = (byte) code;
+        sums[slot] += Cards.value(code);
+        aceCounts[slot] += Cards.isAce(code) ? 1 : 0;
+        states[slot] = HandState.add(states[slot], code);
+    }
+
+    /**
+     * Divide una mano di due carte: la seconda carta diventa la prima di una nuova mano del posto.
+     * Entrambe le mani restano con una carta e sono segnate come divise.
+     * @param seat Il posto.
+     * @param hand La mano da dividere.
+     * @return L'indice della nuova mano.
+     */
+    public int split(int seat, int hand) {
+        int slot = slot(seat, hand);
+        if (counts[slot] != 2 || hands[seat] >= MAX_HANDS) {
+            throw new IllegalStateException("Mano non divisibile: posto " + seat + ", mano " + hand);
+        }
+        int newHand = hands[seat]++;
+        int second = cards[slot * MAX_CARDS + 1];
+        int flags = HandState.markSplit(states[slot]);
+
+        resetSlot(slot, flags);
+        add(seat, hand, cards[slot * MAX_CARDS]);
+        resetSlot(slot(seat, newHand), flags);
+        add(seat, newHand, second);
+        return newHand;
+    }
+
+    private void resetSlot(int slot, int flags) {
+        counts[slot] = sums[slot] = aceCounts[slot] = 0;
+        states[slot] = HandState.copyFlags(HandState.EMPTY, flags);
+    }
+
+    /**
+     * Restituisce il codice di una carta della prima mano.
+     * @param seat Il posto.
+     * @param index La posizione della carta nella mano.
+     * @return Il codice della carta.
+     */
+    public int card(int seat, int index) {
+        return card(seat, 0, index);
+    }
+
+    /**
+     * Restituisce il codice di una carta di una mano.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @param index La posizione della carta nella mano.
+     * @return Il codice della carta.
+     */
+    public int card(int seat, int hand, int index) {
+        return cards[slot(seat, hand) * MAX_CARDS + index];
+    }
+
+    /**
+     * Crea una vista in sola lettura sulla prima mano di un posto, aggiornata a ogni carta aggiunta.
+     * @param seat Il posto.
+     * @param from La prima carta da includere (1 per escludere la carta coperta del dealer).
+     * @return La lista delle carte.
+     */
+    public List<Model.Card> handView(int seat, int from) {
+        int slot = slot(seat, 0);
+        return new AbstractList<Model.Card>() {
+            @Override
+            public Model.Card get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Indice: " + index + ", carte: " + size());
+                }
+                return Model.Card.of(cards[slot * MAX_CARDS + from + index]);
+            }
+
+            @Override
+            public int size() {
+                return Math.max(0, counts[slot] - from);
+            }
+        };
+    }
+
+    /**
+     * Crea una vista in sola lettura su tutte le carte di un posto, mano dopo mano.
+     * @param seat Il posto.
+     * @return La lista delle carte di tutte le mani del posto.
+     */
+    public List<Model.Card> seatView(int seat) {
+        return new AbstractList<Model.Card>() {
+            @Override
+            public Model.Card get(int index) {
+                int i = index;
+                for (int hand = 0; hand < hands[seat] && i >= 0; hand++) {
+                    int count = counts[slot(seat, hand)];
+                    if (i < count) return Model.Card.of(card(seat, hand, i));
+                    i -= count;
+                }
+                throw new IndexOutOfBoundsException("Indice: " + index + ", carte: " + size());
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int hand = 0; hand < hands[seat]; hand++) {
+                    size += counts[slot(seat, hand)];
+                }
+                return size;
+            }
+        };
+    }
+
+    private static int slot(int seat, int hand) {
+        return seat * MAX_HANDS + hand;
+    }
+
+    // Metodi getter
+    public int getSeats() { return seats; }
+    public int getHands(int seat) { return hands[seat]; }
+    public int getCount(int seat) { return counts[slot(seat, 0)]; }
+    public int getCount(int seat, int hand) { return counts[slot(seat, hand)]; }
+    public int getSum(int seat) { return sums[slot(seat, 0)]; }
+    public int getAceCount(int seat) { return aceCounts[slot(seat, 0)]; }
+    public int getState(int seat) { return states[slot(seat, 0)]; }
+    public int getState(int seat, int hand) { return states[slot(seat, hand)]; }
+
+    // Metodi setter: lo stato della mano viene ricalcolato dai nuovi valori
+    public void setSum(int seat, int sum) {
+        int slot = slot(seat, 0);
+        sums[slot] = sum;
+        states[slot] = HandState.copyFlags(HandState.fromSum(sum, aceCounts[slot], counts[slot]), states[slot]);
+    }
+
+    public void setAceCount(int seat, int count) {
+        int slot = slot(seat, 0);
+        aceCounts[slot] = count;
+        states[slot] = HandState.copyFlags(HandState.fromSum(sums[slot], count, counts[slot]), states[slot]);
+    }
+
+    /**
+     * Imposta i flag delle azioni (raddoppio, resa) di una mano, ad esempio con {@link HandState#markDoubled(int)}.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @param state Il nuovo stato, ottenuto da quello corrente.
+     */
+    public void setState(int seat, int hand, int state) {
+        states[slot(seat, hand)] = state;
+    }
+}
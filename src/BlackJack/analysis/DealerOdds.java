@@ -0,0 +1,250 @@
+package BlackJack.analysis;
+
+import BlackJack.Cards;
+import BlackJack.Model;
+
+import java.util.Arrays;
+
+/**
+ * Calcolo esatto della distribuzione del totale finale del dealer.
+ * A partire dalla carta scoperta e dalla composizione delle carte non ancora viste,
+ * enumera tutte le sequenze di pescate con la regola di {@link Model#playDealerTurn()}
+ * (il dealer pesca finché il totale è inferiore a 17) senza reinserimento.
+ * Con la carta scoperta asso o da 10 la distribuzione può essere condizionata all'assenza di blackjack,
+ * come sa il giocatore quando il dealer ha già controllato la carta coperta senza trovarlo.
+ * I risultati vengono memorizzati in una cache di dimensione fissa, indicizzata dalla
+ * composizione impacchettata in un long, così che la stessa situazione non venga ricalcolata.
+ * Un'istanza non è thread-safe: ogni thread di simulazione deve usare la propria.
+ */
+public class DealerOdds {
+
+    // Esiti possibili: totale finale 17, 18, 19, 20, 21 oppure sballato
+    public static final int OUTCOMES = 6;
+    public static final int BUST = 5;
+
+    // Bit usati nella chiave per ciascuna classe di valore (le carte da 10 ne usano 8)
+    private static final int BITS_PER_CLASS = 6;
+
+    private final int mask;
+    private final long[] keys;
+    private final byte[] upcards;
+    private final double[] values;
+
+    // Tabella delle mani intermedie del dealer, condivisa tra un calcolo e l'altro
+    private final int nodeMask;
+    private final long[] nodeKeys;
+    private final short[] nodeStates;
+    private final double[] nodeValues;
+
+    // Profondità massima di pescata: il dealer non può pescare più di 11 carte prima di arrivare a 17
+    private static final int MAX_DEPTH = 12;
+    private final double[][] scratch = new double[MAX_DEPTH][OUTCOMES];
+
+    // Composizione di lavoro, riusata a ogni calcolo
+    private final int[] counts = new int[Cards.VALUE_CLASSES];
+
+    private long hits, misses;
+
+    /**
+     * Costruttore con una cache di 4096 posizioni.
+     */
+    public DealerOdds() {
+        this(1 << 12);
+    }
+
+    /**
+     * Costruttore.
+     * @param cacheSize Il numero di posizioni della cache, arrotondato alla potenza di due superiore.
+     */
+    public DealerOdds(int cacheSize) {
+        int size = Integer.highestOneBit(Math.max(1, cacheSize - 1)) << 1;
+        this.mask = size - 1;
+        this.keys = new long[size];
+        this.upcards = new byte[size];
+        this.values = new double[size * OUTCOMES];
+        int nodeSize = size << 2;
+        this.nodeMask = nodeSize - 1;
+        this.nodeKeys = new long[nodeSize];
+        this.nodeStates = new short[nodeSize];
+        this.nodeValues = new double[nodeSize * OUTCOMES];
+    }
+
+    /**
+     * Calcola la distribuzione del dealer per la partita in corso nel modello.
+     * La carta coperta del dealer non è nota al giocatore, quindi viene rimessa tra le carte non viste;
+     * poiché il dealer controlla subito la carta coperta, se la partita prosegue non è un blackjack.
+     * @param model Il modello con la partita in corso.
+     * @param out L'array di {@link #OUTCOMES} probabilità da riempire (17, 18, 19, 20, 21, sballato).
+     */
+    public void compute(Model model, double[] out) {
+        model.copyUnseenCounts(counts);
+        compute(model.getDealerUpcard(), counts, !model.isDealerBlackjack(), out);
+    }
+
+    /**
+     * Calcola la distribuzione del dealer data la carta scoperta e la composizione delle carte non viste,
+     * senza condizionarla all'assenza di blackjack.
+     * @param upcard La classe di valore della carta scoperta (vedi {@link Cards#valueClass(int)}).
+     * @param composition Le carte non viste per classe di valore; non viene modificato.
+     * @param out L'array di {@link #OUTCOMES} probabilità da riempire (17, 18, 19, 20, 21, sballato).
+     */
+    public void compute(int upcard, int[] composition, double[] out) {
+        compute(upcard, composition, false, out);
+    }
+
+    /**
+     * Calcola la distribuzione del dealer data la carta scoperta e la composizione delle carte non viste.
+     * @param upcard La classe di valore della carta scoperta (vedi {@link Cards#valueClass(int)}).
+     * @param composition Le carte non viste per classe di valore; non viene modificato.
+     * @param noBlackjack true se è noto che il dealer non ha blackjack: la carta coperta non completa
+     *                    un blackjack con quella scoperta.
+     * @param out L'array di {@link #OUTCOMES} probabilità da riempire (17, 18, 19, 20, 21, sballato).
+     */
+    public void compute(int upcard, int[] composition, boolean noBlackjack, double[] out) {
+        int excluded = noBlackjack ? blackjackHole(upcard) : -1;
+        int tag = upcard + 1 + (excluded >= 0 ? Cards.VALUE_CLASSES : 0);
+        long key = pack(composition);
+        int slot = slot(key, tag);
+        if (keys[slot] == key && upcards[slot] == tag) {
+            hits++;
+            System.arraycopy(values, slot * OUTCOMES, out, 0, OUTCOMES);
+            return;
+        }
+        misses++;
+
+        int total = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            counts[c] = composition[c];
+            total += counts[c];
+        }
+        if (excluded < 0) {
+            draw(upcard + 1, upcard == 0, total, key, 0, out);
+        } else {
+            drawHole(upcard, excluded, total, key, out);
+        }
+
+        keys[slot] = key;
+        upcards[slot] = (byte) tag;
+        System.arraycopy(out, 0, values, slot * OUTCOMES, OUTCOMES);
+    }
+
+    /**
+     * Restituisce la classe della carta coperta che con la carta scoperta forma un blackjack.
+     * @param upcard La classe di valore della carta scoperta.
+     * @return La classe della carta coperta, o -1 se la carta scoperta non può formare un blackjack.
+     */
+    private static int blackjackHole(int upcard) {
+        if (upcard == 0) return Cards.VALUE_CLASSES - 1;
+        if (upcard == Cards.VALUE_CLASSES - 1) return 0;
+        return -1;
+    }
+
+    /**
+     * Calcola la distribuzione pescando la carta coperta tra quelle che non formano un blackjack,
+     * con le probabilità rinormalizzate, poi prosegue come {@link #draw}. Il primo livello non usa
+     * la tabella delle mani intermedie, perché la sua distribuzione è diversa da quella non condizionata.
+     * @param upcard La classe di valore della carta scoperta.
+     * @param excluded La classe della carta coperta esclusa.
+     * @param total Il numero di carte non viste.
+     * @param key La composizione corrente impacchettata con {@link #pack(int[])}.
+     * @param out L'array da riempire con le probabilità degli esiti.
+     */
+    private void drawHole(int upcard, int excluded, int total, long key, double[] out) {
+        Arrays.fill(out, 0, OUTCOMES, 0);
+        int allowed = total - counts[excluded];
+        if (allowed == 0) {
+            return;
+        }
+        double[] next = scratch[0];
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            int n = counts[c];
+            if (n == 0 || c == excluded) continue;
+            counts[c]--;
+            draw(upcard + c + 2, upcard == 0 || c == 0, total - 1, key - (1L << shift(c)), 1, next);
+            counts[c]++;
+            double p = (double) n / allowed;
+            for (int o = 0; o < OUTCOMES; o++) {
+                out[o] += p * next[o];
+            }
+        }
+    }
+
+    /**
+     * Calcola la distribuzione degli esiti a partire da una mano parziale del dealer.
+     * Le mani intermedie già calcolate con la stessa composizione vengono lette dalla tabella.
+     * @param hard Il totale della mano contando gli assi come 1.
+     * @param soft true se la mano contiene almeno un asso.
+     * @param total Il numero di carte non viste.
+     * @param key La composizione corrente impacchettata con {@link #pack(int[])}.
+     * @param depth Il numero di carte pescate finora, usato per scegliere l'array di lavoro.
+     * @param out L'array da riempire con le probabilità degli esiti.
+     */
+    private void draw(int hard, boolean soft, int total, long key, int depth, double[] out) {
+        Arrays.fill(out, 0, OUTCOMES, 0);
+        int best = soft && hard + 10 <= 21 ? hard + 10 : hard;
+        if (best >= Model.DEALER_STAND) {
+            out[best > 21 ? BUST : best - Model.DEALER_STAND] = 1;
+            return;
+        }
+        // Sabot vuoto: non succede in una partita reale, la probabilità residua viene ignorata
+        if (total == 0) {
+            return;
+        }
+
+        int state = 1 + (hard | (soft ? 1 << 5 : 0));
+        int slot = nodeSlot(key, state);
+        if (nodeKeys[slot] == key && nodeStates[slot] == state) {
+            System.arraycopy(nodeValues, slot * OUTCOMES, out, 0, OUTCOMES);
+            return;
+        }
+
+        double[] next = scratch[depth];
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            int n = counts[c];
+            if (n == 0) continue;
+            counts[c]--;
+            draw(hard + c + 1, soft || c == 0, total - 1, key - (1L << shift(c)), depth + 1, next);
+            counts[c]++;
+            double p = (double) n / total;
+            for (int o = 0; o < OUTCOMES; o++) {
+                out[o] += p * next[o];
+            }
+        }
+
+        nodeKeys[slot] = key;
+        nodeStates[slot] = (short) state;
+        System.arraycopy(out, 0, nodeValues, slot * OUTCOMES, OUTCOMES);
+    }
+
+    /**
+     * Impacchetta la composizione in un long: 6 bit per classe, 8 bit per le carte da 10.
+     * Basta per sabot fino a 8 mazzi (al massimo 32 carte per classe e 128 carte da 10).
+     * @param composition Le carte per classe di valore.
+     * @return La chiave della composizione.
+     */
+    static long pack(int[] composition) {
+        long key = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            key |= (long) composition[c] << shift(c);
+        }
+        return key;
+    }
+
+    private static int shift(int valueClass) {
+        return valueClass * BITS_PER_CLASS;
+    }
+
+    private int nodeSlot(long key, int state) {
+        long h = (key ^ ((long) state << 56)) * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h >>> 32) & nodeMask;
+    }
+
+    private int slot(long key, int upcard) {
+        long h = (key ^ ((long) upcard << 59)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+
+    // Metodi getter per le statistiche della cache
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+}
@@ -0,0 +1,269 @@
+package BlackJack.analysis;
+
+import BlackJack.Cards;
+import BlackJack.HandState;
+import BlackJack.Model;
+import BlackJack.Table;
+
+/**
+ * Calcolo del valore atteso delle mosse del giocatore: "stai", "carta", "raddoppia", "dividi" e "resa".
+ * Il valore atteso è espresso in unità di puntata con le regole del gioco: vittoria 1:1,
+ * il giocatore che sballa perde anche se sballa il dealer, il pareggio restituisce la puntata,
+ * il raddoppio vale doppio con una sola carta, la resa perde metà puntata.
+ * Stai, carta, raddoppio e resa sono esatti; la divisione è stimata senza ridividere e supponendo che
+ * le due mani peschino dalla stessa composizione, l'approssimazione usuale.
+ * Durante il turno del giocatore il dealer ha già controllato la carta coperta, quindi la distribuzione
+ * del dealer è condizionata all'assenza di blackjack.
+ * La ricorsione esplora le carte che il giocatore può pescare senza reinserimento e, per ogni mano,
+ * sceglie la mossa migliore; i risultati intermedi sono memorizzati in una tabella di trasposizione
+ * di dimensione fissa, indicizzata dalla composizione delle carte non viste impacchettata in un long
+ * e dallo stato della mano. La distribuzione del dealer viene da {@link DealerOdds}.
+ * Un'istanza non è thread-safe.
+ */
+public class EvSolver {
+
+    // Posizioni dei risultati nell'array restituito da solve
+    public static final int STAND = 0;
+    public static final int HIT = 1;
+    public static final int DOUBLE = 2;
+    public static final int SPLIT = 3;
+    public static final int SURRENDER = 4;
+    public static final int ACTIONS = 5;
+
+    private final DealerOdds dealerOdds;
+
+    private final int mask;
+    private final long[] keys;
+    private final int[] states;
+    private final double[] values;
+
+    // Composizione di lavoro e distribuzione del dealer, riusate a ogni calcolo
+    private final int[] counts = new int[Cards.VALUE_CLASSES];
+    private final double[] dealer = new double[DealerOdds.OUTCOMES];
+
+    // Calcolo in corso: il dealer non ha blackjack
+    private boolean noBlackjack;
+
+    /**
+     * Costruttore con una tabella di 131072 posizioni (circa 12 MB in tutto con quella del dealer),
+     * sufficiente a rispondere in pochi millisecondi per un sabot da un mazzo.
+     */
+    public EvSolver() {
+        this(1 << 17, new DealerOdds(1 << 15));
+    }
+
+    /**
+     * Costruttore.
+     * @param tableSize Il numero di posizioni della tabella, arrotondato alla potenza di due superiore.
+     * @param dealerOdds Il calcolatore della distribuzione del dealer da usare.
+     */
+    public EvSolver(int tableSize, DealerOdds dealerOdds) {
+        int size = Integer.highestOneBit(Math.max(1, tableSize - 1)) << 1;
+        this.mask = size - 1;
+        this.keys = new long[size];
+        this.states = new int[size];
+        this.values = new double[size];
+        this.dealerOdds = dealerOdds;
+    }
+
+    /**
+     * Calcola il valore atteso delle mosse per la mano attiva del giocatore nella partita in corso.
+     * La carta coperta del dealer viene considerata tra le carte non viste; le mosse che le regole
+     * non consentono in questo momento valgono {@link Double#NaN}.
+     * @param model Il modello con la partita in corso.
+     * @param out L'array di {@link #ACTIONS} valori da riempire, indicizzato da STAND, HIT, DOUBLE, SPLIT e SURRENDER.
+     */
+    public void solve(Model model, double[] out) {
+        int[] composition = new int[Cards.VALUE_CLASSES];
+        model.copyUnseenCounts(composition);
+        int hand = Math.min(model.getActiveHand(), model.getHandCount(Table.PLAYER) - 1);
+        int state = model.getHandState(Table.PLAYER, hand);
+        int upcard = model.getDealerUpcard();
+        boolean peeked = !model.isDealerBlackjack();
+        solve(HandState.hard(state), HandState.hasAce(state), upcard, composition, peeked, out);
+        if (!model.canPlayerDouble()) out[DOUBLE] = Double.NaN;
+        if (!model.canPlayerSurrender()) out[SURRENDER] = Double.NaN;
+        out[SPLIT] = model.canPlayerSplit()
+                ? split(Cards.valueClass(model.getTable().card(Table.PLAYER, hand, 0)), upcard, composition, peeked,
+                        model.getRules().isDoubleAfterSplit())
+                : Double.NaN;
+    }
+
+    /**
+     * Calcola il valore atteso di "stai" e "carta" per una mano, senza condizionare il dealer all'assenza di blackjack.
+     * @param hard Il totale della mano contando gli assi come 1.
+     * @param hasAce true se la mano contiene almeno un asso.
+     * @param upcard La classe di valore della carta scoperta del dealer.
+     * @param composition Le carte non viste per classe di valore; non viene modificato.
+     * @param out L'array da riempire: out[STAND] e out[HIT].
+     */
+    public void solve(int hard, boolean hasAce, int upcard, int[] composition, double[] out) {
+        noBlackjack = false;
+        int total = load(composition);
+        out[STAND] = stand(best(hard, hasAce), upcard);
+        out[HIT] = hit(hard, hasAce, upcard, total);
+    }
+
+    /**
+     * Calcola il valore atteso di "stai", "carta", "raddoppia" e "resa" per una mano, come se fossero consentiti;
+     * la divisione, che dipende dalla coppia, si calcola con {@link #split}. out[SPLIT] non viene modificato.
+     * @param hard Il totale della mano contando gli assi come 1.
+     * @param hasAce true se la mano contiene almeno un asso.
+     * @param upcard La classe di valore della carta scoperta del dealer.
+     * @param composition Le carte non viste per classe di valore; non viene modificato.
+     * @param noBlackjack true se il dealer ha già controllato la carta coperta senza trovare blackjack.
+     * @param out L'array di {@link #ACTIONS} valori da riempire.
+     */
+    public void solve(int hard, boolean hasAce, int upcard, int[] composition, boolean noBlackjack, double[] out) {
+        this.noBlackjack = noBlackjack;
+        int total = load(composition);
+        out[STAND] = stand(best(hard, hasAce), upcard);
+        out[HIT] = hit(hard, hasAce, upcard, total);
+        out[DOUBLE] = 2 * doubleDown(hard, hasAce, upcard, total);
+        out[SURRENDER] = -0.5;
+    }
+
+    /**
+     * Stima il valore atteso di dividere una coppia, per l'intera puntata raddoppiata: il doppio del valore
+     * di una mano che parte da una sola carta della coppia, senza ridividere. Gli assi divisi ricevono una sola carta.
+     * @param pairClass La classe di valore delle carte della coppia.
+     * @param upcard La classe di valore della carta scoperta del dealer.
+     * @param composition Le carte non viste per classe di valore; non viene modificato.
+     * @param noBlackjack true se il dealer ha già controllato la carta coperta senza trovare blackjack.
+     * @param doubleAfterSplit true se le mani divise possono raddoppiare.
+     * @return Il valore atteso della divisione.
+     */
+    public double split(int pairClass, int upcard, int[] composition, boolean noBlackjack, boolean doubleAfterSplit) {
+        this.noBlackjack = noBlackjack;
+        int total = load(composition);
+        int first = pairClass + 1;
+        boolean ace = pairClass == 0;
+        double ev = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            int n = counts[c];
+            if (n == 0) continue;
+            int hard = first + c + 1;
+            boolean hasAce = ace || c == 0;
+            double p = (double) n / total;
+            counts[c]--;
+            double hand;
+            if (ace) {
+                hand = stand(best(hard, hasAce), upcard);
+            } else {
+                hand = bestMove(hard, hasAce, upcard, total - 1);
+                if (doubleAfterSplit) {
+                    hand = Math.max(hand, 2 * doubleDown(hard, hasAce, upcard, total - 1));
+                }
+            }
+            counts[c]++;
+            ev += p * hand;
+        }
+        return 2 * ev;
+    }
+
+    /**
+     * Copia la composizione nell'array di lavoro.
+     * @return Il numero di carte non viste.
+     */
+    private int load(int[] composition) {
+        int total = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            counts[c] = composition[c];
+            total += counts[c];
+        }
+        return total;
+    }
+
+    /**
+     * Valore atteso di stare con il totale indicato, data la composizione corrente.
+     */
+    private double stand(int playerTotal, int upcard) {
+        if (playerTotal > 21) {
+            return -1;
+        }
+        dealerOdds.compute(upcard, counts, noBlackjack, dealer);
+        double ev = dealer[DealerOdds.BUST];
+        for (int d = 0; d < DealerOdds.BUST; d++) {
+            int dealerTotal = Model.DEALER_STAND + d;
+            if (playerTotal > dealerTotal) {
+                ev += dealer[d];
+            } else if (playerTotal < dealerTotal) {
+                ev -= dealer[d];
+            }
+        }
+        return ev;
+    }
+
+    /**
+     * Valore atteso di chiedere una carta e poi giocare nel modo migliore.
+     */
+    private double hit(int hard, boolean hasAce, int upcard, int total) {
+        double ev = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            int n = counts[c];
+            if (n == 0) continue;
+            int nextHard = hard + c + 1;
+            double p = (double) n / total;
+            if (nextHard > 21) {
+                ev -= p;
+                continue;
+            }
+            counts[c]--;
+            ev += p * bestMove(nextHard, hasAce || c == 0, upcard, total - 1);
+            counts[c]++;
+        }
+        return ev;
+    }
+
+    /**
+     * Valore atteso, per unità di puntata iniziale, di ricevere una sola carta e stare.
+     */
+    private double doubleDown(int hard, boolean hasAce, int upcard, int total) {
+        double ev = 0;
+        for (int c = 0; c < Cards.VALUE_CLASSES; c++) {
+            int n = counts[c];
+            if (n == 0) continue;
+            int nextHard = hard + c + 1;
+            double p = (double) n / total;
+            if (nextHard > 21) {
+                ev -= p;
+                continue;
+            }
+            counts[c]--;
+            ev += p * stand(best(nextHard, hasAce || c == 0), upcard);
+            counts[c]++;
+        }
+        return ev;
+    }
+
+    /**
+     * Valore atteso della mossa migliore tra stare e chiedere carta, con memorizzazione.
+     */
+    private double bestMove(int hard, boolean hasAce, int upcard, int total) {
+        long key = DealerOdds.pack(counts);
+        int state = 1 + (hard | (hasAce ? 1 << 5 : 0) | (upcard << 6) | (noBlackjack ? 1 << 10 : 0));
+        int slot = slot(key, state);
+        if (keys[slot] == key && states[slot] == state) {
+            return values[slot];
+        }
+
+        double ev = stand(best(hard, hasAce), upcard);
+        if (hard < 21 && total > 0) {
+            ev = Math.max(ev, hit(hard, hasAce, upcard, total));
+        }
+
+        keys[slot] = key;
+        states[slot] = state;
+        values[slot] = ev;
+        return ev;
+    }
+
+    private static int best(int hard, boolean hasAce) {
+        return hasAce && hard + 10 <= 21 ? hard + 10 : hard;
+    }
+
+    private int slot(long key, int state) {
+        long h = (key ^ ((long) state << 52)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 36) & mask;
+    }
+}
@@ -0,0 +1,108 @@
+package BlackJack.bankroll;
+
+/**
+ * Risultati aggregati di una simulazione di bankroll: rovine, distribuzione del drawdown massimo
+ * e del bankroll finale di ogni traiettoria, e momenti della vincita per mano, da cui si ricavano
+ * il valore atteso e la deviazione standard orari.
+ * Le distribuzioni sono istogrammi a memoria fissa, quindi il risultato non cresce con il numero di traiettorie.
+ */
+public class BankrollResult {
+
+    private long trajectories;
+    private long ruined;
+    private long hands;
+
+    // Somma e somma dei quadrati della vincita netta di ogni mano
+    private long net;
+    private double netSquares;
+
+    private final LogHistogram drawdowns = new LogHistogram();
+    private final LogHistogram finals = new LogHistogram();
+
+    /**
+     * Registra l'esito di una mano.
+     * @param amount La vincita netta della mano.
+     */
+    public void recordHand(long amount) {
+        hands++;
+        net += amount;
+        netSquares += (double) amount * amount;
+    }
+
+    /**
+     * Registra la fine di una traiettoria.
+     * @param bankroll Il bankroll finale.
+     * @param maxDrawdown Il massimo calo dal picco precedente.
+     * @param ruin true se la traiettoria è finita in rovina.
+     */
+    public void recordTrajectory(long bankroll, long maxDrawdown, boolean ruin) {
+        trajectories++;
+        if (ruin) ruined++;
+        drawdowns.record(maxDrawdown);
+        finals.record(bankroll);
+    }
+
+    /**
+     * Somma a questo risultato quello di un altro blocco di traiettorie.
+     * @param other Il risultato da sommare.
+     */
+    public void merge(BankrollResult other) {
+        trajectories += other.trajectories;
+        ruined += other.ruined;
+        hands += other.hands;
+        net += other.net;
+        netSquares += other.netSquares;
+        drawdowns.merge(other.drawdowns);
+        finals.merge(other.finals);
+    }
+
+    // Metodi getter
+    public long getTrajectories() { return trajectories; }
+    public long getRuined() { return ruined; }
+    public long getHands() { return hands; }
+    public long getNet() { return net; }
+    public LogHistogram getDrawdowns() { return drawdowns; }
+    public LogHistogram getFinals() { return finals; }
+    public double getRiskOfRuin() { return trajectories > 0 ? (double) ruined / trajectories : 0; }
+    public double getEvPerHand() { return hands > 0 ? (double) net / hands : 0; }
+
+    /**
+     * Restituisce la deviazione standard della vincita di una mano.
+     * @return La deviazione standard per mano.
+     */
+    public double getSdPerHand() {
+        if (hands < 2) return 0;
+        double mean = getEvPerHand();
+        return Math.sqrt(Math.max(0, netSquares / hands - mean * mean));
+    }
+
+    public double getHourlyEv(int handsPerHour) { return getEvPerHand() * handsPerHour; }
+    public double getHourlySd(int handsPerHour) { return getSdPerHand() * Math.sqrt(handsPerHour); }
+
+    /**
+     * Restituisce un riepilogo testuale dei risultati.
+     * @param handsPerHour Il numero di mani giocate in un'ora.
+     * @return Il riepilogo.
+     */
+    public String toString(int handsPerHour) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Traiettorie: %d, mani: %d%n", trajectories, hands));
+        sb.append(String.format("Rischio di rovina: %.2f%% (%d traiettorie)%n", getRiskOfRuin() * 100, ruined));
+        sb.append(String.format("Resa oraria: %+.2f (deviazione standard %.2f, %d mani/ora)%n",
+                getHourlyEv(handsPerHour), getHourlySd(handsPerHour), handsPerHour));
+        appendPercentiles(sb, "Drawdown massimo", drawdowns);
+        appendPercentiles(sb, "Bankroll finale", finals);
+        return sb.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder sb, String name, LogHistogram histogram) {
+        sb.append(String.format("%s: media %.0f, p5 %d, p25 %d, p50 %d, p75 %d, p95 %d, max %d%n", name,
+                histogram.getMean(), histogram.percentile(0.05), histogram.percentile(0.25), histogram.percentile(0.5),
+                histogram.percentile(0.75), histogram.percentile(0.95), histogram.getMax()));
+    }
+
+    @Override
+    public String toString() {
+        return toString(BankrollSimulator.DEFAULT_HANDS_PER_HOUR);
+    }
+}
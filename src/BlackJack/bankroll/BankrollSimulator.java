@@ -0,0 +1,223 @@
+package BlackJack.bankroll;
+
+import BlackJack.Model;
+import BlackJack.Rules;
+import BlackJack.Table;
+import BlackJack.strategy.BasicStrategy;
+import BlackJack.strategy.BotStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulatore di bankroll senza interfaccia grafica.
+ * Ogni traiettoria parte dallo stesso bankroll e gioca fino a un numero fisso di mani, o fino alla rovina,
+ * puntando secondo un {@link BettingSystem} e giocando secondo una {@link BotStrategy};
+ * la vincita di ogni mano è la puntata moltiplicata per la vincita netta del modello, come nel gioco.
+ * Le traiettorie sono divise in blocchi distribuiti con fork/join: ogni blocco riusa un proprio modello
+ * e accumula in un proprio {@link BankrollResult}, sommato agli altri alla fine. La memoria non dipende
+ * dal numero di traiettorie, perché di ciascuna si conservano solo i valori negli istogrammi.
+ */
+public class BankrollSimulator {
+
+    // Numero di traiettorie giocate da ciascun blocco
+    public static final int CHUNK_TRAJECTORIES = 64;
+
+    // Mani giocate in un'ora a un tavolo con un solo giocatore
+    public static final int DEFAULT_HANDS_PER_HOUR = 80;
+
+    // Costante usata per distanziare i semi dei blocchi
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final Rules rules;
+    private final BotStrategy strategy;
+    private final BettingSystem system;
+    private final long bankroll;
+    private final int hands;
+    private final int parallelism;
+
+    /**
+     * Costruttore del simulatore con la strategia di base su tutti i core disponibili.
+     * @param rules Le regole del tavolo.
+     * @param system Il sistema di puntata.
+     * @param bankroll Il bankroll iniziale di ogni traiettoria.
+     * @param hands Il numero massimo di mani di ogni traiettoria.
+     */
+    public BankrollSimulator(Rules rules, BettingSystem system, long bankroll, int hands) {
+        this(rules, new BasicStrategy(), system, bankroll, hands, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Costruttore del simulatore.
+     * @param rules Le regole del tavolo.
+     * @param strategy La strategia di gioco.
+     * @param system Il sistema di puntata.
+     * @param bankroll Il bankroll iniziale di ogni traiettoria.
+     * @param hands Il numero massimo di mani di ogni traiettoria.
+     * @param parallelism Il numero di thread da usare.
+     */
+    public BankrollSimulator(Rules rules, BotStrategy strategy, BettingSystem system, long bankroll, int hands, int parallelism) {
+        if (bankroll < 1) {
+            throw new IllegalArgumentException("Bankroll non valido: " + bankroll);
+        }
+        if (hands < 1) {
+            throw new IllegalArgumentException("Numero di mani non valido: " + hands);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelismo non valido: " + parallelism);
+        }
+        this.rules = rules;
+        this.strategy = strategy;
+        this.system = system;
+        this.bankroll = bankroll;
+        this.hands = hands;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gioca il numero di traiettorie indicato in parallelo.
+     * @param trajectories Il numero di traiettorie.
+     * @param seed Il seme da cui derivano i generatori di tutti i blocchi.
+     * @return I risultati aggregati.
+     */
+    public BankrollResult run(long trajectories, long seed) {
+        long chunks = (trajectories + CHUNK_TRAJECTORIES - 1) / CHUNK_TRAJECTORIES;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ChunkTask(0, chunks, trajectories, seed));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Gioca un blocco di traiettorie con un modello e un generatore dedicati.
+     * @param chunk L'indice del blocco.
+     * @param trajectories Il numero di traiettorie del blocco.
+     * @param seed Il seme della simulazione.
+     * @return I risultati del blocco.
+     */
+    private BankrollResult runChunk(long chunk, long trajectories, long seed) {
+        Model model = new Model(1, rules);
+        model.setRandomGenerator(rules.getRandomAlgorithm().create(seed + SEED_GAMMA * (chunk + 1)));
+        BankrollResult result = new BankrollResult();
+        for (long t = 0; t < trajectories; t++) {
+            playTrajectory(model, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gioca una traiettoria da un sabot appena mescolato.
+     * @param model Il modello da usare.
+     * @param result Il risultato in cui accumulare.
+     */
+    private void playTrajectory(Model model, BankrollResult result) {
+        model.getShoe().reset();
+        long current = bankroll;
+        long peak = bankroll;
+        long maxDrawdown = 0;
+
+        for (int h = 0; h < hands && current > 0; h++) {
+            long bet = Math.min(current, Math.max(1, system.bet(current, model)));
+
+            model.startNewGame();
+            model.playSeat(Table.PLAYER, strategy, model.getDealerUpcard());
+            model.finishRound();
+
+            // Raddoppi e divisioni possono far perdere più della puntata iniziale
+            long amount = Math.round(bet * model.getPayout(Table.PLAYER));
+            current += amount;
+            result.recordHand(amount);
+
+            if (current > peak) {
+                peak = current;
+            } else if (peak - current > maxDrawdown) {
+                maxDrawdown = peak - current;
+            }
+        }
+        result.recordTrajectory(Math.max(0, current), maxDrawdown, current <= 0);
+    }
+
+    // Metodi getter
+    public BettingSystem getSystem() { return system; }
+    public long getBankroll() { return bankroll; }
+    public int getHands() { return hands; }
+    public int getParallelism() { return parallelism; }
+
+    /**
+     * Compito fork/join che divide a metà l'intervallo di blocchi finché non ne resta uno.
+     */
+    private class ChunkTask extends RecursiveTask<BankrollResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from, to;
+        private final long totalTrajectories;
+        private final long seed;
+
+        /**
+         * Costruttore del compito.
+         * @param from Il primo blocco (incluso).
+         * @param to L'ultimo blocco (escluso).
+         * @param totalTrajectories Il numero totale di traiettorie della simulazione.
+         * @param seed Il seme della simulazione.
+         */
+        ChunkTask(long from, long to, long totalTrajectories, long seed) {
+            this.from = from;
+            this.to = to;
+            this.totalTrajectories = totalTrajectories;
+            this.seed = seed;
+        }
+
+        @Override
+        protected BankrollResult compute() {
+            if (to - from == 1) {
+                long trajectories = Math.min(CHUNK_TRAJECTORIES, totalTrajectories - from * CHUNK_TRAJECTORIES);
+                return runChunk(from, trajectories, seed);
+            }
+            if (to == from) {
+                return new BankrollResult();
+            }
+            long mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(from, mid, totalTrajectories, seed);
+            ChunkTask right = new ChunkTask(mid, to, totalTrajectories, seed);
+            left.fork();
+            BankrollResult result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    /**
+     * Avvia una simulazione di bankroll da riga di comando.
+     * @param args sistema di puntata ("fissa", default, "kelly" o "conteggio"), numero di traiettorie
+     *             (default 10000), mani per traiettoria (default 10000), bankroll iniziale (default 5000),
+     *             unità di puntata (default 10), numero di mazzi (default 6), penetrazione (default 0.75) e seme (default 1)
+     */
+    public static void main(String[] args) {
+        String name = args.length > 0 ? args[0] : "fissa";
+        long trajectories = args.length > 1 ? Long.parseLong(args[1]) : 10_000L;
+        int hands = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        long bankroll = args.length > 3 ? Long.parseLong(args[3]) : 5000L;
+        int unit = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int decks = args.length > 5 ? Integer.parseInt(args[5]) : 6;
+        double penetration = args.length > 6 ? Double.parseDouble(args[6]) : 0.75;
+        long seed = args.length > 7 ? Long.parseLong(args[7]) : 1L;
+
+        BettingSystem system;
+        switch (name) {
+            case "kelly": system = new KellyBetting(0.5, unit, unit * 20); break;
+            case "conteggio": system = new CountSpreadBetting(unit); break;
+            case "fissa": system = new FlatBetting(unit); break;
+            default: throw new IllegalArgumentException("Sistema di puntata sconosciuto: " + name);
+        }
+
+        BankrollSimulator simulator = new BankrollSimulator(new Rules(decks, penetration), system, bankroll, hands);
+        long start = System.nanoTime();
+        BankrollResult result = simulator.run(trajectories, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(result.toString(DEFAULT_HANDS_PER_HOUR));
+        System.out.printf("Tempo: %.2f s (%.0f mani/s)%n", seconds, result.getHands() / seconds);
+    }
+}
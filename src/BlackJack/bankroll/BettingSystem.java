@@ -0,0 +1,20 @@
+package BlackJack.bankroll;
+
+import BlackJack.Model;
+
+/**
+ * Sistema di puntata usato dal simulatore di bankroll.
+ * La puntata viene scelta prima della distribuzione, quando il sabot contiene ancora
+ * solo le carte non viste; un sistema non deve conservare stato tra le mani, così che
+ * la stessa istanza possa essere usata da più thread.
+ */
+public interface BettingSystem {
+
+    /**
+     * Sceglie la puntata della prossima mano.
+     * @param bankroll L'importo disponibile.
+     * @param model Il modello della partita, prima della distribuzione.
+     * @return La puntata, almeno 1; il simulatore la limita all'importo disponibile.
+     */
+    int bet(long bankroll, Model model);
+}
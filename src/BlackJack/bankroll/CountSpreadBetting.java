@@ -0,0 +1,50 @@
+package BlackJack.bankroll;
+
+import BlackJack.CardCounter;
+import BlackJack.Model;
+
+/**
+ * Puntata variabile secondo il conteggio vero Hi-Lo: la puntata è un multiplo dell'unità
+ * scelto in una tabella indicizzata dal conteggio vero (arrotondato per difetto).
+ * Con un conteggio negativo si usa la prima voce, oltre l'ultima voce si usa l'ultima.
+ */
+public class CountSpreadBetting implements BettingSystem {
+
+    private final int unit;
+    private final int[] spread;
+
+    /**
+     * Costruttore con la scala predefinita 1-8: 1 unità fino al conteggio vero 1,
+     * poi 2, 4, 6 e 8 unità dal conteggio vero 5 in su.
+     * @param unit L'unità di puntata.
+     */
+    public CountSpreadBetting(int unit) {
+        this(unit, 1, 1, 2, 4, 6, 8);
+    }
+
+    /**
+     * Costruttore.
+     * @param unit L'unità di puntata.
+     * @param spread Le unità da puntare per ogni conteggio vero, a partire da 0.
+     */
+    public CountSpreadBetting(int unit, int... spread) {
+        if (unit < 1 || spread.length == 0) {
+            throw new IllegalArgumentException("Scala di puntata non valida");
+        }
+        for (int units : spread) {
+            if (units < 1) {
+                throw new IllegalArgumentException("Scala di puntata non valida: " + units + " unità");
+            }
+        }
+        this.unit = unit;
+        this.spread = spread.clone();
+    }
+
+    @Override
+    public int bet(long bankroll, Model model) {
+        int index = (int) Math.floor(model.getNextRoundTrueCount(CardCounter.HI_LO));
+        return unit * spread[Math.max(0, Math.min(index, spread.length - 1))];
+    }
+
+    public int getUnit() { return unit; }
+}
@@ -0,0 +1,29 @@
+package BlackJack.bankroll;
+
+import BlackJack.Model;
+
+/**
+ * Puntata fissa, uguale a ogni mano.
+ */
+public class FlatBetting implements BettingSystem {
+
+    private final int unit;
+
+    /**
+     * Costruttore.
+     * @param unit La puntata di ogni mano.
+     */
+    public FlatBetting(int unit) {
+        if (unit < 1) {
+            throw new IllegalArgumentException("Puntata non valida: " + unit);
+        }
+        this.unit = unit;
+    }
+
+    @Override
+    public int bet(long bankroll, Model model) {
+        return unit;
+    }
+
+    public int getUnit() { return unit; }
+}
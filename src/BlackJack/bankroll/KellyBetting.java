@@ -0,0 +1,51 @@
+package BlackJack.bankroll;
+
+import BlackJack.CardCounter;
+import BlackJack.Model;
+
+/**
+ * Puntata proporzionale al bankroll secondo una frazione del criterio di Kelly.
+ * Il vantaggio della prossima mano è stimato dal conteggio vero Hi-Lo, come
+ * vantaggio di base più un incremento per ogni punto di conteggio vero;
+ * la puntata di Kelly è la frazione indicata di vantaggio / varianza del bankroll,
+ * limitata tra la puntata minima e massima del tavolo.
+ */
+public class KellyBetting implements BettingSystem {
+
+    // Varianza di una mano di blackjack, in unità di puntata al quadrato
+    public static final double HAND_VARIANCE = 1.3;
+
+    // Stima del vantaggio: di base (strategia di base, sabot neutro) e per punto di conteggio vero
+    public static final double BASE_EDGE = -0.005;
+    public static final double EDGE_PER_COUNT = 0.005;
+
+    private final double fraction;
+    private final int minBet;
+    private final int maxBet;
+
+    /**
+     * Costruttore.
+     * @param fraction La frazione di Kelly (1 = Kelly pieno, 0.5 = mezzo Kelly).
+     * @param minBet La puntata minima del tavolo, giocata quando il vantaggio stimato è negativo.
+     * @param maxBet La puntata massima del tavolo.
+     */
+    public KellyBetting(double fraction, int minBet, int maxBet) {
+        if (fraction <= 0 || minBet < 1 || maxBet < minBet) {
+            throw new IllegalArgumentException("Parametri di Kelly non validi");
+        }
+        this.fraction = fraction;
+        this.minBet = minBet;
+        this.maxBet = maxBet;
+    }
+
+    @Override
+    public int bet(long bankroll, Model model) {
+        double edge = BASE_EDGE + EDGE_PER_COUNT * model.getNextRoundTrueCount(CardCounter.HI_LO);
+        double kelly = fraction * edge / HAND_VARIANCE * bankroll;
+        return (int) Math.max(minBet, Math.min(maxBet, Math.round(kelly)));
+    }
+
+    public double getFraction() { return fraction; }
+    public int getMinBet() { return minBet; }
+    public int getMaxBet() { return maxBet; }
+}
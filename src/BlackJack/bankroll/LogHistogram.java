@@ -0,0 +1,102 @@
+package BlackJack.bankroll;
+
+/**
+ * Istogramma a scala logaritmica di valori interi non negativi, per stimare i percentili
+ * di una distribuzione senza conservarne i valori.
+ * Ogni potenza di due è divisa in {@link #SUB_BUCKETS} intervalli uguali, quindi l'errore relativo
+ * di un percentile è al più di circa il 3%; la memoria è fissa e due istogrammi si sommano
+ * bucket per bucket, così ogni thread può accumulare nel proprio.
+ */
+public class LogHistogram {
+
+    // Intervalli per ogni potenza di due
+    public static final int SUB_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+    private double sum;
+
+    /**
+     * Calcola il bucket di un valore: i valori piccoli hanno un bucket ciascuno,
+     * gli altri sono raggruppati secondo i bit più significativi.
+     * @param value Il valore, non negativo.
+     * @return L'indice del bucket.
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Restituisce il più piccolo valore di un bucket.
+     * @param bucket L'indice del bucket.
+     * @return Il limite inferiore del bucket.
+     */
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exp = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exp - SUB_BITS);
+    }
+
+    /**
+     * Registra un valore.
+     * @param value Il valore; i valori negativi sono registrati come 0.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts[bucket(value)]++;
+        count++;
+        max = Math.max(max, value);
+        sum += value;
+    }
+
+    /**
+     * Somma a questo istogramma un altro istogramma.
+     * @param other L'istogramma da sommare.
+     */
+    public void merge(LogHistogram other) {
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] += other.counts[b];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+        sum += other.sum;
+    }
+
+    /**
+     * Stima un percentile come centro del bucket che lo contiene.
+     * @param p Il percentile, tra 0 e 1 (0.5 = mediana).
+     * @return Il valore stimato, o 0 se l'istogramma è vuoto.
+     */
+    public long percentile(double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("Percentile non valido: " + p);
+        }
+        long target = Math.max(1, (long) Math.ceil(p * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= target) {
+                long low = lowerBound(b);
+                long high = b + 1 < BUCKETS ? lowerBound(b + 1) : Long.MAX_VALUE;
+                return Math.min(max, low + (high - low - 1) / 2);
+            }
+        }
+        return 0;
+    }
+
+    // Metodi getter
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public double getMean() { return count > 0 ? sum / count : 0; }
+}
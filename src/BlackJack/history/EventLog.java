@@ -0,0 +1,169 @@
+package BlackJack.history;
+
+import BlackJack.Cards;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Registro degli eventi delle partite, in sola aggiunta, con una codifica binaria di due byte per evento.
+ * Il primo byte contiene il tipo (4 bit alti) e il posto (4 bit bassi); il secondo contiene,
+ * per gli eventi con una carta, la mano (2 bit alti) e il codice della carta (6 bit bassi, vedi {@link Cards}),
+ * per {@link #STAY}, {@link #SPLIT} e {@link #SURRENDER} solo la mano, per {@link #ROUND} il numero
+ * di giocatori e per {@link #SETTLE} la vincita netta del posto in decimi di puntata.
+ * Gli eventi sono conservati in un array di byte che cresce raddoppiando, senza un oggetto per evento.
+ */
+public class EventLog {
+
+    // Tipi di evento
+    public static final int ROUND = 0;
+    public static final int DEAL = 1;
+    public static final int HIT = 2;
+    public static final int STAY = 3;
+    public static final int DOUBLE = 4;
+    public static final int SPLIT = 5;
+    public static final int SURRENDER = 6;
+    public static final int DEALER_DRAW = 7;
+    public static final int SETTLE = 8;
+
+    // Byte occupati da un evento
+    public static final int EVENT_BYTES = 2;
+
+    // Intestazione del formato su file
+    private static final int MAGIC = 0x424A4556;
+
+    private byte[] data;
+    private int size;
+
+    /**
+     * Costruttore del registro con una capacità iniziale predefinita.
+     */
+    public EventLog() {
+        this(1 << 16);
+    }
+
+    /**
+     * Costruttore del registro.
+     * @param initialEvents Il numero di eventi per cui riservare spazio.
+     */
+    public EventLog(int initialEvents) {
+        if (initialEvents < 1) {
+            throw new IllegalArgumentException("Capacità non valida: " + initialEvents);
+        }
+        data = new byte[initialEvents * EVENT_BYTES];
+    }
+
+    /**
+     * Aggiunge un evento al registro.
+     * @param type Il tipo di evento.
+     * @param seat Il posto (da 0 a 15).
+     * @param payload Il secondo byte dell'evento, già codificato.
+     */
+    private void append(int type, int seat, int payload) {
+        if (size * EVENT_BYTES == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        int pos = size++ * EVENT_BYTES;
+        data[pos] = (byte) (type << 4 | seat);
+        data[pos + 1] = (byte) payload;
+    }
+
+    /**
+     * Registra l'inizio di una partita.
+     * @param players Il numero di giocatori al tavolo, escluso il dealer.
+     */
+    public void round(int players) {
+        append(ROUND, 0, players);
+    }
+
+    /**
+     * Registra un evento con una carta: {@link #DEAL}, {@link #HIT}, {@link #DOUBLE} o {@link #DEALER_DRAW}.
+     * @param type Il tipo di evento.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     * @param code Il codice della carta.
+     */
+    public void card(int type, int seat, int hand, int code) {
+        append(type, seat, hand << 6 | code);
+    }
+
+    /**
+     * Registra un'azione senza carta: {@link #STAY}, {@link #SPLIT} o {@link #SURRENDER}.
+     * @param type Il tipo di evento.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     */
+    public void action(int type, int seat, int hand) {
+        append(type, seat, hand << 6);
+    }
+
+    /**
+     * Registra la chiusura di un posto.
+     * @param seat Il posto.
+     * @param payout La vincita netta del posto in unità della puntata (arrotondata al decimo).
+     */
+    public void settle(int seat, double payout) {
+        append(SETTLE, seat, (int) Math.round(payout * 10));
+    }
+
+    /**
+     * Svuota il registro, mantenendo lo spazio già allocato.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // Metodi getter dei campi di un evento
+    public int size() { return size; }
+    public int type(int event) { return (data[event * EVENT_BYTES] & 0xFF) >>> 4; }
+    public int seat(int event) { return data[event * EVENT_BYTES] & 0x0F; }
+    public int hand(int event) { return (data[event * EVENT_BYTES + 1] & 0xFF) >>> 6; }
+    public int card(int event) { return data[event * EVENT_BYTES + 1] & 0x3F; }
+    public int players(int event) { return data[event * EVENT_BYTES + 1]; }
+    public double payout(int event) { return data[event * EVENT_BYTES + 1] / 10.0; }
+
+    /**
+     * Verifica se un evento porta una carta pescata dal sabot.
+     * @param event L'indice dell'evento.
+     * @return true per {@link #DEAL}, {@link #HIT}, {@link #DOUBLE} e {@link #DEALER_DRAW}.
+     */
+    public boolean hasCard(int event) {
+        int type = type(event);
+        return type == DEAL || type == HIT || type == DOUBLE || type == DEALER_DRAW;
+    }
+
+    /**
+     * Scrive il registro su uno stream: intestazione, numero di eventi e i byte degli eventi.
+     * @param out Lo stream di destinazione.
+     * @throws IOException Se la scrittura non riesce.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(size);
+        dos.write(data, 0, size * EVENT_BYTES);
+        dos.flush();
+    }
+
+    /**
+     * Legge un registro scritto con {@link #writeTo(OutputStream)}.
+     * @param in Lo stream di origine.
+     * @return Il registro letto.
+     * @throws IOException Se la lettura non riesce o il formato non è valido.
+     */
+    public static EventLog readFrom(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(in);
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Formato del registro non valido");
+        }
+        int events = dis.readInt();
+        EventLog log = new EventLog(Math.max(1, events));
+        dis.readFully(log.data, 0, events * EVENT_BYTES);
+        log.size = events;
+        return log;
+    }
+}
@@ -0,0 +1,160 @@
+package BlackJack.history;
+
+import BlackJack.Cards;
+import BlackJack.Model;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static BlackJack.history.HandHistoryWriter.*;
+
+/**
+ * Lettura sequenziale dello storico scritto da {@link HandHistoryWriter}.
+ * I segmenti vengono mappati in sola lettura uno alla volta e i campi del record corrente
+ * si leggono direttamente dalla memoria mappata: il lettore fa da cursore e una scansione
+ * non crea un oggetto per record. Una query è un ciclo su {@link #next()} con un filtro sui campi,
+ * ad esempio tutte le mani con l'asso scoperto del dealer:
+ * <pre>
+ * while (reader.next()) {
+ *     if (reader.dealerUpcard() == 0) { ... }
+ * }
+ * </pre>
+ */
+public class HandHistoryReader {
+
+    private final Path directory;
+    private final String prefix;
+    private final int segments;
+
+    // Segmento corrente: memoria mappata, indice, record presenti e posizione del record corrente
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int segmentCount;
+    private int record;
+    private int pos;
+
+    /**
+     * Costruttore del lettore. I segmenti presenti vengono contati subito e mappati durante la scansione.
+     * @param directory La cartella dei segmenti.
+     * @param prefix Il prefisso dei nomi dei segmenti.
+     */
+    public HandHistoryReader(Path directory, String prefix) {
+        this.directory = directory;
+        this.prefix = prefix;
+        int count = 0;
+        while (Files.exists(segmentPath(directory, prefix, count))) {
+            count++;
+        }
+        this.segments = count;
+    }
+
+    /**
+     * Passa al record successivo, aprendo il segmento seguente quando quello corrente è finito.
+     * @return false quando non ci sono altri record.
+     */
+    public boolean next() {
+        while (segment == null || record + 1 >= segmentCount) {
+            if (segmentIndex + 1 >= segments) {
+                return false;
+            }
+            openSegment(segmentIndex + 1);
+        }
+        record++;
+        pos += RECORD_BYTES;
+        return true;
+    }
+
+    /**
+     * Riporta il cursore prima del primo record.
+     */
+    public void rewind() {
+        segment = null;
+        segmentIndex = -1;
+        segmentCount = 0;
+    }
+
+    /**
+     * Mappa in sola lettura la parte scritta di un segmento.
+     * @param index L'indice del segmento.
+     */
+    private void openSegment(int index) {
+        Path path = segmentPath(directory, prefix, index);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_RECORD_BYTES) != RECORD_BYTES) {
+                throw new IllegalStateException("Formato dello storico non valido: " + path);
+            }
+            int count = (int) header.getLong(HEADER_RECORDS);
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES + (long) count * RECORD_BYTES);
+            segmentCount = count;
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossibile leggere il segmento " + path, e);
+        }
+        segmentIndex = index;
+        record = -1;
+        pos = HEADER_BYTES - RECORD_BYTES;
+    }
+
+    // Metodi getter dei campi del record corrente
+    public long seed() { return segment.getLong(pos + SEED); }
+    public long shoe() { return segment.getLong(pos + SHOE); }
+    public int round() { return segment.getInt(pos + ROUND); }
+    public int seats() { return segment.get(pos + SEATS); }
+    public int seat() { return segment.get(pos + SEAT); }
+    public int hand() { return segment.get(pos + HAND); }
+    public int result() { return segment.get(pos + RESULT); }
+    public int state() { return segment.getInt(pos + STATE); }
+    public int total() { return segment.get(pos + TOTAL); }
+    public int dealerTotal() { return segment.get(pos + DEALER_TOTAL); }
+    public int count() { return segment.get(pos + COUNT); }
+    public int dealerCount() { return segment.get(pos + DEALER_COUNT); }
+    public double payout() { return segment.getShort(pos + PAYOUT) / 10.0; }
+    public int card(int index) { return segment.get(pos + CARDS + index); }
+    public int dealerCard(int index) { return segment.get(pos + DEALER_CARDS + index); }
+
+    /**
+     * Restituisce la classe di valore della carta scoperta del dealer (la seconda distribuita).
+     * @return La classe di valore (0 = asso, 9 = dieci e figure, vedi {@link Cards#valueClass(int)}).
+     */
+    public int dealerUpcard() {
+        return Cards.valueClass(dealerCard(1));
+    }
+
+    public int getSegments() { return segments; }
+
+    /**
+     * Esegue da riga di comando una scansione di esempio: esito delle mani con l'asso scoperto del dealer.
+     * @param args cartella dei segmenti (default "storico") e prefisso (default "mani")
+     */
+    public static void main(String[] args) {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "storico");
+        String prefix = args.length > 1 ? args[1] : "mani";
+        HandHistoryReader reader = new HandHistoryReader(directory, prefix);
+
+        long start = System.nanoTime();
+        long hands = 0, aces = 0, wins = 0, losses = 0, draws = 0;
+        double payout = 0;
+        while (reader.next()) {
+            hands++;
+            if (reader.dealerUpcard() != 0) continue;
+            aces++;
+            payout += reader.payout();
+            switch (reader.result()) {
+                case Model.RESULT_WIN: wins++; break;
+                case Model.RESULT_LOSS: losses++; break;
+                default: draws++; break;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Mani: %d in %d segmenti%n", hands, reader.getSegments());
+        System.out.printf("Asso scoperto del dealer: %d mani, vittorie %d, sconfitte %d, pareggi %d, resa per mano %+.4f%n",
+                aces, wins, losses, draws, aces > 0 ? payout / aces : 0);
+        System.out.printf("Tempo: %.2f s (%.0f mani/s)%n", seconds, hands / seconds);
+    }
+}
@@ -0,0 +1,215 @@
+package BlackJack.history;
+
+import BlackJack.HandState;
+import BlackJack.Model;
+import BlackJack.Table;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Storico delle mani su file mappati in memoria, in sola aggiunta.
+ * Ogni mano giocata (una per ogni mano di ogni giocatore, comprese quelle nate da una divisione)
+ * occupa un record di {@link #RECORD_BYTES} byte a larghezza fissa: seme, indice del sabot e della partita nel sabot,
+ * numero di giocatori, posto e mano, risultato, stato della mano, totali e carte della mano e del dealer.
+ * I record sono scritti direttamente nella memoria mappata dei segmenti, senza oggetti intermedi;
+ * quando un segmento è pieno se ne apre uno nuovo con l'indice successivo.
+ * Ogni segmento inizia con un'intestazione di {@link #HEADER_BYTES} byte con il numero di record
+ * scritti, aggiornato a ogni record, così un segmento interrotto resta leggibile.
+ * Uno scrittore non è thread-safe: con più thread si usa uno scrittore per thread, con prefissi diversi.
+ */
+public class HandHistoryWriter implements Closeable {
+
+    // Dimensione di un record e dell'intestazione di un segmento
+    public static final int RECORD_BYTES = 80;
+    public static final int HEADER_BYTES = 64;
+
+    // Numero predefinito di record per segmento (80 MB)
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    // Estensione dei file dei segmenti
+    public static final String EXTENSION = ".bjh";
+
+    // Intestazione di un segmento: formato, dimensione del record, capacità e record scritti
+    static final int MAGIC = 0x424A4848;
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_RECORD_BYTES = 4;
+    static final int HEADER_CAPACITY = 8;
+    static final int HEADER_RECORDS = 16;
+
+    // Posizione dei campi all'interno di un record
+    static final int SEED = 0;
+    static final int ROUND = 8;
+    static final int SEATS = 12;
+    static final int SEAT = 13;
+    static final int HAND = 14;
+    static final int RESULT = 15;
+    static final int STATE = 16;
+    static final int TOTAL = 20;
+    static final int DEALER_TOTAL = 21;
+    static final int COUNT = 22;
+    static final int DEALER_COUNT = 23;
+    static final int PAYOUT = 24;
+    static final int DEALER_CARDS = 26;
+    static final int CARDS = DEALER_CARDS + Table.MAX_CARDS;
+    static final int SHOE = 72;
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentRecords;
+
+    // Segmento corrente: memoria mappata, indice del segmento e record già scritti
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int segmentCount;
+
+    // Record scritti in totale
+    private long records;
+
+    /**
+     * Costruttore dello scrittore con la dimensione predefinita dei segmenti.
+     * @param directory La cartella dei segmenti, creata se non esiste.
+     * @param prefix Il prefisso dei nomi dei segmenti.
+     * @throws IOException Se non è possibile creare la cartella o il primo segmento.
+     */
+    public HandHistoryWriter(Path directory, String prefix) throws IOException {
+        this(directory, prefix, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Costruttore dello scrittore.
+     * @param directory La cartella dei segmenti, creata se non esiste.
+     * @param prefix Il prefisso dei nomi dei segmenti.
+     * @param segmentRecords Il numero di record per segmento.
+     * @throws IOException Se non è possibile creare la cartella o il primo segmento.
+     */
+    public HandHistoryWriter(Path directory, String prefix, int segmentRecords) throws IOException {
+        if (segmentRecords < 1 || segmentRecords > (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES) {
+            throw new IllegalArgumentException("Numero di record per segmento non valido: " + segmentRecords);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+        nextSegment();
+    }
+
+    /**
+     * Restituisce il percorso di un segmento.
+     * @param directory La cartella dei segmenti.
+     * @param prefix Il prefisso dei nomi dei segmenti.
+     * @param index L'indice del segmento.
+     * @return Il percorso del file del segmento.
+     */
+    public static Path segmentPath(Path directory, String prefix, int index) {
+        return directory.resolve(String.format("%s-%06d%s", prefix, index, EXTENSION));
+    }
+
+    /**
+     * Apre e mappa il segmento successivo, scrivendone l'intestazione.
+     * @throws IOException Se non è possibile creare o mappare il file.
+     */
+    private void nextSegment() throws IOException {
+        Path path = segmentPath(directory, prefix, ++segmentIndex);
+        long size = HEADER_BYTES + (long) segmentRecords * RECORD_BYTES;
+        // La mappatura resta valida anche dopo la chiusura del canale
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segment.putInt(HEADER_MAGIC, MAGIC);
+        segment.putInt(HEADER_RECORD_BYTES, RECORD_BYTES);
+        segment.putInt(HEADER_CAPACITY, segmentRecords);
+        segment.putLong(HEADER_RECORDS, 0);
+        segmentCount = 0;
+    }
+
+    /**
+     * Scrive un record per ogni mano dei giocatori di una partita conclusa, con il seme,
+     * l'indice del sabot e l'indice della partita nel sabot che servono a riprodurla
+     * (vedi {@link Model#setSeed(long, long)}).
+     * @param model Il modello con la partita conclusa (dopo {@link Model#finishRound()}).
+     */
+    public void writeRound(Model model) {
+        Table table = model.getTable();
+        int players = model.getPlayers();
+        for (int seat = Table.PLAYER; seat <= players; seat++) {
+            for (int hand = 0; hand < table.getHands(seat); hand++) {
+                writeHand(model, seat, hand);
+            }
+        }
+    }
+
+    /**
+     * Scrive il record di una singola mano.
+     * @param model Il modello con la partita conclusa.
+     * @param seat Il posto.
+     * @param hand La mano del posto.
+     */
+    public void writeHand(Model model, int seat, int hand) {
+        if (segment == null) {
+            throw new IllegalStateException("Storico delle mani già chiuso");
+        }
+        if (segmentCount == segmentRecords) {
+            try {
+                nextSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Table table = model.getTable();
+        int state = table.getState(seat, hand);
+        int dealer = table.getState(Table.DEALER);
+        int count = table.getCount(seat, hand);
+        int dealerCount = table.getCount(Table.DEALER);
+
+        MappedByteBuffer buf = segment;
+        int pos = HEADER_BYTES + segmentCount * RECORD_BYTES;
+        buf.putLong(pos + SEED, model.getSeed());
+        buf.putLong(pos + SHOE, model.getShoeIndex());
+        buf.putInt(pos + ROUND, model.getRoundInShoe());
+        buf.put(pos + SEATS, (byte) model.getPlayers());
+        buf.put(pos + SEAT, (byte) seat);
+        buf.put(pos + HAND, (byte) hand);
+        buf.put(pos + RESULT, (byte) model.getResult(seat, hand));
+        buf.putInt(pos + STATE, state);
+        buf.put(pos + TOTAL, (byte) HandState.total(state));
+        buf.put(pos + DEALER_TOTAL, (byte) HandState.total(dealer));
+        buf.put(pos + COUNT, (byte) count);
+        buf.put(pos + DEALER_COUNT, (byte) dealerCount);
+        buf.putShort(pos + PAYOUT, (short) Math.round(model.getPayout(seat, hand) * 10));
+        for (int i = 0; i < dealerCount; i++) {
+            buf.put(pos + DEALER_CARDS + i, (byte) table.card(Table.DEALER, 0, i));
+        }
+        for (int i = 0; i < count; i++) {
+            buf.put(pos + CARDS + i, (byte) table.card(seat, hand, i));
+        }
+
+        buf.putLong(HEADER_RECORDS, ++segmentCount);
+        records++;
+    }
+
+    /**
+     * Scrive su disco il segmento corrente e chiude lo scrittore.
+     */
+    @Override
+    public void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    // Metodi getter
+    public Path getDirectory() { return directory; }
+    public String getPrefix() { return prefix; }
+    public int getSegments() { return segmentIndex + 1; }
+    public long getRecords() { return records; }
+}
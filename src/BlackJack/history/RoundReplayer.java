@@ -0,0 +1,199 @@
+package BlackJack.history;
+
+import BlackJack.Cards;
+import BlackJack.Model;
+import BlackJack.Rules;
+import BlackJack.Table;
+
+import java.util.Arrays;
+
+/**
+ * Ricostruisce in un {@link Model} le partite registrate in un {@link EventLog}.
+ * Le carte della partita vengono disposte in cima al sabot nell'ordine registrato, poi gli eventi
+ * sono rigiocati con gli stessi metodi del modello usati dal Controller e dalle simulazioni;
+ * ogni carta pescata e ogni vincita registrata vengono confrontate con il registro.
+ * La partita può essere rigiocata tutta insieme con {@link #replay(int)} oppure un evento alla volta
+ * con {@link #begin(int)}, {@link #step()} e {@link #finish()}, ad esempio per mostrarla in una vista.
+ */
+public class RoundReplayer {
+
+    private final EventLog log;
+    private final Rules rules;
+
+    // Indici degli eventi ROUND, uno per partita
+    private int[] rounds = new int[1024];
+    private int roundCount;
+
+    // Carte della partita da rigiocare, nell'ordine di pescata
+    private final byte[] cards = new byte[Rules.MAX_DECKS * Cards.DECK_SIZE];
+
+    // Partita in corso di riproduzione: modello, prossimo evento e fine della partita nel registro
+    private Model model;
+    private int next;
+    private int end;
+
+    // Carte già verificate per ogni mano, indicizzate da posto * MAX_HANDS + mano
+    private final int[] checked = new int[(Table.MAX_PLAYERS + 1) * Table.MAX_HANDS];
+
+    /**
+     * Costruttore del riproduttore. Le partite presenti nel registro vengono indicizzate subito.
+     * @param log Il registro degli eventi.
+     * @param rules Le regole con cui sono state giocate le partite.
+     */
+    public RoundReplayer(EventLog log, Rules rules) {
+        this.log = log;
+        this.rules = rules;
+        for (int e = 0; e < log.size(); e++) {
+            if (log.type(e) == EventLog.ROUND) {
+                if (roundCount == rounds.length) {
+                    rounds = Arrays.copyOf(rounds, rounds.length * 2);
+                }
+                rounds[roundCount++] = e;
+            }
+        }
+    }
+
+    /**
+     * Rigioca per intero una partita.
+     * @param round L'indice della partita nel registro.
+     * @return Il modello con lo stato finale della partita.
+     */
+    public Model replay(int round) {
+        begin(round);
+        finish();
+        return model;
+    }
+
+    /**
+     * Prepara il modello con le carte della partita e gioca la distribuzione iniziale.
+     * Il modello viene riusato tra partite con lo stesso numero di giocatori.
+     * @param round L'indice della partita nel registro.
+     * @return Il modello della partita.
+     */
+    public Model begin(int round) {
+        if (round < 0 || round >= roundCount) {
+            throw new IllegalArgumentException("Partita non presente nel registro: " + round);
+        }
+        int start = rounds[round];
+        end = round + 1 < roundCount ? rounds[round + 1] : log.size();
+
+        int count = 0;
+        for (int e = start + 1; e < end; e++) {
+            if (log.hasCard(e)) {
+                cards[count++] = (byte) log.card(e);
+            }
+        }
+
+        int players = log.players(start);
+        if (model == null || model.getPlayers() != players) {
+            model = new Model(players, rules);
+        }
+        model.getShoe().stack(cards, 0, count);
+        model.startNewGame();
+
+        Arrays.fill(checked, 0);
+        next = start + 1;
+        skipDeals();
+        return model;
+    }
+
+    /**
+     * Verifica se il prossimo evento è un'azione del giocatore.
+     * @return true finché restano azioni del giocatore da rigiocare.
+     */
+    public boolean hasPlayerAction() {
+        return next < end && log.seat(next) == Table.PLAYER && log.type(next) != EventLog.SETTLE;
+    }
+
+    /**
+     * Verifica se la partita è stata rigiocata per intero.
+     * @return true se non restano eventi.
+     */
+    public boolean isFinished() {
+        return next >= end;
+    }
+
+    /**
+     * Rigioca il prossimo evento della partita.
+     */
+    public void step() {
+        int e = next++;
+        int seat = log.seat(e);
+        int hand = log.hand(e);
+        boolean player = seat == Table.PLAYER;
+
+        switch (log.type(e)) {
+            case EventLog.HIT:
+                if (player) model.hitPlayer(); else model.hit(seat, hand);
+                break;
+            case EventLog.DEALER_DRAW:
+                model.hit(Table.DEALER);
+                break;
+            case EventLog.DOUBLE:
+                if (player) model.doublePlayer(); else model.doubleDown(seat, hand);
+                break;
+            case EventLog.SPLIT:
+                if (player) model.splitPlayer(); else model.split(seat, hand);
+                // Ciascuna delle due mani conserva una carta della coppia
+                checked[seat * Table.MAX_HANDS + hand] = 1;
+                checked[seat * Table.MAX_HANDS + model.getHandCount(seat) - 1] = 1;
+                break;
+            case EventLog.SURRENDER:
+                if (player) model.surrenderPlayer(); else model.surrender(seat, hand);
+                break;
+            case EventLog.STAY:
+                if (player) model.standPlayer();
+                break;
+            case EventLog.SETTLE:
+                double payout = Math.round(model.getPayout(seat) * 10) / 10.0;
+                if (payout != log.payout(e)) {
+                    throw new IllegalStateException("Vincita diversa dal registro al posto " + seat
+                            + ": " + payout + " invece di " + log.payout(e));
+                }
+                break;
+            default:
+                throw new IllegalStateException("Evento inatteso nel registro: " + log.type(e));
+        }
+        if (log.hasCard(e)) {
+            checkCard(e);
+        }
+        skipDeals();
+    }
+
+    /**
+     * Rigioca tutti gli eventi rimanenti della partita.
+     */
+    public void finish() {
+        while (!isFinished()) {
+            step();
+        }
+    }
+
+    /**
+     * Salta le carte distribuite dal modello stesso (distribuzione iniziale e divisioni), verificandole.
+     */
+    private void skipDeals() {
+        while (next < end && log.type(next) == EventLog.DEAL) {
+            checkCard(next++);
+        }
+    }
+
+    /**
+     * Confronta la carta di un evento con quella ricevuta dalla mano nel modello.
+     * @param e L'indice dell'evento.
+     */
+    private void checkCard(int e) {
+        int seat = log.seat(e);
+        int hand = log.hand(e);
+        int index = checked[seat * Table.MAX_HANDS + hand]++;
+        Table table = model.getTable();
+        if (index >= table.getCount(seat, hand) || table.card(seat, hand, index) != log.card(e)) {
+            throw new IllegalStateException("Carta diversa dal registro all'evento " + e);
+        }
+    }
+
+    // Metodi getter
+    public int getRounds() { return roundCount; }
+    public Model getModel() { return model; }
+    public EventLog getLog() { return log; }
+}
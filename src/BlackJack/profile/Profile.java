@@ -0,0 +1,136 @@
+package BlackJack.profile;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Profilo di un giocatore: importo e contatori di vittorie, sconfitte e pareggi,
+ * del giocatore e dei due bot con cui ha giocato.
+ * Il profilo viene modificato solo dal thread della GUI; {@link ProfileStore} ne salva una copia codificata.
+ */
+public class Profile {
+
+    // Importo iniziale di un nuovo giocatore
+    public static final int INITIAL_IMPORTO = 5000;
+    // Puntata minima, il valore della chip più piccola
+    public static final int MIN_BET = 1;
+
+    private final String nickname;
+    private int importo = INITIAL_IMPORTO;
+    private int winCount, defeatCount, drawCount;
+    private int winCountBot1, defeatCountBot1, drawCountBot1;
+    private int winCountBot2, defeatCountBot2, drawCountBot2;
+
+    /**
+     * Costruttore di un nuovo profilo con l'importo iniziale e i contatori a zero.
+     * @param nickname Il nickname del giocatore.
+     */
+    public Profile(String nickname) {
+        if (nickname == null || nickname.isEmpty()) {
+            throw new IllegalArgumentException("Nickname non valido");
+        }
+        this.nickname = nickname;
+    }
+
+    /**
+     * Registra l'esito di una partita.
+     * @param result Il risultato del giocatore (1=vittoria, 2=sconfitta, 3=pareggio).
+     * @param amount La vincita netta del giocatore, già moltiplicata per la puntata.
+     * @param bot1result Il risultato del primo bot (0 se non ha giocato).
+     * @param bot2result Il risultato del secondo bot (0 se non ha giocato).
+     */
+    public void recordRound(int result, int amount, int bot1result, int bot2result) {
+        if (result == 1) {
+            winCount++;
+        } else if (result == 2) {
+            defeatCount++;
+        } else if (result == 3) {
+            drawCount++;
+        }
+        importo += amount;
+
+        if (bot1result == 1) {
+            winCountBot1++;
+        } else if (bot1result == 2) {
+            defeatCountBot1++;
+        } else if (bot1result == 3) {
+            drawCountBot1++;
+        }
+
+        if (bot2result == 1) {
+            winCountBot2++;
+        } else if (bot2result == 2) {
+            defeatCountBot2++;
+        } else if (bot2result == 3) {
+            drawCountBot2++;
+        }
+    }
+
+    /**
+     * Riaccredita l'importo iniziale a un giocatore che non può più puntare nemmeno la chip più piccola,
+     * altrimenti, con l'importo salvato tra una sessione e l'altra, non potrebbe più giocare.
+     * I contatori di vittorie, sconfitte e pareggi restano invariati.
+     * @return true se l'importo è stato riaccreditato.
+     */
+    public boolean refill() {
+        if (importo >= MIN_BET) {
+            return false;
+        }
+        importo = INITIAL_IMPORTO;
+        return true;
+    }
+
+    /**
+     * Scrive il profilo completo: nickname, importo e contatori.
+     * @param out La destinazione.
+     * @throws IOException Se la scrittura non riesce.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(nickname);
+        out.writeInt(importo);
+        out.writeInt(winCount);
+        out.writeInt(defeatCount);
+        out.writeInt(drawCount);
+        out.writeInt(winCountBot1);
+        out.writeInt(defeatCountBot1);
+        out.writeInt(drawCountBot1);
+        out.writeInt(winCountBot2);
+        out.writeInt(defeatCountBot2);
+        out.writeInt(drawCountBot2);
+    }
+
+    /**
+     * Legge un profilo scritto con {@link #writeTo(DataOutput)}.
+     * @param in L'origine.
+     * @return Il profilo letto.
+     * @throws IOException Se la lettura non riesce.
+     */
+    static Profile readFrom(DataInput in) throws IOException {
+        Profile profile = new Profile(in.readUTF());
+        profile.importo = in.readInt();
+        profile.winCount = in.readInt();
+        profile.defeatCount = in.readInt();
+        profile.drawCount = in.readInt();
+        profile.winCountBot1 = in.readInt();
+        profile.defeatCountBot1 = in.readInt();
+        profile.drawCountBot1 = in.readInt();
+        profile.winCountBot2 = in.readInt();
+        profile.defeatCountBot2 = in.readInt();
+        profile.drawCountBot2 = in.readInt();
+        return profile;
+    }
+
+    // Metodi getter
+    public String getNickname() { return nickname; }
+    public int getImporto() { return importo; }
+    public int getWinCount() { return winCount; }
+    public int getDefeatCount() { return defeatCount; }
+    public int getDrawCount() { return drawCount; }
+    public int getWinCountBot1() { return winCountBot1; }
+    public int getDefeatCountBot1() { return defeatCountBot1; }
+    public int getDrawCountBot1() { return drawCountBot1; }
+    public int getWinCountBot2() { return winCountBot2; }
+    public int getDefeatCountBot2() { return defeatCountBot2; }
+    public int getDrawCountBot2() { return drawCountBot2; }
+}
@@ -0,0 +1,325 @@
+package BlackJack.profile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Archivio persistente dei profili dei giocatori, indicizzato per nickname.
+ * Ogni salvataggio aggiunge al giornale ({@code profili.wal}) una voce con lo stato completo del profilo,
+ * protetta da un CRC e scritta su disco prima di passare alla successiva; ogni {@link #COMPACT_EVERY}
+ * voci l'ultimo stato di tutti i profili viene riscritto in un'istantanea ({@code profili.snap}),
+ * sostituita in modo atomico, e il giornale viene svuotato.
+ * All'apertura si legge l'istantanea e poi il giornale, fino alla prima voce incompleta o danneggiata:
+ * un'interruzione perde al più l'ultimo salvataggio. Se una scrittura non riesce mentre il gioco continua,
+ * il giornale viene riportato alla fine dell'ultima voce valida, così i salvataggi successivi restano leggibili.
+ * Poiché ogni voce contiene lo stato completo,
+ * rileggere una voce già compresa nell'istantanea non cambia il risultato.
+ * Le scritture avvengono su un thread dedicato, quindi {@link #save(Profile)} non blocca il thread della GUI.
+ */
+public class ProfileStore implements Closeable {
+
+    // Numero di voci del giornale dopo cui si riscrive l'istantanea
+    public static final int COMPACT_EVERY = 64;
+
+    // Intestazione dell'istantanea
+    private static final int MAGIC = 0x424A5046;
+
+    private final Path snapshot;
+    private final Path snapshotTmp;
+    private final Path journal;
+
+    // Profili in uso, letti e modificati solo dal thread della GUI
+    private final Map<String, Profile> profiles = new HashMap<>();
+
+    // Ultima codifica salvata di ogni profilo, usata solo dal thread di scrittura
+    private final Map<String, byte[]> saved = new HashMap<>();
+
+    // Thread di scrittura, giornale aperto in aggiunta e voci scritte dall'ultima istantanea
+    private final ExecutorService writer;
+    private final FileChannel journalChannel;
+    private int journalEntries;
+
+    // Fine dell'ultima voce valida del giornale, usata dal thread di scrittura
+    private long journalSize;
+
+    // Byte dopo cui interrompere la prossima scrittura (-1 = nessuna interruzione), usato da ProfileStoreCheck
+    private int tearAt = -1;
+
+    /**
+     * Costruttore dell'archivio nella cartella predefinita ({@code .jblackjack} nella home dell'utente).
+     * @throws IOException Se non è possibile leggere o creare i file dell'archivio.
+     */
+    public ProfileStore() throws IOException {
+        this(Paths.get(System.getProperty("user.home"), ".jblackjack"));
+    }
+
+    /**
+     * Costruttore dell'archivio. Carica l'istantanea e le voci valide del giornale.
+     * @param directory La cartella dell'archivio, creata se non esiste.
+     * @throws IOException Se non è possibile leggere o creare i file dell'archivio.
+     */
+    public ProfileStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        snapshot = directory.resolve("profili.snap");
+        snapshotTmp = directory.resolve("profili.snap.tmp");
+        journal = directory.resolve("profili.wal");
+
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(snapshot))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Istantanea dei profili non valida: " + snapshot);
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    byte[] entry = readEntry(in);
+                    if (entry == null) {
+                        throw new IOException("Istantanea dei profili danneggiata: " + snapshot);
+                    }
+                    load(entry);
+                }
+            }
+        }
+
+        journalChannel = FileChannel.open(journal, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long valid = 0;
+        DataInputStream in = new DataInputStream(Channels.newInputStream(journalChannel));
+        byte[] entry;
+        while ((entry = readEntry(in)) != null) {
+            load(entry);
+            valid += 8 + entry.length;
+            journalEntries++;
+        }
+        // Scarta la coda di un salvataggio interrotto, così le nuove voci seguono l'ultima valida
+        journalChannel.truncate(valid);
+        journalSize = valid;
+
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "profili");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Legge una voce: lunghezza, CRC e contenuto.
+     * @param in L'origine.
+     * @return Il contenuto della voce, o null se la voce è incompleta o danneggiata.
+     * @throws IOException Se la lettura non riesce.
+     */
+    private static byte[] readEntry(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int crc = in.readInt();
+            if (length <= 0 || length > 1 << 16) {
+                return null;
+            }
+            byte[] entry = new byte[length];
+            in.readFully(entry);
+            return crc(entry) == crc ? entry : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Carica una voce nei profili in uso e nelle codifiche salvate.
+     * @param entry Il contenuto della voce.
+     * @throws IOException Se la voce non contiene un profilo valido.
+     */
+    private void load(byte[] entry) throws IOException {
+        InputStream bytes = new ByteArrayInputStream(entry);
+        Profile profile = Profile.readFrom(new DataInputStream(bytes));
+        profiles.put(profile.getNickname(), profile);
+        saved.put(profile.getNickname(), entry);
+    }
+
+    private static int crc(byte[] entry) {
+        CRC32 crc = new CRC32();
+        crc.update(entry);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Restituisce il profilo di un giocatore, creandone uno nuovo se il nickname non è presente.
+     * Da chiamare dal thread della GUI.
+     * @param nickname Il nickname del giocatore.
+     * @return Il profilo del giocatore.
+     */
+    public Profile getProfile(String nickname) {
+        return profiles.computeIfAbsent(nickname, Profile::new);
+    }
+
+    /**
+     * Salva lo stato attuale di un profilo. Il profilo viene codificato subito, sul thread chiamante,
+     * mentre la scrittura su disco avviene sul thread di scrittura.
+     * @param profile Il profilo da salvare.
+     */
+    public void save(Profile profile) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            profile.writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // Non può accadere scrivendo in memoria
+            throw new IllegalStateException(e);
+        }
+        byte[] entry = bytes.toByteArray();
+        String nickname = profile.getNickname();
+        writer.execute(() -> append(nickname, entry));
+    }
+
+    /**
+     * Aggiunge una voce al giornale e la scrive su disco; se necessario riscrive l'istantanea.
+     * Se la scrittura non riesce, il giornale viene troncato alla fine dell'ultima voce valida:
+     * la lettura si ferma alla prima voce danneggiata, quindi una coda lasciata a metà
+     * renderebbe illeggibili anche tutte le voci scritte dopo.
+     * Eseguito sul thread di scrittura.
+     * @param nickname Il nickname del profilo.
+     * @param entry La codifica del profilo.
+     */
+    private void append(String nickname, byte[] entry) {
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(8 + entry.length);
+            buf.putInt(entry.length).putInt(crc(entry)).put(entry).flip();
+            if (tearAt >= 0) {
+                buf.limit(Math.min(tearAt, buf.limit()));
+            }
+            while (buf.hasRemaining()) {
+                journalChannel.write(buf, journalSize + buf.position());
+            }
+            if (tearAt >= 0) {
+                tearAt = -1;
+                throw new IOException("Scrittura del giornale interrotta");
+            }
+            journalChannel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+            discardTail();
+            return;
+        }
+        journalSize += 8 + entry.length;
+        saved.put(nickname, entry);
+
+        if (++journalEntries >= COMPACT_EVERY) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // L'istantanea precedente e il giornale restano validi: si riprova alla prossima voce
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Tronca il giornale alla fine dell'ultima voce valida, scartando una voce scritta solo in parte.
+     * Eseguito sul thread di scrittura.
+     */
+    private void discardTail() {
+        try {
+            journalChannel.truncate(journalSize);
+            journalChannel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Riscrive l'istantanea con l'ultimo stato di tutti i profili e svuota il giornale.
+     * L'istantanea viene scritta in un file temporaneo e poi sostituita in modo atomico:
+     * un'interruzione lascia valida l'istantanea precedente insieme al giornale.
+     * Eseguito sul thread di scrittura.
+     * @throws IOException Se la scrittura non riesce.
+     */
+    private void compact() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotTmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            out.writeInt(MAGIC);
+            out.writeInt(saved.size());
+            for (byte[] entry : saved.values()) {
+                out.writeInt(entry.length);
+                out.writeInt(crc(entry));
+                out.write(entry);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(snapshotTmp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        journalChannel.truncate(0);
+        journalSize = 0;
+        journalEntries = 0;
+        journalChannel.force(true);
+    }
+
+    /**
+     * Fa interrompere con un errore la prossima scrittura del giornale dopo il numero di byte indicato,
+     * come un disco pieno durante il gioco. Usato da {@link ProfileStoreCheck}.
+     * @param bytes I byte della voce da scrivere prima dell'errore.
+     */
+    void tearNextAppend(int bytes) {
+        writer.execute(() -> tearAt = bytes);
+    }
+
+    /**
+     * Completa i salvataggi in attesa e chiude il giornale senza riscrivere l'istantanea,
+     * lasciando i file come dopo un'uscita improvvisa. Usato da {@link ProfileStoreCheck}.
+     */
+    void abandon() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            journalChannel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Completa i salvataggi in attesa, riscrive l'istantanea e chiude il giornale.
+     */
+    @Override
+    public void close() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                if (journalEntries > 0) {
+                    compact();
+                }
+                journalChannel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package BlackJack.profile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Verifica da riga di comando che {@link ProfileStore} sopravviva a un'interruzione durante un salvataggio.
+ * Salva una serie di stati di alcuni profili, abbandona l'archivio senza chiuderlo, aggiunge in coda
+ * al giornale una voce troncata o danneggiata e riapre l'archivio: ogni profilo deve tornare
+ * all'ultimo stato salvato prima della coda, e i salvataggi successivi devono seguire l'ultima voce valida.
+ * Verifica anche le scritture che non riescono mentre il gioco continua: i salvataggi successivi
+ * devono restare leggibili.
+ * Se una verifica non riesce viene lanciata un'eccezione.
+ */
+public class ProfileStoreCheck {
+
+    private static final String[] NICKNAMES = { "anna", "bruno", "carla" };
+
+    private final Path directory;
+    private final Random random = new Random(1);
+
+    // Ultima codifica salvata di ogni profilo
+    private final Map<String, byte[]> expected = new HashMap<>();
+
+    private ProfileStoreCheck(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Esegue la verifica.
+     * @param args cartella di lavoro, che deve essere vuota o inesistente (default: una cartella temporanea)
+     * @throws IOException Se i file dell'archivio non possono essere letti o scritti.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : Files.createTempDirectory("profili");
+        if (Files.exists(directory.resolve("profili.wal")) || Files.exists(directory.resolve("profili.snap"))) {
+            throw new IllegalArgumentException("La cartella contiene già un archivio dei profili: " + directory);
+        }
+        new ProfileStoreCheck(directory).run();
+        System.out.println("Verifica superata: " + directory);
+    }
+
+    private void run() throws IOException {
+        // Abbastanza salvataggi da riscrivere l'istantanea e lasciare voci nel giornale
+        ProfileStore store = new ProfileStore(directory);
+        play(store, ProfileStore.COMPACT_EVERY + 20);
+        store.abandon();
+        verify("istantanea e giornale");
+
+        Profile next = new Profile(NICKNAMES[0]);
+        next.recordRound(1, 100, 0, 0);
+        byte[] entry = frame(encode(next));
+
+        // Voce interrotta in punti diversi: nella lunghezza, nel CRC, nel contenuto
+        for (int length : new int[] { 2, 6, 8 + 1, entry.length - 1 }) {
+            damage("voce troncata a " + length + " byte", Arrays.copyOf(entry, length));
+        }
+        // Voce completa ma con un byte del contenuto alterato
+        byte[] corrupt = entry.clone();
+        corrupt[corrupt.length - 1] ^= 1;
+        damage("voce con CRC errato", corrupt);
+        // Lunghezza non valida
+        damage("lunghezza non valida", new byte[] { -1, -1, -1, -1, 0, 0, 0, 0 });
+
+        // Scrittura che non riesce a metà, o dopo la voce completa, senza uscire dal gioco
+        for (int length : new int[] { 6, entry.length - 1, entry.length }) {
+            tear("scrittura interrotta dopo " + length + " byte", length);
+        }
+
+        // Chiusura ordinata: tutto nell'istantanea
+        store = new ProfileStore(directory);
+        play(store, 5);
+        store.close();
+        verify("chiusura ordinata");
+    }
+
+    /**
+     * Aggiunge una coda danneggiata al giornale, verifica che la riapertura la scarti e che i salvataggi
+     * successivi vengano letti.
+     * @param description La descrizione del danno, per i messaggi.
+     * @param tail I byte da aggiungere in coda al giornale.
+     * @throws IOException Se i file non possono essere letti o scritti.
+     */
+    private void damage(String description, byte[] tail) throws IOException {
+        Files.write(directory.resolve("profili.wal"), tail, StandardOpenOption.APPEND);
+        verify(description);
+
+        ProfileStore store = new ProfileStore(directory);
+        play(store, 3);
+        store.abandon();
+        verify(description + ", poi nuovi salvataggi");
+    }
+
+    /**
+     * Fa fallire una scrittura durante il gioco e verifica che i salvataggi successivi vengano letti.
+     * Il salvataggio fallito non cambia lo stato atteso del profilo.
+     * @param description La descrizione del guasto, per i messaggi.
+     * @param bytes I byte della voce scritti prima dell'errore.
+     * @throws IOException Se i file non possono essere letti o scritti.
+     */
+    private void tear(String description, int bytes) throws IOException {
+        ProfileStore store = new ProfileStore(directory);
+        play(store, 2);
+        store.tearNextAppend(bytes);
+        Profile lost = store.getProfile(NICKNAMES[0]);
+        lost.recordRound(1, 100, 0, 0);
+        store.save(lost);
+        play(store, 3);
+        store.abandon();
+        verify(description);
+    }
+
+    /**
+     * Registra partite casuali sui profili e li salva, ricordando l'ultimo stato di ciascuno.
+     * @param store L'archivio.
+     * @param saves Il numero di salvataggi.
+     */
+    private void play(ProfileStore store, int saves) {
+        for (int i = 0; i < saves; i++) {
+            Profile profile = store.getProfile(NICKNAMES[random.nextInt(NICKNAMES.length)]);
+            int result = 1 + random.nextInt(3);
+            int amount = result == 1 ? 10 : result == 2 ? -10 : 0;
+            profile.recordRound(result, amount, random.nextInt(4), random.nextInt(4));
+            store.save(profile);
+            expected.put(profile.getNickname(), encode(profile));
+        }
+    }
+
+    /**
+     * Riapre l'archivio e confronta ogni profilo con l'ultimo stato salvato.
+     * @param description La situazione verificata, per i messaggi.
+     * @throws IOException Se l'archivio non può essere aperto.
+     */
+    private void verify(String description) throws IOException {
+        ProfileStore store = new ProfileStore(directory);
+        try {
+            for (Map.Entry<String, byte[]> e : expected.entrySet()) {
+                if (!Arrays.equals(encode(store.getProfile(e.getKey())), e.getValue())) {
+                    throw new IllegalStateException("Profilo " + e.getKey() + " non ripristinato (" + description + ")");
+                }
+            }
+        } finally {
+            store.abandon();
+        }
+        System.out.println("Ripristino corretto: " + description);
+    }
+
+    private static byte[] encode(Profile profile) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            profile.writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Incornicia una codifica come voce del giornale: lunghezza, CRC e contenuto.
+     */
+    private static byte[] frame(byte[] entry) {
+        CRC32 crc = new CRC32();
+        crc.update(entry);
+        return ByteBuffer.allocate(8 + entry.length)
+                .putInt(entry.length).putInt((int) crc.getValue()).put(entry).array();
+    }
+}
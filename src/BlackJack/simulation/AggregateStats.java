@@ -0,0 +1,250 @@
+package BlackJack.simulation;
+
+import BlackJack.Cards;
+import BlackJack.HandState;
+import BlackJack.Model;
+import BlackJack.Table;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Statistiche aggregate di una simulazione, suddivise per numero di giocatori, posto,
+ * carta scoperta del dealer e totale iniziale del posto (le prime due carte, morbido o duro).
+ * Una seconda tabella, più piccola, suddivide le stesse grandezze per posto e conteggio vero Hi-Lo
+ * all'inizio della mano (arrotondato per difetto e limitato a ±{@link #MAX_TRUE_COUNT}).
+ * Ogni combinazione è un bucket e ogni grandezza è una colonna: un array di long indicizzato dal bucket,
+ * senza un oggetto per bucket. Un'istanza non è thread-safe: con più thread ciascuno accumula
+ * in una propria istanza e le istanze vengono sommate alla fine con {@link #merge(AggregateStats)}.
+ */
+public class AggregateStats {
+
+    // Dimensioni delle chiavi dei bucket
+    public static final int SEAT_COUNTS = Table.MAX_PLAYERS;
+    public static final int POSITIONS = Table.MAX_PLAYERS;
+    public static final int UPCARDS = Cards.VALUE_CLASSES;
+    public static final int STARTS = 44;
+    public static final int BUCKETS = SEAT_COUNTS * POSITIONS * UPCARDS * STARTS;
+
+    // Bucket della tabella per conteggio vero
+    public static final int MAX_TRUE_COUNT = 6;
+    public static final int TRUE_COUNTS = 2 * MAX_TRUE_COUNT + 1;
+    public static final int COUNT_BUCKETS = POSITIONS * TRUE_COUNTS;
+
+    // Intestazione del formato su file
+    private static final int MAGIC = 0x424A4153;
+
+    // Colonne: mani, vittorie, sconfitte, pareggi e vincita netta in decimi di puntata
+    private final long[] hands = new long[BUCKETS];
+    private final long[] wins = new long[BUCKETS];
+    private final long[] losses = new long[BUCKETS];
+    private final long[] draws = new long[BUCKETS];
+    private final long[] payouts = new long[BUCKETS];
+
+    // Le stesse colonne per posto e conteggio vero
+    private final long[] countHands = new long[COUNT_BUCKETS];
+    private final long[] countWins = new long[COUNT_BUCKETS];
+    private final long[] countLosses = new long[COUNT_BUCKETS];
+    private final long[] countDraws = new long[COUNT_BUCKETS];
+    private final long[] countPayouts = new long[COUNT_BUCKETS];
+
+    /**
+     * Calcola il bucket di una mano.
+     * @param seats Il numero di giocatori al tavolo (da 1 a 7).
+     * @param position Il posto, a partire da 0 per il giocatore.
+     * @param upcard La classe di valore della carta scoperta del dealer.
+     * @param startState Lo stato delle prime due carte del posto (vedi {@link HandState}).
+     * @return L'indice del bucket.
+     */
+    public static int bucket(int seats, int position, int upcard, int startState) {
+        int start = HandState.total(startState) + (HandState.isSoft(startState) ? STARTS / 2 : 0);
+        return (((seats - 1) * POSITIONS + position) * UPCARDS + upcard) * STARTS + start;
+    }
+
+    /**
+     * Calcola il bucket della tabella per conteggio vero.
+     * @param position Il posto, a partire da 0 per il giocatore.
+     * @param trueCount Il conteggio vero all'inizio della mano.
+     * @return L'indice del bucket.
+     */
+    public static int countBucket(int position, double trueCount) {
+        int tc = (int) Math.max(-MAX_TRUE_COUNT, Math.min(MAX_TRUE_COUNT, Math.floor(trueCount)));
+        return position * TRUE_COUNTS + tc + MAX_TRUE_COUNT;
+    }
+
+    /**
+     * Registra l'esito di un posto in una mano.
+     * @param seats Il numero di giocatori al tavolo.
+     * @param position Il posto, a partire da 0 per il giocatore.
+     * @param upcard La classe di valore della carta scoperta del dealer.
+     * @param startState Lo stato delle prime due carte del posto.
+     * @param result Il codice del risultato restituito da {@link Model#getResult(int)}.
+     * @param payout La vincita netta restituita da {@link Model#getPayout(int)}.
+     * @param trueCount Il conteggio vero Hi-Lo all'inizio della mano.
+     */
+    public void record(int seats, int position, int upcard, int startState, int result, double payout, double trueCount) {
+        long tenths = Math.round(payout * 10);
+        add(bucket(seats, position, upcard, startState), result, tenths, hands, wins, losses, draws, payouts);
+        add(countBucket(position, trueCount), result, tenths, countHands, countWins, countLosses, countDraws, countPayouts);
+    }
+
+    private static void add(int b, int result, long tenths, long[] hands, long[] wins, long[] losses, long[] draws, long[] payouts) {
+        hands[b]++;
+        if (result == Model.RESULT_WIN) {
+            wins[b]++;
+        } else if (result == Model.RESULT_LOSS) {
+            losses[b]++;
+        } else if (result == Model.RESULT_DRAW) {
+            draws[b]++;
+        }
+        payouts[b] += tenths;
+    }
+
+    /**
+     * Somma a queste statistiche quelle di un'altra istanza.
+     * @param other Le statistiche da sommare.
+     */
+    public void merge(AggregateStats other) {
+        for (int b = 0; b < BUCKETS; b++) {
+            hands[b] += other.hands[b];
+            wins[b] += other.wins[b];
+            losses[b] += other.losses[b];
+            draws[b] += other.draws[b];
+            payouts[b] += other.payouts[b];
+        }
+        for (int b = 0; b < COUNT_BUCKETS; b++) {
+            countHands[b] += other.countHands[b];
+            countWins[b] += other.countWins[b];
+            countLosses[b] += other.countLosses[b];
+            countDraws[b] += other.countDraws[b];
+            countPayouts[b] += other.countPayouts[b];
+        }
+    }
+
+    // Chiavi di un bucket
+    public static int seats(int bucket) { return bucket / (POSITIONS * UPCARDS * STARTS) + 1; }
+    public static int position(int bucket) { return bucket / (UPCARDS * STARTS) % POSITIONS; }
+    public static int upcard(int bucket) { return bucket / STARTS % UPCARDS; }
+    public static int startTotal(int bucket) { return bucket % (STARTS / 2); }
+    public static boolean isStartSoft(int bucket) { return bucket % STARTS >= STARTS / 2; }
+
+    // Metodi getter delle colonne
+    public long getHands(int bucket) { return hands[bucket]; }
+    public long getWins(int bucket) { return wins[bucket]; }
+    public long getLosses(int bucket) { return losses[bucket]; }
+    public long getDraws(int bucket) { return draws[bucket]; }
+    public double getPayout(int bucket) { return payouts[bucket] / 10.0; }
+    public long getCountHands(int bucket) { return countHands[bucket]; }
+    public long getCountWins(int bucket) { return countWins[bucket]; }
+    public long getCountLosses(int bucket) { return countLosses[bucket]; }
+    public long getCountDraws(int bucket) { return countDraws[bucket]; }
+    public double getCountPayout(int bucket) { return countPayouts[bucket] / 10.0; }
+
+    /**
+     * Scrive in formato CSV una riga per ogni bucket con almeno una mano.
+     * @param out La destinazione.
+     */
+    public void writeCsv(Writer out) {
+        PrintWriter pw = new PrintWriter(out);
+        pw.println("giocatori,posto,carta_dealer,totale_iniziale,morbido,mani,vinte,perse,pareggi,resa");
+        for (int b = 0; b < BUCKETS; b++) {
+            if (hands[b] == 0) continue;
+            int upcard = upcard(b);
+            pw.print(seats(b));
+            pw.print(',');
+            pw.print(position(b));
+            pw.print(',');
+            pw.print(upcard == 0 ? "A" : String.valueOf(upcard + 1));
+            pw.print(',');
+            pw.print(startTotal(b));
+            pw.print(',');
+            pw.print(isStartSoft(b) ? 1 : 0);
+            pw.print(',');
+            pw.print(hands[b]);
+            pw.print(',');
+            pw.print(wins[b]);
+            pw.print(',');
+            pw.print(losses[b]);
+            pw.print(',');
+            pw.print(draws[b]);
+            pw.print(',');
+            pw.println(payouts[b] / 10.0);
+        }
+        pw.flush();
+    }
+
+    /**
+     * Scrive in formato CSV la tabella per conteggio vero, una riga per ogni bucket con almeno una mano.
+     * @param out La destinazione.
+     */
+    public void writeCountCsv(Writer out) {
+        PrintWriter pw = new PrintWriter(out);
+        pw.println("posto,conteggio_vero,mani,vinte,perse,pareggi,resa");
+        for (int b = 0; b < COUNT_BUCKETS; b++) {
+            if (countHands[b] == 0) continue;
+            pw.print(b / TRUE_COUNTS);
+            pw.print(',');
+            pw.print(b % TRUE_COUNTS - MAX_TRUE_COUNT);
+            pw.print(',');
+            pw.print(countHands[b]);
+            pw.print(',');
+            pw.print(countWins[b]);
+            pw.print(',');
+            pw.print(countLosses[b]);
+            pw.print(',');
+            pw.print(countDraws[b]);
+            pw.print(',');
+            pw.println(countPayouts[b] / 10.0);
+        }
+        pw.flush();
+    }
+
+    /**
+     * Scrive le statistiche in formato binario a colonne: intestazione, numero di bucket
+     * delle due tabelle e poi ciascuna colonna per intero.
+     * @param out Lo stream di destinazione.
+     * @throws IOException Se la scrittura non riesce.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(BUCKETS);
+        dos.writeInt(COUNT_BUCKETS);
+        for (long[] column : columns()) {
+            for (long value : column) {
+                dos.writeLong(value);
+            }
+        }
+        dos.flush();
+    }
+
+    /**
+     * Legge le statistiche scritte con {@link #writeTo(OutputStream)}.
+     * @param in Lo stream di origine.
+     * @return Le statistiche lette.
+     * @throws IOException Se la lettura non riesce o il formato non è valido.
+     */
+    public static AggregateStats readFrom(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(in);
+        if (dis.readInt() != MAGIC || dis.readInt() != BUCKETS || dis.readInt() != COUNT_BUCKETS) {
+            throw new IOException("Formato delle statistiche non valido");
+        }
+        AggregateStats stats = new AggregateStats();
+        for (long[] column : stats.columns()) {
+            for (int b = 0; b < column.length; b++) {
+                column[b] = dis.readLong();
+            }
+        }
+        return stats;
+    }
+
+    private long[][] columns() {
+        return new long[][] { hands, wins, losses, draws, payouts,
+                countHands, countWins, countLosses, countDraws, countPayouts };
+    }
+}
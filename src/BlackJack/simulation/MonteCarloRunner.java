@@ -0,0 +1,243 @@
+package BlackJack.simulation;
+
+import BlackJack.Model;
+import BlackJack.Rules;
+import BlackJack.history.EventLog;
+import BlackJack.history.RoundReplayer;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulazione Monte Carlo parallela.
+ * Le mani vengono divise in blocchi di dimensione fissa, distribuiti con fork/join sui core disponibili.
+ * Ogni blocco gioca con un proprio {@link RoundEngine}, quindi con un proprio sabot e un proprio
+ * generatore casuale, e accumula i totali in un proprio {@link SimulationResult}: i risultati
+ * vengono sommati solo alla fine, senza contatori condivisi tra thread.
+ * Il blocco {@code k} distribuisce i sabot a partire dall'indice {@code k << 32} con il seme della simulazione
+ * (vedi {@link BlackJack.Model#setSeed(long, long)}): le carte dipendono solo dal seme e dall'indice del sabot,
+ * quindi lo stesso seme dà gli stessi totali qualunque sia il numero di core, e una singola partita
+ * si riproduce con {@link RoundEngine#replay(long, long, int)} senza rigiocare la simulazione.
+ * Se richieste, le statistiche aggregate vengono accumulate in un'istanza di {@link AggregateStats}
+ * per ogni thread, senza sincronizzazione durante il gioco, e sommate alla fine.
+ * Con la verifica della riproduzione ogni blocco registra le proprie mani in un {@link EventLog}
+ * e, finito il blocco, le rigioca con {@link RoundReplayer}: una carta o una vincita diversa
+ * dal registro interrompe la simulazione con un'eccezione.
+ */
+public class MonteCarloRunner {
+
+    // Numero di mani giocate da ciascun blocco
+    public static final int CHUNK_ROUNDS = 1 << 16;
+
+    // Bit dell'indice del sabot riservati ai sabot di un blocco
+    private static final int CHUNK_SHOE_BITS = 32;
+
+    private final int players;
+    private final int playerStandOn;
+    private final Rules rules;
+    private final int parallelism;
+    private boolean collectStats;
+    private boolean verifyReplay;
+
+    // Statistiche di ciascun thread nella simulazione in corso
+    private ThreadLocal<AggregateStats> shards;
+
+    /**
+     * Costruttore della simulazione su tutti i core disponibili.
+     * @param players Il numero di giocatori al tavolo (da 1 a 7).
+     * @param rules Le regole del tavolo.
+     */
+    public MonteCarloRunner(int players, Rules rules) {
+        this(players, Model.DEALER_STAND, rules, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Costruttore della simulazione.
+     * @param players Il numero di giocatori al tavolo (da 1 a 7).
+     * @param playerStandOn Il totale a partire dal quale il giocatore sta.
+     * @param rules Le regole del tavolo.
+     * @param parallelism Il numero di thread da usare.
+     */
+    public MonteCarloRunner(int players, int playerStandOn, Rules rules, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelismo non valido: " + parallelism);
+        }
+        this.players = players;
+        this.playerStandOn = playerStandOn;
+        this.rules = rules;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gioca il numero di mani indicato in parallelo.
+     * @param rounds Il numero di mani da giocare.
+     * @param seed Il seme da cui derivano i generatori di tutti i blocchi.
+     * @return I totali di vittorie, sconfitte e pareggi.
+     */
+    public SimulationResult run(long rounds, long seed) {
+        long chunks = (rounds + CHUNK_ROUNDS - 1) / CHUNK_ROUNDS;
+        List<AggregateStats> created = new ArrayList<>();
+        if (collectStats) {
+            shards = ThreadLocal.withInitial(() -> {
+                AggregateStats shard = new AggregateStats();
+                synchronized (created) {
+                    created.add(shard);
+                }
+                return shard;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            SimulationResult result = pool.invoke(new ChunkTask(0, chunks, rounds, seed));
+            if (collectStats) {
+                AggregateStats stats = new AggregateStats();
+                for (AggregateStats shard : created) {
+                    stats.merge(shard);
+                }
+                result.setStats(stats);
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+            shards = null;
+        }
+    }
+
+    /**
+     * Gioca un singolo blocco di mani con un motore dedicato e un intervallo di sabot riservato.
+     * @param chunk L'indice del blocco.
+     * @param rounds Il numero di mani del blocco.
+     * @param seed Il seme della simulazione.
+     * @return I totali del blocco.
+     */
+    private SimulationResult runChunk(long chunk, long rounds, long seed) {
+        RoundEngine engine = new RoundEngine(players, playerStandOn, rules);
+        engine.getModel().setSeed(seed, chunk << CHUNK_SHOE_BITS);
+        if (collectStats) {
+            engine.setStats(shards.get());
+        }
+        if (!verifyReplay) {
+            return engine.run(rounds);
+        }
+        EventLog log = new EventLog();
+        engine.setEventLog(log);
+        SimulationResult result = engine.run(rounds);
+        RoundReplayer replayer = new RoundReplayer(log, rules);
+        for (int round = 0; round < replayer.getRounds(); round++) {
+            replayer.replay(round);
+        }
+        return result;
+    }
+
+    public int getParallelism() { return parallelism; }
+    public boolean isCollectStats() { return collectStats; }
+    public boolean isVerifyReplay() { return verifyReplay; }
+
+    /**
+     * Abilita la raccolta delle statistiche aggregate, restituite in {@link SimulationResult#getStats()}.
+     * @param collectStats true per raccogliere le statistiche.
+     */
+    public void setCollectStats(boolean collectStats) { this.collectStats = collectStats; }
+
+    /**
+     * Abilita la verifica della riproduzione: ogni blocco registra le proprie mani e le rigioca alla fine.
+     * @param verifyReplay true per verificare la riproduzione di tutte le mani.
+     */
+    public void setVerifyReplay(boolean verifyReplay) { this.verifyReplay = verifyReplay; }
+
+    /**
+     * Compito fork/join che divide a metà l'intervallo di blocchi finché non ne resta uno.
+     */
+    private class ChunkTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from, to;
+        private final long totalRounds;
+        private final long seed;
+
+        /**
+         * Costruttore del compito.
+         * @param from Il primo blocco (incluso).
+         * @param to L'ultimo blocco (escluso).
+         * @param totalRounds Il numero totale di mani della simulazione.
+         * @param seed Il seme della simulazione.
+         */
+        ChunkTask(long from, long to, long totalRounds, long seed) {
+            this.from = from;
+            this.to = to;
+            this.totalRounds = totalRounds;
+            this.seed = seed;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from == 1) {
+                long rounds = Math.min(CHUNK_ROUNDS, totalRounds - from * CHUNK_ROUNDS);
+                return runChunk(from, rounds, seed);
+            }
+            if (to == from) {
+                return new SimulationResult(players);
+            }
+            long mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(from, mid, totalRounds, seed);
+            ChunkTask right = new ChunkTask(mid, to, totalRounds, seed);
+            left.fork();
+            SimulationResult result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    /**
+     * Avvia una simulazione parallela da riga di comando e stampa le mani al secondo per core.
+     * @param args numero di mani (default 10000000), numero di giocatori (default 1),
+     *             numero di thread (default tutti i core), numero di mazzi (default 1) e seme (default 1);
+     *             con un sesto argomento le statistiche aggregate vengono scritte nel file CSV indicato
+     *             e con un settimo quelle per conteggio vero.
+     *             Con "verifica" come primo argomento, seguito dagli stessi argomenti, ogni mano viene anche
+     *             registrata e rigiocata (vedi {@link #setVerifyReplay(boolean)})
+     * @throws IOException Se non è possibile scrivere il file delle statistiche.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean verify = args.length > 0 && args[0].equals("verifica");
+        if (verify) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int decks = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1L;
+
+        MonteCarloRunner runner = new MonteCarloRunner(players, Model.DEALER_STAND, new Rules(decks, 0), threads);
+        runner.setCollectStats(args.length > 5);
+        runner.setVerifyReplay(verify);
+        long start = System.nanoTime();
+        SimulationResult result = runner.run(rounds, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(result);
+        System.out.printf("Tempo: %.2f s, %d thread, %.0f mani/s, %.0f mani/s per core%n",
+                seconds, threads, rounds / seconds, rounds / seconds / threads);
+        if (verify) {
+            System.out.println("Riproduzione verificata su tutte le mani");
+        }
+
+        if (result.getStats() != null) {
+            try (Writer out = new FileWriter(args[5])) {
+                result.getStats().writeCsv(out);
+            }
+            if (args.length > 6) {
+                try (Writer out = new FileWriter(args[6])) {
+                    result.getStats().writeCountCsv(out);
+                }
+            }
+        }
+    }
+}
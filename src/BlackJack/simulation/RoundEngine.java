@@ -0,0 +1,339 @@
+package BlackJack.simulation;
+
+import BlackJack.CardCounter;
+import BlackJack.Cards;
+import BlackJack.HandState;
+import BlackJack.Model;
+import BlackJack.Rules;
+import BlackJack.Table;
+import BlackJack.history.EventLog;
+import BlackJack.history.HandHistoryWriter;
+import BlackJack.history.RoundReplayer;
+import BlackJack.strategy.BasicStrategy;
+import BlackJack.strategy.BotStrategy;
+import BlackJack.strategy.CountingStrategy;
+import BlackJack.strategy.DealerMimicStrategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Motore di gioco senza interfaccia grafica.
+ * Gioca mani complete con le stesse regole di {@link Model} e del Controller,
+ * senza passare da Swing, per simulazioni su un gran numero di mani.
+ */
+public class RoundEngine {
+
+    private final Model model;
+    private final int players;
+
+    // Strategia con cui gioca il giocatore
+    private final BotStrategy playerStrategy;
+
+    // Storico delle mani (facoltativo)
+    private HandHistoryWriter history;
+
+    // Statistiche aggregate (facoltative), con lo stato iniziale di ogni posto nella mano in corso
+    private AggregateStats stats;
+    private final int[] startStates = new int[Table.MAX_PLAYERS + 1];
+    private double trueCount;
+
+    /**
+     * Costruttore del motore. Il giocatore segue la stessa regola del dealer.
+     * @param players Il numero di giocatori al tavolo (da 1 a 7).
+     */
+    public RoundEngine(int players) {
+        this(players, Model.DEALER_STAND);
+    }
+
+    /**
+     * Costruttore del motore.
+     * @param players Il numero di giocatori al tavolo (da 1 a 7).
+     * @param playerStandOn Il totale a partire dal quale il giocatore sta.
+     */
+    public RoundEngine(int players, int playerStandOn) {
+        this(players, playerStandOn, new Rules());
+    }
+
+    /**
+     * Costruttore del motore.
+     * @param players Il numero di giocatori al tavolo (da 1 a 7).
+     * @param playerStandOn Il totale a partire dal quale il giocatore sta.
+     * @param rules Le regole del tavolo.
+     */
+    public RoundEngine(int players, int playerStandOn, Rules rules) {
+        this(players, new DealerMimicStrategy(playerStandOn), rules);
+    }
+
+    /**
+     * Costruttore del motore.
+     * @param players Il numero di giocatori al tavolo (da 1 a 7).
+     * @param playerStrategy La strategia con cui gioca il giocatore.
+     * @param rules Le regole del tavolo.
+     */
+    public RoundEngine(int players, BotStrategy playerStrategy, Rules rules) {
+        if (players < 1 || players > SimulationResult.MAX_SEATS) {
+            throw new IllegalArgumentException("Numero di giocatori non valido: " + players);
+        }
+        this.players = players;
+        this.playerStrategy = playerStrategy;
+        this.model = new Model(players, rules);
+    }
+
+    /**
+     * Gioca una mano completa e ne registra l'esito.
+     * @param result Il risultato in cui accumulare l'esito della mano.
+     */
+    public void playRound(SimulationResult result) {
+        if (stats != null) {
+            trueCount = model.getNextRoundTrueCount(CardCounter.HI_LO);
+        }
+        model.startNewGame();
+        if (stats != null) {
+            for (int seat = Table.PLAYER; seat <= players; seat++) {
+                startStates[seat] = model.getHandState(seat, 0);
+            }
+        }
+
+        // Turno del giocatore: la strategia sceglie tra le azioni consentite dalle regole, su ogni mano
+        model.playSeat(Table.PLAYER, playerStrategy, model.getDealerUpcard());
+
+        // Turno del dealer e dei bot, come con il pulsante Stay
+        model.finishRound();
+
+        for (int seat = Table.PLAYER; seat <= players; seat++) {
+            result.record(seat - Table.PLAYER, model.getResult(seat));
+            result.addPayout(seat - Table.PLAYER, model.getPayout(seat));
+        }
+        result.countRound();
+
+        if (stats != null) {
+            int upcard = model.getDealerUpcard();
+            for (int seat = Table.PLAYER; seat <= players; seat++) {
+                stats.record(players, seat - Table.PLAYER, upcard, startStates[seat],
+                        model.getResult(seat), model.getPayout(seat), trueCount);
+            }
+        }
+
+        if (history != null) {
+            history.writeRound(model);
+        }
+    }
+
+    /**
+     * Gioca il numero di mani indicato.
+     * @param rounds Il numero di mani da giocare.
+     * @return I totali di vittorie, sconfitte e pareggi.
+     */
+    public SimulationResult run(long rounds) {
+        SimulationResult result = new SimulationResult(players);
+        for (long i = 0; i < rounds; i++) {
+            playRound(result);
+        }
+        return result;
+    }
+
+    /**
+     * Riproduce una partita di una simulazione con seme: gioca dall'inizio del sabot indicato
+     * fino alla partita richiesta compresa, con le stesse strategie, e lascia il modello
+     * sulla partita conclusa. Le partite precedenti del sabot servono solo a ritrovare le stesse carte
+     * e non vengono registrate nello storico, nelle statistiche né nel registro degli eventi.
+     * @param seed Il seme della simulazione.
+     * @param shoeIndex L'indice del sabot.
+     * @param round L'indice della partita nel sabot.
+     * @return L'esito della sola partita riprodotta.
+     */
+    public SimulationResult replay(long seed, long shoeIndex, int round) {
+        if (round < 0) {
+            throw new IllegalArgumentException("Indice della partita non valido: " + round);
+        }
+        HandHistoryWriter savedHistory = history;
+        AggregateStats savedStats = stats;
+        EventLog savedLog = model.getEventLog();
+        history = null;
+        stats = null;
+        model.setEventLog(null);
+        try {
+            model.setSeed(seed, shoeIndex);
+            for (int i = 0; i < round; i++) {
+                playRound(new SimulationResult(players));
+            }
+        } finally {
+            history = savedHistory;
+            stats = savedStats;
+            model.setEventLog(savedLog);
+        }
+        SimulationResult result = new SimulationResult(players);
+        playRound(result);
+        return result;
+    }
+
+    public Model getModel() { return model; }
+    public HandHistoryWriter getHistory() { return history; }
+    public AggregateStats getStats() { return stats; }
+    public EventLog getEventLog() { return model.getEventLog(); }
+
+    /**
+     * Accumula da qui in poi l'esito di ogni posto nelle statistiche aggregate indicate.
+     * @param stats Le statistiche in cui accumulare, o null per non raccoglierle.
+     */
+    public void setStats(AggregateStats stats) { this.stats = stats; }
+
+    /**
+     * Registra le mani giocate da qui in poi in uno storico su file.
+     * @param history Lo storico delle mani, o null per non registrarle.
+     */
+    public void setHistory(HandHistoryWriter history) { this.history = history; }
+
+    /**
+     * Registra le carte e le azioni delle mani giocate da qui in poi in un registro degli eventi,
+     * che si può rigiocare e verificare con {@link RoundReplayer}.
+     * @param log Il registro degli eventi, o null per non registrare.
+     */
+    public void setEventLog(EventLog log) { model.setEventLog(log); }
+
+    /**
+     * Avvia una simulazione da riga di comando.
+     * @param args numero di mani (default 1000000), numero di giocatori (default 1),
+     *             numero di mazzi (default 1), penetrazione (default 0) e strategia del giocatore
+     *             ("dealer", default, "base" per la strategia di base oppure "conteggio" per la strategia
+     *             di base con le deviazioni secondo il conteggio); con un sesto argomento
+     *             le mani vengono registrate nello storico nella cartella indicata e con un settimo
+     *             le carte sono mescolate con il seme indicato; con un ottavo le partite vengono registrate
+     *             nel registro degli eventi scritto nel file indicato.
+     *             Con "verifica" come primo argomento rigioca tutte le partite di un registro degli eventi:
+     *             seguono il file del registro, mazzi (default 1) e penetrazione (default 0) della simulazione.
+     *             Con "riproduci" come primo argomento riproduce una sola partita: seguono seme, indice del sabot,
+     *             indice della partita nel sabot e poi giocatori, mazzi, penetrazione e strategia come sopra
+     * @throws IOException Se non è possibile creare lo storico delle mani.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("riproduci")) {
+            replayMain(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("verifica")) {
+            verifyMain(args);
+            return;
+        }
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int decks = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        double penetration = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        String strategy = args.length > 4 ? args[4] : "dealer";
+
+        Rules rules = new Rules(decks, penetration);
+        if (args.length > 6) {
+            rules.setSeed(Long.parseLong(args[6]));
+        }
+        RoundEngine engine = create(players, strategy, rules);
+        HandHistoryWriter history = null;
+        if (args.length > 5) {
+            history = new HandHistoryWriter(Paths.get(args[5]), "mani");
+            engine.setHistory(history);
+        }
+        EventLog log = null;
+        if (args.length > 7) {
+            log = new EventLog();
+            engine.setEventLog(log);
+        }
+        long start = System.nanoTime();
+        SimulationResult result = engine.run(rounds);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (history != null) {
+            history.close();
+            System.out.printf("Storico: %d mani in %d segmenti%n", history.getRecords(), history.getSegments());
+        }
+        if (log != null) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(args[7])))) {
+                log.writeTo(out);
+            }
+            System.out.printf("Registro: %d eventi%n", log.size());
+        }
+
+        System.out.print(result);
+        System.out.printf("Tempo: %.2f s (%.0f mani/s)%n", seconds, rounds / seconds);
+    }
+
+    /**
+     * Riproduce da riga di comando la partita indicata da seme, sabot e partita nel sabot
+     * e ne stampa le carte e l'esito di ogni posto.
+     * @param args "riproduci", seme, indice del sabot, indice della partita, giocatori (default 1),
+     *             mazzi (default 1), penetrazione (default 0) e strategia (default "dealer")
+     */
+    private static void replayMain(String[] args) {
+        if (args.length < 4) {
+            throw new IllegalArgumentException("Uso: riproduci seme sabot partita [giocatori mazzi penetrazione strategia]");
+        }
+        long seed = Long.parseLong(args[1]);
+        long shoeIndex = Long.parseLong(args[2]);
+        int round = Integer.parseInt(args[3]);
+        int players = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        int decks = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+        double penetration = args.length > 6 ? Double.parseDouble(args[6]) : 0;
+        String strategy = args.length > 7 ? args[7] : "dealer";
+
+        RoundEngine engine = create(players, strategy, new Rules(decks, penetration));
+        engine.replay(seed, shoeIndex, round);
+        Model model = engine.getModel();
+        Table table = model.getTable();
+
+        System.out.println("Partita: " + model.getReplayKey());
+        System.out.println("Dealer: " + cards(table, Table.DEALER, 0) + " = " + model.getDealerSum());
+        for (int seat = Table.PLAYER; seat <= players; seat++) {
+            for (int hand = 0; hand < table.getHands(seat); hand++) {
+                System.out.printf("%s, mano %d: %s = %d, esito %d, vincita %+.1f%n",
+                        seat == Table.PLAYER ? "Giocatore" : "Bot" + (seat - Table.PLAYER), hand,
+                        cards(table, seat, hand), HandState.total(table.getState(seat, hand)),
+                        model.getResult(seat, hand), model.getPayout(seat, hand));
+            }
+        }
+    }
+
+    /**
+     * Rigioca da riga di comando tutte le partite di un registro degli eventi, verificando ogni carta
+     * e ogni vincita; se una partita non corrisponde al registro viene lanciata un'eccezione.
+     * @param args "verifica", file del registro, mazzi (default 1) e penetrazione (default 0)
+     * @throws IOException Se non è possibile leggere il registro.
+     */
+    private static void verifyMain(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Uso: verifica registro [mazzi penetrazione]");
+        }
+        int decks = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        double penetration = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+
+        EventLog log;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(args[1])))) {
+            log = EventLog.readFrom(in);
+        }
+        RoundReplayer replayer = new RoundReplayer(log, new Rules(decks, penetration));
+        for (int round = 0; round < replayer.getRounds(); round++) {
+            replayer.replay(round);
+        }
+        System.out.printf("Partite verificate: %d (%d eventi)%n", replayer.getRounds(), log.size());
+    }
+
+    private static String cards(Table table, int seat, int hand) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < table.getCount(seat, hand); i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(Cards.name(table.card(seat, hand, i)));
+        }
+        return sb.toString();
+    }
+
+    private static RoundEngine create(int players, String strategy, Rules rules) {
+        switch (strategy) {
+            case "base": return new RoundEngine(players, new BasicStrategy(), rules);
+            case "conteggio": return new RoundEngine(players, new CountingStrategy(), rules);
+            case "dealer": return new RoundEngine(players, Model.DEALER_STAND, rules);
+            default: throw new IllegalArgumentException("Strategia sconosciuta: " + strategy);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package BlackJack.simulation;
+
+import BlackJack.Model;
+import BlackJack.Table;
+
+/**
+ * Totali di vittorie, sconfitte e pareggi accumulati da una simulazione,
+ * con la vincita netta di ogni posto in unità della puntata.
+ * Il posto 0 è il giocatore, i posti successivi sono i bot.
+ */
+public class SimulationResult {
+
+    // Numero massimo di posti al tavolo, escluso il dealer
+    public static final int MAX_SEATS = Table.MAX_PLAYERS;
+
+    private final int players;
+    private long rounds;
+
+    private final long[] wins = new long[MAX_SEATS];
+    private final long[] losses = new long[MAX_SEATS];
+    private final long[] draws = new long[MAX_SEATS];
+    private final double[] payouts = new double[MAX_SEATS];
+
+    // Statistiche aggregate per bucket, se raccolte
+    private AggregateStats stats;
+
+    /**
+     * Costruttore del risultato.
+     * @param players Il numero di giocatori al tavolo.
+     */
+    public SimulationResult(int players) {
+        this.players = players;
+    }
+
+    /**
+     * Registra il risultato di una mano.
+     * @param seat Il posto della mano (0 = giocatore, 1 = bot1, 2 = bot2, ...).
+     * @param result Il codice del risultato restituito da {@link Model#getResult(int)}.
+     */
+    public void record(int seat, int result) {
+        if (result == Model.RESULT_WIN) {
+            wins[seat]++;
+        } else if (result == Model.RESULT_LOSS) {
+            losses[seat]++;
+        } else if (result == Model.RESULT_DRAW) {
+            draws[seat]++;
+        }
+    }
+
+    /**
+     * Accumula la vincita netta di una mano.
+     * @param seat Il posto della mano (0 = giocatore, 1 = bot1, 2 = bot2, ...).
+     * @param payout La vincita netta restituita da {@link Model#getPayout(int)}.
+     */
+    public void addPayout(int seat, double payout) {
+        payouts[seat] += payout;
+    }
+
+    /**
+     * Conta una mano giocata.
+     */
+    public void countRound() {
+        rounds++;
+    }
+
+    /**
+     * Somma a questo risultato quello di un'altra simulazione con lo stesso numero di giocatori.
+     * @param other Il risultato da sommare.
+     */
+    public void merge(SimulationResult other) {
+        rounds += other.rounds;
+        for (int seat = 0; seat < MAX_SEATS; seat++) {
+            wins[seat] += other.wins[seat];
+            losses[seat] += other.losses[seat];
+            draws[seat] += other.draws[seat];
+            payouts[seat] += other.payouts[seat];
+        }
+    }
+
+    // Metodi getter
+    public int getPlayers() { return players; }
+    public long getRounds() { return rounds; }
+
+    public long getWins(int seat) { return wins[seat]; }
+    public long getLosses(int seat) { return losses[seat]; }
+    public long getDraws(int seat) { return draws[seat]; }
+    public double getPayout(int seat) { return payouts[seat]; }
+    public double getExpectedValue(int seat) { return rounds > 0 ? payouts[seat] / rounds : 0; }
+    public AggregateStats getStats() { return stats; }
+
+    // Metodi setter
+    public void setStats(AggregateStats stats) { this.stats = stats; }
+
+    /**
+     * Restituisce una rappresentazione testuale dei totali per ogni posto.
+     * @return I totali di vittorie, sconfitte e pareggi.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Mani giocate: ").append(rounds).append('\n');
+        for (int seat = 0; seat < players; seat++) {
+            sb.append(seat == 0 ? "Giocatore" : "Bot" + seat)
+              .append(": vinte ").append(wins[seat])
+              .append(", perse ").append(losses[seat])
+              .append(", pareggi ").append(draws[seat])
+              .append(String.format(", resa per mano %+.4f", getExpectedValue(seat)))
+              .append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package BlackJack.strategy;
+
+import BlackJack.Cards;
+
+/**
+ * Strategia di base guidata da tabella.
+ * Le decisioni sono precalcolate in un array di byte indicizzato da
+ * (mano morbida, totale, carta scoperta del dealer), quindi ogni decisione è una sola lettura.
+ * Una seconda tabella, indicizzata da (coppia, carta scoperta), dice quando dividere.
+ * La tabella predefinita è la strategia di base a più mazzi per il dealer che sta sul 17 morbido,
+ * con raddoppio dopo la divisione e resa tardiva, e si usa per ogni sabot, anche per quello
+ * a un solo mazzo delle {@link BlackJack.Rules} predefinite: le deviazioni a un mazzo non sono incluse.
+ */
+public class BasicStrategy implements BotStrategy {
+
+    // Azioni contenute nella tabella; raddoppio e resa ripiegano sull'azione indicata se non consentiti
+    public static final byte STAND = 0;
+    public static final byte HIT = 1;
+    public static final byte DOUBLE_OR_HIT = 2;
+    public static final byte DOUBLE_OR_STAND = 3;
+    public static final byte SURRENDER_OR_HIT = 4;
+
+    // Totali indicizzati da 0 a 21
+    private static final int TOTALS = 22;
+
+    private final byte[] table = new byte[2 * TOTALS * Cards.VALUE_CLASSES];
+    private final boolean[] splits = new boolean[Cards.VALUE_CLASSES * Cards.VALUE_CLASSES];
+
+    /**
+     * Costruttore con la tabella della strategia di base.
+     */
+    public BasicStrategy() {
+        for (int up = 0; up < Cards.VALUE_CLASSES; up++) {
+            // Valore della carta scoperta: 2..10, con l'asso a 11
+            int dealer = up == 0 ? 11 : up + 1;
+            for (int total = 0; total < TOTALS; total++) {
+                set(false, total, up, hard(total, dealer));
+                set(true, total, up, soft(total, dealer));
+            }
+            for (int pair = 0; pair < Cards.VALUE_CLASSES; pair++) {
+                setSplit(pair, up, split(pair == 0 ? 11 : pair + 1, dealer));
+            }
+        }
+    }
+
+    private static byte hard(int total, int dealer) {
+        if (total == 16 && dealer >= 9) return SURRENDER_OR_HIT;
+        if (total == 15 && dealer == 10) return SURRENDER_OR_HIT;
+        if (total == 9 && dealer >= 3 && dealer <= 6) return DOUBLE_OR_HIT;
+        if (total == 10 && dealer <= 9) return DOUBLE_OR_HIT;
+        if (total == 11 && dealer <= 10) return DOUBLE_OR_HIT;
+        return hardHit(total, dealer) ? HIT : STAND;
+    }
+
+    private static byte soft(int total, int dealer) {
+        if ((total == 13 || total == 14) && dealer >= 5 && dealer <= 6) return DOUBLE_OR_HIT;
+        if ((total == 15 || total == 16) && dealer >= 4 && dealer <= 6) return DOUBLE_OR_HIT;
+        if (total == 17 && dealer >= 3 && dealer <= 6) return DOUBLE_OR_HIT;
+        if (total == 18 && dealer >= 3 && dealer <= 6) return DOUBLE_OR_STAND;
+        return softHit(total, dealer) ? HIT : STAND;
+    }
+
+    private static boolean hardHit(int total, int dealer) {
+        if (total <= 11) return true;
+        if (total == 12) return dealer < 4 || dealer > 6;
+        if (total <= 16) return dealer > 6;
+        return false;
+    }
+
+    private static boolean softHit(int total, int dealer) {
+        if (total <= 17) return true;
+        if (total == 18) return dealer >= 9;
+        return false;
+    }
+
+    private static boolean split(int card, int dealer) {
+        switch (card) {
+            case 11: case 8: return true;
+            case 2: case 3: case 7: return dealer <= 7;
+            case 4: return dealer == 5 || dealer == 6;
+            case 6: return dealer <= 6;
+            case 9: return dealer <= 9 && dealer != 7;
+            default: return false;
+        }
+    }
+
+    /**
+     * Imposta l'azione per una combinazione della tabella, per costruire strategie personalizzate.
+     * @param soft true per le mani morbide.
+     * @param total Il totale della mano (da 0 a 21).
+     * @param dealerUpcard La classe di valore della carta scoperta del dealer.
+     * @param action L'azione ({@link #HIT}, {@link #STAND}, {@link #DOUBLE_OR_HIT},
+     *               {@link #DOUBLE_OR_STAND} o {@link #SURRENDER_OR_HIT}).
+     */
+    public void set(boolean soft, int total, int dealerUpcard, byte action) {
+        table[index(soft, total, dealerUpcard)] = action;
+    }
+
+    /**
+     * Imposta se dividere una coppia contro una carta scoperta del dealer.
+     * @param pair La classe di valore della coppia.
+     * @param dealerUpcard La classe di valore della carta scoperta del dealer.
+     * @param split true per dividere.
+     */
+    public void setSplit(int pair, int dealerUpcard, boolean split) {
+        splits[pair * Cards.VALUE_CLASSES + dealerUpcard] = split;
+    }
+
+    @Override
+    public boolean hit(int total, boolean soft, int dealerUpcard) {
+        if (total >= TOTALS) return false;
+        byte action = table[index(soft, total, dealerUpcard)];
+        return action == HIT || action == DOUBLE_OR_HIT || action == SURRENDER_OR_HIT;
+    }
+
+    @Override
+    public int decide(int total, boolean soft, int pair, int dealerUpcard, int options) {
+        if (pair >= 0 && (options & CAN_SPLIT) != 0 && splits[pair * Cards.VALUE_CLASSES + dealerUpcard]) {
+            return BotStrategy.SPLIT;
+        }
+        if (total >= TOTALS) return BotStrategy.STAND;
+        switch (table[index(soft, total, dealerUpcard)]) {
+            case HIT:
+                return BotStrategy.HIT;
+            case DOUBLE_OR_HIT:
+                return (options & CAN_DOUBLE) != 0 ? BotStrategy.DOUBLE : BotStrategy.HIT;
+            case DOUBLE_OR_STAND:
+                return (options & CAN_DOUBLE) != 0 ? BotStrategy.DOUBLE : BotStrategy.STAND;
+            case SURRENDER_OR_HIT:
+                return (options & CAN_SURRENDER) != 0 ? BotStrategy.SURRENDER : BotStrategy.HIT;
+            default:
+                return BotStrategy.STAND;
+        }
+    }
+
+    private static int index(boolean soft, int total, int dealerUpcard) {
+        return ((soft ? TOTALS : 0) + total) * Cards.VALUE_CLASSES + dealerUpcard;
+    }
+}
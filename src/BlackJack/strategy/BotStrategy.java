@@ -0,0 +1,61 @@
+package BlackJack.strategy;
+
+import BlackJack.CardCounter;
+
+/**
+ * Strategia di gioco di un bot (o del giocatore nelle simulazioni).
+ * Una strategia riceve solo valori primitivi, così che la decisione non crei oggetti
+ * e non rallenti il ciclo di simulazione.
+ */
+public interface BotStrategy {
+
+    // Azioni restituite da decide
+    int STAND = 0;
+    int HIT = 1;
+    int DOUBLE = 2;
+    int SPLIT = 3;
+    int SURRENDER = 4;
+
+    // Opzioni consentite dalle regole per la mano corrente, combinate in una maschera di bit
+    int CAN_DOUBLE = 1;
+    int CAN_SPLIT = 2;
+    int CAN_SURRENDER = 4;
+
+    /**
+     * Decide se chiedere un'altra carta.
+     * @param total Il totale della mano, con gli assi già ridotti.
+     * @param soft true se la mano contiene un asso contato come 11.
+     * @param dealerUpcard La classe di valore della carta scoperta del dealer (0 = asso, 1..8 = da 2 a 9, 9 = carte da 10).
+     * @return true per chiedere carta, false per stare.
+     */
+    boolean hit(int total, boolean soft, int dealerUpcard);
+
+    /**
+     * Sceglie l'azione da giocare tra quelle consentite.
+     * Per default la strategia si limita a carta/stai secondo {@link #hit(int, boolean, int)}.
+     * @param total Il totale della mano, con gli assi già ridotti.
+     * @param soft true se la mano contiene un asso contato come 11.
+     * @param pair La classe di valore della coppia se la mano è divisibile, altrimenti -1.
+     * @param dealerUpcard La classe di valore della carta scoperta del dealer.
+     * @param options Le opzioni consentite ({@link #CAN_DOUBLE}, {@link #CAN_SPLIT}, {@link #CAN_SURRENDER}).
+     * @return L'azione da giocare ({@link #STAND}, {@link #HIT}, {@link #DOUBLE}, {@link #SPLIT} o {@link #SURRENDER}).
+     */
+    default int decide(int total, boolean soft, int pair, int dealerUpcard, int options) {
+        return hit(total, soft, dealerUpcard) ? HIT : STAND;
+    }
+
+    /**
+     * Sceglie l'azione da giocare conoscendo il conteggio delle carte viste.
+     * Per default il conteggio viene ignorato e si usa {@link #decide(int, boolean, int, int, int)}.
+     * @param total Il totale della mano, con gli assi già ridotti.
+     * @param soft true se la mano contiene un asso contato come 11.
+     * @param pair La classe di valore della coppia se la mano è divisibile, altrimenti -1.
+     * @param dealerUpcard La classe di valore della carta scoperta del dealer.
+     * @param options Le opzioni consentite.
+     * @param counter Il conteggio del sabot, da leggere senza modificarlo.
+     * @return L'azione da giocare.
+     */
+    default int decide(int total, boolean soft, int pair, int dealerUpcard, int options, CardCounter counter) {
+        return decide(total, soft, pair, dealerUpcard, options);
+    }
+}
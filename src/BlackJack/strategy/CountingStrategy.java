@@ -0,0 +1,72 @@
+package BlackJack.strategy;
+
+import BlackJack.CardCounter;
+
+/**
+ * Strategia di base con le deviazioni più redditizie secondo il conteggio vero Hi-Lo
+ * (gli indici "Illustrious 18" per carta, stai e raddoppio; assicurazione, divisione dei dieci e resa esclusi).
+ * Ogni deviazione confronta il conteggio vero con un indice: a conteggio uguale o superiore
+ * si gioca l'azione della deviazione, altrimenti quella della strategia di base.
+ */
+public class CountingStrategy extends BasicStrategy {
+
+    @Override
+    public int decide(int total, boolean soft, int pair, int dealerUpcard, int options, CardCounter counter) {
+        if (!soft && pair < 0) {
+            double tc = counter.getTrueCount(CardCounter.HI_LO);
+            int deviation = deviation(total, dealerUpcard, tc, options);
+            if (deviation >= 0) {
+                return deviation;
+            }
+        }
+        return decide(total, soft, pair, dealerUpcard, options);
+    }
+
+    /**
+     * Restituisce l'azione di una deviazione dalla strategia di base per una mano dura.
+     * @param total Il totale della mano.
+     * @param up La classe di valore della carta scoperta del dealer (0 = asso, 9 = carte da 10).
+     * @param tc Il conteggio vero Hi-Lo.
+     * @param options Le opzioni consentite.
+     * @return L'azione della deviazione, o -1 se non c'è deviazione.
+     */
+    private static int deviation(int total, int up, double tc, int options) {
+        boolean canDouble = (options & CAN_DOUBLE) != 0;
+        // Con la resa consentita 15 e 16 seguono la strategia di base, che si arrende
+        if ((total == 15 || total == 16) && (options & CAN_SURRENDER) != 0) {
+            return -1;
+        }
+        switch (total) {
+            case 16:
+                if (up == 9) return tc >= 0 ? STAND : HIT;
+                if (up == 8) return tc >= 5 ? STAND : HIT;
+                return -1;
+            case 15:
+                if (up == 9) return tc >= 4 ? STAND : HIT;
+                return -1;
+            case 13:
+                if (up == 1) return tc >= -1 ? STAND : HIT;
+                if (up == 2) return tc >= -2 ? STAND : HIT;
+                return -1;
+            case 12:
+                if (up == 1) return tc >= 3 ? STAND : HIT;
+                if (up == 2) return tc >= 2 ? STAND : HIT;
+                if (up == 3) return tc >= 0 ? STAND : HIT;
+                if (up == 4) return tc >= -2 ? STAND : HIT;
+                if (up == 5) return tc >= -1 ? STAND : HIT;
+                return -1;
+            case 11:
+                if (up == 0 && canDouble) return tc >= 1 ? DOUBLE : HIT;
+                return -1;
+            case 10:
+                if ((up == 9 || up == 0) && canDouble) return tc >= 4 ? DOUBLE : HIT;
+                return -1;
+            case 9:
+                if (up == 1 && canDouble) return tc >= 1 ? DOUBLE : HIT;
+                if (up == 6 && canDouble) return tc >= 3 ? DOUBLE : HIT;
+                return -1;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package BlackJack.strategy;
+
+import BlackJack.Model;
+
+/**
+ * Strategia che imita il dealer: chiede carta finché il totale è inferiore a una soglia.
+ * Con la soglia predefinita di 17 è la regola originale dei bot.
+ */
+public class DealerMimicStrategy implements BotStrategy {
+
+    private final int standOn;
+
+    /**
+     * Costruttore con la soglia del dealer (17).
+     */
+    public DealerMimicStrategy() {
+        this(Model.DEALER_STAND);
+    }
+
+    /**
+     * Costruttore.
+     * @param standOn Il totale a partire dal quale la strategia sta.
+     */
+    public DealerMimicStrategy(int standOn) {
+        this.standOn = standOn;
+    }
+
+    @Override
+    public boolean hit(int total, boolean soft, int dealerUpcard) {
+        return total < standOn;
+    }
+}
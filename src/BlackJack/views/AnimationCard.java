@@ -1,11 +1,9 @@
 package BlackJack.views;
 
-import javax.swing.*;
-
 import BlackJack.Model;
 
 import java.awt.*;
-import java.awt.geom.AffineTransform;
+import java.util.List;
 
 /**
  * Classe astratta che rappresenta una carta animata nel gioco di BlackJack.
@@ -19,6 +17,10 @@ public abstract class AnimationCard {
     protected float targetX, targetY;
     // Indica se la carta è visibile o meno.
     protected boolean visible;
+    // Durata dello spostamento verso un nuovo target, in millisecondi.
+    public static final int MOVE_DURATION = 450;
+    // Interpolazione a tempo dello spostamento in corso.
+    private final Tween tween = new Tween();
 
     /**
      * Costruttore della classe AnimationCard.
@@ -38,22 +40,80 @@ public abstract class AnimationCard {
 
     /**
      * Imposta le coordinate target a cui la carta dovrebbe muoversi.
+     * Se il target è già quello in corso la chiamata non ha effetto, quindi si può ripetere a ogni fotogramma.
      * 
      * @param x La coordinata x target.
      * @param y La coordinata y target.
      */
     public void setTarget(float x, float y) {
+        setTarget(x, y, null);
+    }
+
+    /**
+     * Imposta le coordinate target e avvia lo spostamento dalla posizione attuale,
+     * con durata fissa ({@link #MOVE_DURATION}) e arrivo rallentato.
+     * 
+     * @param x La coordinata x target.
+     * @param y La coordinata y target.
+     * @param onArrival L'azione da eseguire quando la carta arriva sul target, o null.
+     */
+    public void setTarget(float x, float y, Runnable onArrival) {
+        boolean sameTarget = x == targetX && y == targetY;
+        if (sameTarget && onArrival == null && (tween.isRunning() || (this.x == x && this.y == y))) {
+            return;
+        }
         this.targetX = x;
         this.targetY = y;
+        if (this.x == x && this.y == y) {
+            tween.cancel();
+            if (onArrival != null) onArrival.run();
+        } else {
+            tween.start(this.x, this.y, x, y, MOVE_DURATION, Easing.EASE_OUT_CUBIC, onArrival);
+        }
     }
 
     /**
-     * Aggiorna la posizione attuale della carta avvicinandola alla posizione target.
-     * La velocità di movimento dipende dalla distanza dalla posizione target.
+     * Aggiorna la posizione attuale della carta in base al tempo trascorso dall'inizio dello spostamento,
+     * indipendentemente da quante volte viene chiamato: allo scadere della durata la carta è esattamente sul target.
      */
     public void update() {
-        x += (targetX - x) * 0.1f;
-        y += (targetY - y) * 0.1f;
+        if (tween.isRunning()) {
+            tween.update();
+            x = tween.getX();
+            y = tween.getY();
+        }
+    }
+
+    /**
+     * Verifica se la carta è ferma sulla posizione target.
+     * 
+     * @return true se la carta ha raggiunto il target.
+     */
+    public boolean isSettled() {
+        return !tween.isRunning() && x == targetX && y == targetY;
+    }
+
+    /**
+     * Verifica se tutte le carte dell'elenco sono ferme sulla posizione target.
+     * 
+     * @param cards Le carte da controllare.
+     * @return true se nessuna carta è ancora in movimento.
+     */
+    public static boolean allSettled(List<? extends AnimationCard> cards) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (!cards.get(i).isSettled()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sostituisce la carta mostrata, mantenendo posizione e animazione.
+     * Usato quando una divisione cambia l'ordine delle carte di un posto.
+     * 
+     * @param card La nuova carta del modello.
+     */
+    public void setCard(Model.Card card) {
+        this.card = card;
     }
 
     /**
@@ -66,15 +126,27 @@ public abstract class AnimationCard {
     }
 
     /**
-     * Restituisce l'immagine della carta.
+     * Restituisce l'immagine della carta dalla cache condivisa, già scalata alla dimensione indicata.
      * 
      * @param faceUp Se true, l'immagine della carta sarà quella della faccia; 
      *               se false, verrà mostrato il retro della carta.
+     * @param size La dimensione ({@link CardSprites#LARGE} o {@link CardSprites#SMALL}).
      * @return L'immagine della carta.
      */
-    protected Image getCardImage(boolean faceUp) {
-        String imagePath = faceUp ? card.getImagePath() : "/BlackJack/resources/images/cards/BACK.png";
-        return new ImageIcon(getClass().getResource(imagePath)).getImage();
+    protected Image getCardImage(boolean faceUp, int size) {
+        return CardSprites.getInstance().get(faceUp ? card.getCode() : CardSprites.BACK, size);
+    }
+
+    /**
+     * Disegna la variante già ruotata della carta, con una copia 1:1 senza trasformazioni.
+     * 
+     * @param g L'oggetto Graphics su cui disegnare.
+     * @param faceUp Se true, la carta viene disegnata con la faccia in su; altrimenti, con la faccia in giù.
+     * @param rotation Le varianti ruotate da usare.
+     */
+    protected void drawRotated(Graphics g, boolean faceUp, CardSprites.Rotation rotation) {
+        Image cardImage = rotation.get(faceUp ? card.getCode() : CardSprites.BACK);
+        g.drawImage(cardImage, (int) x + rotation.getOffsetX(), (int) y + rotation.getOffsetY(), null);
     }
 
     /**
@@ -89,10 +161,6 @@ public abstract class AnimationCard {
      * Sottoclasse che rappresenta una carta animata con dimensioni predefinite.
      */
     public static class AnimatedCard1 extends AnimationCard {
-        // Larghezza della carta.
-        private static final int CARD_WIDTH = 110;
-        // Altezza della carta.
-        private static final int CARD_HEIGHT = 154;
 
         /**
          * Costruttore della classe AnimatedCard1.
@@ -114,8 +182,8 @@ public abstract class AnimationCard {
         @Override
         public void draw(Graphics g, boolean faceUp) {
             if (!visible) return;
-            Image cardImage = getCardImage(faceUp);
-            g.drawImage(cardImage, (int) x, (int) y, CARD_WIDTH, CARD_HEIGHT, null);
+            Image cardImage = getCardImage(faceUp, CardSprites.LARGE);
+            g.drawImage(cardImage, (int) x, (int) y, null);
         }
     }
 
@@ -123,12 +191,10 @@ public abstract class AnimationCard {
      * Sottoclasse che rappresenta una carta animata più piccola e che può essere ruotata.
      */
     public static class AnimatedCard2 extends AnimationCard {
-        // Larghezza della carta.
-        private static final int CARD_WIDTH = 78;
-        // Altezza della carta.
-        private static final int CARD_HEIGHT = 110;
         // Indica se la carta deve essere ruotata di 90 gradi.
         private boolean rotated;
+        // Varianti delle carte già ruotate di 90 gradi (null se la carta non è ruotata).
+        private final CardSprites.Rotation rotation;
 
         /**
          * Costruttore della classe AnimatedCard2.
@@ -141,6 +207,7 @@ public abstract class AnimationCard {
         public AnimatedCard2(Model.Card card, float x, float y, boolean rotated) {
             super(card, x, y);
             this.rotated = rotated;
+            this.rotation = rotated ? CardSprites.getInstance().getRotation(CardSprites.SMALL, 90) : null;
         }
 
         /**
@@ -152,16 +219,10 @@ public abstract class AnimationCard {
         @Override
         public void draw(Graphics g, boolean faceUp) {
             if (!visible) return;
-            Image cardImage = getCardImage(faceUp);
-            Graphics2D g2d = (Graphics2D) g;
-
             if (rotated) {
-                AffineTransform originalTransform = g2d.getTransform();
-                g2d.rotate(Math.toRadians(90), x + CARD_HEIGHT / 2, y + CARD_WIDTH / 2);
-                g2d.drawImage(cardImage, (int) x, (int) y, CARD_WIDTH, CARD_HEIGHT, null);
-                g2d.setTransform(originalTransform);
+                drawRotated(g, faceUp, rotation);
             } else {
-                g2d.drawImage(cardImage, (int) x, (int) y, CARD_WIDTH, CARD_HEIGHT, null);
+                g.drawImage(getCardImage(faceUp, CardSprites.SMALL), (int) x, (int) y, null);
             }
         }
     }
@@ -170,14 +231,12 @@ public abstract class AnimationCard {
      * Sottoclasse che rappresenta una carta animata che può essere ruotata di un angolo arbitrario.
      */
     public static class AnimatedCard3 extends AnimationCard {
-        // Larghezza della carta.
-        private static final int CARD_WIDTH = 78;
-        // Altezza della carta.
-        private static final int CARD_HEIGHT = 110;
         // Indica se la carta deve essere ruotata.
         private boolean rotated;
         // Angolo di rotazione della carta in gradi.
         private int rotationDegrees;
+        // Varianti delle carte già ruotate dell'angolo indicato (null se la carta non è ruotata).
+        private final CardSprites.Rotation rotation;
 
         /**
          * Costruttore della classe AnimatedCard3.
@@ -192,6 +251,7 @@ public abstract class AnimationCard {
             super(card, x, y);
             this.rotated = rotated;
             this.rotationDegrees = rotationDegrees;
+            this.rotation = rotated ? CardSprites.getInstance().getRotation(CardSprites.SMALL, rotationDegrees) : null;
         }
 
         /**
@@ -203,16 +263,10 @@ public abstract class AnimationCard {
         @Override
         public void draw(Graphics g, boolean faceUp) {
             if (!visible) return;
-            Image cardImage = getCardImage(faceUp);
-            Graphics2D g2d = (Graphics2D) g;
-
             if (rotated) {
-                AffineTransform originalTransform = g2d.getTransform();
-                g2d.rotate(Math.toRadians(rotationDegrees), x + CARD_HEIGHT / 2, y + CARD_WIDTH / 2);
-                g2d.drawImage(cardImage, (int) x, (int) y, CARD_WIDTH, CARD_HEIGHT, null);
-                g2d.setTransform(originalTransform);
+                drawRotated(g, faceUp, rotation);
             } else {
-                g2d.drawImage(cardImage, (int) x, (int) y, CARD_WIDTH, CARD_HEIGHT, null);
+                g.drawImage(getCardImage(faceUp, CardSprites.SMALL), (int) x, (int) y, null);
             }
         }
     }
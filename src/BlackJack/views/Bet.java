@@ -2,10 +2,8 @@ package BlackJack.views;
 
 import BlackJack.*;
 import javax.swing.*;
-import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.net.URL;
 import java.util.*;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -21,6 +19,9 @@ public class Bet extends JPanel {
     // Variabile che rappresenta la puntata corrente
     public int puntata = 0;
 
+    // Suggerimento con il conteggio vero del sabot (null = nessun suggerimento)
+    private String countHint;
+
     // Bottone per piazzare la puntata
     private JButton betButton;
 
@@ -44,16 +45,14 @@ public class Bet extends JPanel {
     // Costanti per il diametro del cerchio e l'animazione delle chip
     private static final int CIRCLE_DIAMETER = 50;
     private static final int ANIMATION_DURATION = 300; // Durata in millisecondi
-    private static final int FRAMES_PER_SECOND = 150;
-    private static final int FRAME_DELAY = 1000 / FRAMES_PER_SECOND;
 
     // Variabili per gestire l'animazione delle chip
     private int targetX;
     private int targetY = JBlackJack.BOARD_HEIGHT * 2 / 5 - CIRCLE_DIAMETER / 2;
     private boolean isAnimating = false;
 
-    // Timer per l'animazione delle chip
-    private Timer animationTimer;
+    // Animazione delle chip, fatta avanzare dal temporizzatore condiviso
+    private final FrameScheduler.Animated chipAnimation = this::animateChips;
     
     // Lista di cerchi in movimento durante l'animazione delle chip
     private java.util.List<MovingCircle> circles = new ArrayList<>();
@@ -85,16 +84,14 @@ public class Bet extends JPanel {
     }
 
     /**
-     * Carica le immagini delle chip dai file di risorse e le scala alle dimensioni appropriate.
+     * Prende le immagini delle chip dall'atlante, alle dimensioni appropriate.
      */
     private void loadChipImages() {
         int[] values = {1, 5, 25, 100, 500, 1000};
-        Arrays.stream(values).forEach(value -> {
-            URL chipImageURL = getClass().getResource("/BlackJack/resources/images/chips/" + value + ".png");
-            ImageIcon chipIcon = new ImageIcon(chipImageURL);
-            Image chipImage = chipIcon.getImage().getScaledInstance(CHIP_WIDTH, CHIP_HEIGHT, Image.SCALE_SMOOTH);
-            chipImages.put(value, chipImage);
-        });
+        // Si arriva alle puntate solo dai pulsanti della Home, abilitati ad atlante caricato: qui non si attende
+        SpriteAtlas atlas = SpriteAtlas.getInstance();
+        Arrays.stream(values).forEach(value ->
+                chipImages.put(value, atlas.getScaledImage("chips/" + value, CHIP_WIDTH, CHIP_HEIGHT)));
     }
 
     /**
@@ -158,23 +155,30 @@ public class Bet extends JPanel {
         Image chipImage = chipImages.get(chipValue);
         int startX = START_X + (CHIP_WIDTH + SPACE_BETWEEN_CHIPS) * getChipIndex(chipValue);
 
-        MovingCircle newCircle = new MovingCircle(startX, START_Y, targetX, targetY, ANIMATION_DURATION / FRAME_DELAY + 1, chipImage);
+        MovingCircle newCircle = new MovingCircle(startX, START_Y, targetX, targetY, ANIMATION_DURATION, chipImage, () -> {
+            isAnimating = false;
+            enableButtonForChipValue(chipValue);
+        });
         circles.add(newCircle);
 
         disableButtonForChipValue(chipValue);
+        FrameScheduler.getInstance().start(chipAnimation);
+    }
 
-        // Timer per l'animazione della chip
-        animationTimer = new Timer(FRAME_DELAY, evt -> {
-            boolean allCirclesFinished = circles.stream().allMatch(MovingCircle::isFinished);
-            circles.forEach(MovingCircle::update);
-            repaint();
-            if (allCirclesFinished) {
-                animationTimer.stop();
-                isAnimating = false;
-                enableButtonForChipValue(chipValue);
-            }
-        });
-        animationTimer.start();
+    /**
+     * Porta le chip in movimento alla posizione dell'istante corrente; all'arrivo di ogni chip
+     * il suo pulsante viene riabilitato.
+     * 
+     * @return true finché qualche chip è ancora in movimento.
+     */
+    private boolean animateChips() {
+        boolean moving = false;
+        for (MovingCircle circle : circles) {
+            circle.update();
+            moving |= !circle.isFinished();
+        }
+        repaint();
+        return moving;
     }
 
     /**
@@ -241,10 +245,24 @@ public class Bet extends JPanel {
         g.setFont(new Font("Arial", Font.PLAIN, 30));
         g.drawString("Importo = " + importo, 60, 90);
         g.drawString("Puntata = " + puntata, 60, 135);
+        if (countHint != null) {
+            g.setFont(new Font("Arial", Font.PLAIN, 20));
+            g.drawString(countHint, 60, 175);
+        }
 
         circles.forEach(circle -> g.drawImage(circle.getImage(), circle.getX(), circle.getY(), this));
     }
 
+    /**
+     * Mostra come suggerimento il conteggio vero Hi-Lo con cui inizierà la prossima mano.
+     * 
+     * @param trueCount Il conteggio vero.
+     */
+    public void setCountHint(double trueCount) {
+        countHint = String.format("Conteggio vero (Hi-Lo) = %+.1f", trueCount);
+        repaint();
+    }
+
     /**
      * Aggiunge un listener al bottone della puntata.
      * 
@@ -303,45 +321,37 @@ public class Bet extends JPanel {
      * Classe interna MovingCircle che rappresenta una chip in movimento durante l'animazione.
      */
     private class MovingCircle {
-        private final int startX, startY;
-        private final int targetX, targetY;
+        private final Tween tween = new Tween();
         private int x, y;
-        private final int totalFrames;
-        private int currentFrame;
         private final Image chipImage;
 
         /**
          * Costruttore della classe MovingCircle.
-         * Inizializza la posizione iniziale, la posizione finale, il numero di frame e l'immagine della chip.
+         * Inizializza la posizione iniziale e l'immagine della chip e avvia lo spostamento verso la posizione finale.
          * 
          * @param startX La posizione iniziale sull'asse X.
          * @param startY La posizione iniziale sull'asse Y.
          * @param targetX La posizione finale sull'asse X.
          * @param targetY La posizione finale sull'asse Y.
-         * @param totalFrames Il numero totale di frame per l'animazione.
+         * @param duration La durata dell'animazione in millisecondi.
          * @param chipImage L'immagine della chip da animare.
+         * @param onArrival L'azione da eseguire una sola volta all'arrivo.
          */
-        public MovingCircle(int startX, int startY, int targetX, int targetY, int totalFrames, Image chipImage) {
-            this.startX = startX;
-            this.startY = startY;
-            this.targetX = targetX;
-            this.targetY = targetY;
-            this.totalFrames = totalFrames;
-            this.currentFrame = 0;
+        public MovingCircle(int startX, int startY, int targetX, int targetY, int duration, Image chipImage, Runnable onArrival) {
             this.x = startX;
             this.y = startY;
             this.chipImage = chipImage;
+            tween.start(startX, startY, targetX, targetY, duration, Easing.EASE_IN_OUT_CUBIC, onArrival);
         }
 
         /**
-         * Aggiorna la posizione del cerchio in base al frame corrente.
+         * Aggiorna la posizione del cerchio in base al tempo trascorso dall'inizio dell'animazione.
          */
         public void update() {
-            if (currentFrame < totalFrames) {
-                double t = (double) currentFrame / (totalFrames - 1);
-                x = (int) (startX + t * (targetX - startX));
-                y = (int) (startY + t * (targetY - startY));
-                currentFrame++;
+            if (tween.isRunning()) {
+                tween.update();
+                x = Math.round(tween.getX());
+                y = Math.round(tween.getY());
             }
         }
 
@@ -351,7 +361,7 @@ public class Bet extends JPanel {
          * @return true se l'animazione è terminata, false altrimenti.
          */
         public boolean isFinished() {
-            return currentFrame >= totalFrames;
+            return !tween.isRunning();
         }
 
         /**
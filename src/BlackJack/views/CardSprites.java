@@ -0,0 +1,155 @@
+package BlackJack.views;
+
+import BlackJack.Cards;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache delle immagini delle carte, condivisa da tutto il programma.
+ * Le 52 facce e il retro vengono presi dall'{@link SpriteAtlas} una sola volta, alla prima richiesta, e conservati
+ * come immagini compatibili con lo schermo già scalate alle dimensioni usate dalle carte animate:
+ * il disegno di una carta diventa una copia 1:1, senza decodifica, scalatura né allocazioni.
+ * Per le carte ruotate dei bot ci sono varianti già ruotate per (carta, angolo, dimensione),
+ * create alla prima richiesta, così anche quelle si disegnano senza trasformazioni.
+ * Le immagini si usano dal thread della GUI.
+ */
+public class CardSprites {
+
+    // Dimensioni disponibili: grande (110x154) per il giocatore e il dealer, piccola (78x110) per i bot
+    public static final int LARGE = 0;
+    public static final int SMALL = 1;
+    public static final int SIZES = 2;
+
+    // Larghezza e altezza di ciascuna dimensione
+    private static final int[] WIDTHS = { 110, 78 };
+    private static final int[] HEIGHTS = { 154, 110 };
+
+    // Indice del retro, dopo le 52 facce
+    public static final int BACK = Cards.DECK_SIZE;
+
+    // Preparata dal thread che carica l'atlante, letta dal thread della GUI
+    private static volatile CardSprites instance;
+
+    // Immagini per dimensione e codice della carta (BACK per il retro)
+    private final BufferedImage[][] sprites = new BufferedImage[SIZES][Cards.DECK_SIZE + 1];
+
+    // Varianti ruotate, per angolo (in gradi, tra 0 e 359) e dimensione
+    private final Map<Integer, Rotation> rotations = new HashMap<>();
+
+    /**
+     * Restituisce la cache, scalando le immagini alla prima chiamata se l'atlante non l'ha già preparata.
+     * @return La cache condivisa.
+     */
+    public static CardSprites getInstance() {
+        if (instance == null)
+            instance = new CardSprites(SpriteAtlas.getInstance());
+        return instance;
+    }
+
+    /**
+     * Prepara la cache dalle immagini dell'atlante appena caricato, fuori dal thread della GUI.
+     * @param atlas L'atlante.
+     */
+    static void prepare(SpriteAtlas atlas) {
+        instance = new CardSprites(atlas);
+    }
+
+    private CardSprites(SpriteAtlas atlas) {
+        for (int code = 0; code <= BACK; code++) {
+            BufferedImage source = atlas.getImage("cards/" + (code == BACK ? "BACK" : Cards.name(code)));
+            for (int size = 0; size < SIZES; size++) {
+                sprites[size][code] = SpriteAtlas.scale(source, WIDTHS[size], HEIGHTS[size]);
+            }
+        }
+    }
+
+    /**
+     * Restituisce l'immagine di una carta.
+     * @param code Il codice della carta, o {@link #BACK} per il retro.
+     * @param size La dimensione ({@link #LARGE} o {@link #SMALL}).
+     * @return L'immagine già scalata.
+     */
+    public BufferedImage get(int code, int size) {
+        return sprites[size][code];
+    }
+
+    /**
+     * Restituisce le varianti ruotate di tutte le carte per un angolo e una dimensione.
+     * Da chiamare una volta per carta animata, non a ogni disegno.
+     * @param size La dimensione ({@link #LARGE} o {@link #SMALL}).
+     * @param degrees L'angolo di rotazione in gradi.
+     * @return Le varianti ruotate.
+     */
+    public Rotation getRotation(int size, int degrees) {
+        int angle = Math.floorMod(degrees, 360);
+        return rotations.computeIfAbsent(angle * SIZES + size, key -> new Rotation(size, angle));
+    }
+
+    /**
+     * Varianti ruotate delle carte per un angolo e una dimensione. La rotazione avviene
+     * attorno al punto (altezza / 2, larghezza / 2) della carta, come nel disegno delle carte dei bot;
+     * ogni variante è grande quanto il rettangolo che contiene la carta ruotata e va disegnata
+     * spostata di ({@link #getOffsetX()}, {@link #getOffsetY()}) rispetto alla posizione della carta.
+     */
+    public class Rotation {
+        private final int size;
+        private final double theta;
+        private final int offsetX, offsetY;
+        private final int width, height;
+        private final BufferedImage[] images = new BufferedImage[Cards.DECK_SIZE + 1];
+
+        private Rotation(int size, int degrees) {
+            this.size = size;
+            this.theta = Math.toRadians(degrees);
+            int w = WIDTHS[size], h = HEIGHTS[size];
+            AffineTransform rotation = AffineTransform.getRotateInstance(theta, h / 2, w / 2);
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int corner = 0; corner < 4; corner++) {
+                Point2D p = rotation.transform(new Point2D.Double(corner % 2 * w, corner / 2 * h), null);
+                minX = Math.min(minX, p.getX());
+                minY = Math.min(minY, p.getY());
+                maxX = Math.max(maxX, p.getX());
+                maxY = Math.max(maxY, p.getY());
+            }
+            // Arrotonda ai pixel interi, con tolleranza per gli errori di calcolo sugli angoli retti
+            offsetX = (int) Math.floor(minX + 1e-6);
+            offsetY = (int) Math.floor(minY + 1e-6);
+            width = (int) Math.ceil(maxX - 1e-6) - offsetX;
+            height = (int) Math.ceil(maxY - 1e-6) - offsetY;
+        }
+
+        /**
+         * Restituisce la variante ruotata di una carta, creandola alla prima richiesta.
+         * @param code Il codice della carta, o {@link #BACK} per il retro.
+         * @return L'immagine ruotata.
+         */
+        public BufferedImage get(int code) {
+            BufferedImage image = images[code];
+            if (image == null) {
+                image = SpriteAtlas.createImage(width, height);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.translate(-offsetX, -offsetY);
+                g.rotate(theta, HEIGHTS[size] / 2, WIDTHS[size] / 2);
+                g.drawImage(sprites[size][code], 0, 0, null);
+                g.dispose();
+                images[code] = image;
+            }
+            return image;
+        }
+
+        // Metodi getter
+        public int getOffsetX() { return offsetX; }
+        public int getOffsetY() { return offsetY; }
+    }
+
+    // Dimensioni in pixel
+    public static int getWidth(int size) { return WIDTHS[size]; }
+    public static int getHeight(int size) { return HEIGHTS[size]; }
+}
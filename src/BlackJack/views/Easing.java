@@ -0,0 +1,42 @@
+package BlackJack.views;
+
+/**
+ * Curve di andamento delle animazioni: trasformano la frazione di tempo trascorsa (da 0 a 1)
+ * nella frazione di percorso compiuta (da 0 a 1, con gli estremi esatti).
+ */
+public enum Easing {
+
+    // Velocità costante
+    LINEAR {
+        @Override
+        public double apply(double t) {
+            return t;
+        }
+    },
+    // Partenza veloce e arrivo rallentato, come una carta che scivola sul tavolo
+    EASE_OUT_CUBIC {
+        @Override
+        public double apply(double t) {
+            double u = 1 - t;
+            return 1 - u * u * u;
+        }
+    },
+    // Partenza e arrivo rallentati
+    EASE_IN_OUT_CUBIC {
+        @Override
+        public double apply(double t) {
+            if (t < 0.5) {
+                return 4 * t * t * t;
+            }
+            double u = -2 * t + 2;
+            return 1 - u * u * u / 2;
+        }
+    };
+
+    /**
+     * Applica la curva.
+     * @param t La frazione di tempo trascorsa, da 0 a 1.
+     * @return La frazione di percorso compiuta, da 0 a 1.
+     */
+    public abstract double apply(double t);
+}
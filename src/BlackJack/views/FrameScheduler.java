@@ -0,0 +1,86 @@
+package BlackJack.views;
+
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Temporizzatore unico delle animazioni di tutte le viste.
+ * Un componente animato si registra con {@link #start(Animated)} quando ha qualcosa da muovere
+ * e a ogni fotogramma riceve {@link Animated#tick()}; quando restituisce false viene tolto dall'elenco.
+ * Il timer gira solo finché c'è almeno un'animazione in corso e riparte alla registrazione successiva,
+ * così un tavolo fermo non consuma CPU. Si usa dal thread della GUI.
+ */
+public class FrameScheduler {
+
+    // Intervallo tra due fotogrammi in millisecondi (circa 60 al secondo)
+    public static final int FRAME_DELAY = 16;
+
+    private static FrameScheduler instance;
+
+    private final Timer timer;
+    private final List<Animated> animations = new ArrayList<>();
+
+    /**
+     * Un componente con un'animazione da far avanzare a ogni fotogramma.
+     */
+    public interface Animated {
+        /**
+         * Fa avanzare l'animazione di un fotogramma e ridisegna ciò che serve.
+         * @return true se l'animazione non è ancora conclusa.
+         */
+        boolean tick();
+    }
+
+    /**
+     * Restituisce il temporizzatore condiviso.
+     * @return Il temporizzatore.
+     */
+    public static FrameScheduler getInstance() {
+        if (instance == null)
+            instance = new FrameScheduler();
+        return instance;
+    }
+
+    private FrameScheduler() {
+        timer = new Timer(FRAME_DELAY, e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * Registra un'animazione, se non è già registrata, e avvia il timer se era fermo.
+     * @param animation L'animazione da far avanzare.
+     */
+    public void start(Animated animation) {
+        if (!animations.contains(animation)) {
+            animations.add(animation);
+        }
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Fa avanzare tutte le animazioni registrate, toglie quelle concluse e ferma il timer se non ne restano.
+     */
+    private void tick() {
+        for (int i = 0; i < animations.size(); ) {
+            if (animations.get(i).tick()) {
+                i++;
+            } else {
+                animations.remove(i);
+            }
+        }
+        if (animations.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Verifica se il timer è in funzione.
+     * @return true se c'è almeno un'animazione in corso.
+     */
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+}
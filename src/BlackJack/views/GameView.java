@@ -6,7 +6,7 @@ import java.awt.event.ActionListener;
 
 /**
  * Interfaccia che rappresenta una vista del gioco del BlackJack.
- * Fornisce metodi per ottenere i pulsanti "Hit" e "Stay", 
+ * Fornisce metodi per ottenere i pulsanti "Hit", "Stay", "Double", "Split" e "Surrender",
  * aggiornare la vista con il modello del gioco e gestire gli eventi associati ai pulsanti.
  */
 public interface GameView {
@@ -23,12 +23,37 @@ public interface GameView {
      */
     JButton getStayButton();
 
+    /**
+     * Restituisce il pulsante "Double" (Raddoppia).
+     * @return JButton associato all'azione "Double".
+     */
+    JButton getDoubleButton();
+
+    /**
+     * Restituisce il pulsante "Split" (Dividi).
+     * @return JButton associato all'azione "Split".
+     */
+    JButton getSplitButton();
+
+    /**
+     * Restituisce il pulsante "Surrender" (Arrenditi).
+     * @return JButton associato all'azione "Surrender".
+     */
+    JButton getSurrenderButton();
+
     /**
      * Aggiorna la vista con i dati forniti dal modello del gioco.
      * @param model Il modello del gioco da visualizzare.
      */
     void updateView(Model model);
 
+    /**
+     * Mostra lo stato del modello durante il turno del giocatore, senza chiudere la partita
+     * anche se il pulsante Stay è disabilitato (come quando si rivede una partita).
+     * @param model Il modello del gioco da visualizzare.
+     */
+    void showTurn(Model model);
+
     /**
      * Aggiunge un listener al pulsante "Hit" per gestire l'evento di pressione del pulsante.
      * @param listener ActionListener da associare al pulsante "Hit".
@@ -45,6 +70,30 @@ public interface GameView {
         getStayButton().addActionListener(listener);
     }
 
+    /**
+     * Aggiunge un listener al pulsante "Double" per gestire l'evento di pressione del pulsante.
+     * @param listener ActionListener da associare al pulsante "Double".
+     */
+    default public void addDoubleButtonListener(ActionListener listener) {
+        getDoubleButton().addActionListener(listener);
+    }
+
+    /**
+     * Aggiunge un listener al pulsante "Split" per gestire l'evento di pressione del pulsante.
+     * @param listener ActionListener da associare al pulsante "Split".
+     */
+    default public void addSplitButtonListener(ActionListener listener) {
+        getSplitButton().addActionListener(listener);
+    }
+
+    /**
+     * Aggiunge un listener al pulsante "Surrender" per gestire l'evento di pressione del pulsante.
+     * @param listener ActionListener da associare al pulsante "Surrender".
+     */
+    default public void addSurrenderButtonListener(ActionListener listener) {
+        getSurrenderButton().addActionListener(listener);
+    }
+
     /**
      * Abilita o disabilita il pulsante "Hit".
      * @param enabled true per abilitare il pulsante, false per disabilitarlo.
@@ -61,6 +110,30 @@ public interface GameView {
         getStayButton().setEnabled(enabled);
     }
 
+    /**
+     * Abilita o disabilita il pulsante "Double".
+     * @param enabled true per abilitare il pulsante, false per disabilitarlo.
+     */
+    default public void setDoubleButtonEnabled(boolean enabled) {
+        getDoubleButton().setEnabled(enabled);
+    }
+
+    /**
+     * Abilita o disabilita il pulsante "Split".
+     * @param enabled true per abilitare il pulsante, false per disabilitarlo.
+     */
+    default public void setSplitButtonEnabled(boolean enabled) {
+        getSplitButton().setEnabled(enabled);
+    }
+
+    /**
+     * Abilita o disabilita il pulsante "Surrender".
+     * @param enabled true per abilitare il pulsante, false per disabilitarlo.
+     */
+    default public void setSurrenderButtonEnabled(boolean enabled) {
+        getSurrenderButton().setEnabled(enabled);
+    }
+
     /**
      * Crea un nuovo pulsante con il testo specificato.
      * @param text Il testo da visualizzare sul pulsante.
@@ -9,6 +9,8 @@ import java.awt.event.ActionListener;
 
 /**
  * Schermata Home.
+ * Può essere mostrata prima che l'atlante delle immagini sia caricato: avatar e carte arrivano con
+ * {@link SpriteAtlas#whenLoaded}, e i pulsanti, che portano alle schermate di gioco, si abilitano solo allora.
  */
 public class Home extends JPanel {
 
@@ -19,9 +21,9 @@ public class Home extends JPanel {
     private int drawCount;
     private int importo;
 
-    // Immagini per gli avatar dei bot
-    private Image avatarBot1image;
-    private Image avatarBot2image;
+    // Avatar dei bot
+    private int avatarBot1;
+    private int avatarBot2;
 
     // Variabili di istanza per conteggiare vittorie, sconfitte e pareggi dei bot
     private int winCountBot1;
@@ -32,8 +34,8 @@ public class Home extends JPanel {
     private int defeatCountBot2;
     private int drawCountBot2;
 
-    // Immagine dell'avatar del giocatore
-    private Image avatarImage;
+    // Avatar del giocatore
+    private int avatar;
 
     // Pannelli personalizzati usati nell'interfaccia
     private PanelOne panelOne;
@@ -63,14 +65,14 @@ public class Home extends JPanel {
 
         // Inizializza le variabili di istanza con i parametri passati
         this.nickname = nickname;
-        this.avatarImage = loadAvatarImage(avatar);
+        this.avatar = avatar;
         this.winCount = winCount;
         this.defeatCount = defeatCount;
         this.drawCount = drawCount;
         this.importo = importo;
 
-        this.avatarBot1image = loadAvatarImage(avatarBot1);
-        this.avatarBot2image = loadAvatarImage(avatarBot2);
+        this.avatarBot1 = avatarBot1;
+        this.avatarBot2 = avatarBot2;
         this.winCountBot1 = winCountBot1;
         this.defeatCountBot1 = defeatCountBot1;
         this.drawCountBot1 = drawCountBot1;
@@ -88,15 +90,12 @@ public class Home extends JPanel {
     }
 
     /**
-     * Carica l'immagine dell'avatar in base all'indice passato.
+     * Mostra i dati che servono a riprodurre l'ultima partita giocata e abilita il pulsante per rivederla.
      *
-     * @param avatar L'indice dell'avatar.
-     * @return L'immagine dell'avatar ridimensionata.
+     * @param replayKey La descrizione della partita, o null se non è ancora stata giocata una partita.
      */
-    private Image loadAvatarImage(int avatar) {
-        String imagePath = String.format("/BlackJack/resources/images/avatars/avatar%d.png", avatar);
-        Image image = new ImageIcon(getClass().getResource(imagePath)).getImage();
-        return image.getScaledInstance(144, 210, Image.SCALE_SMOOTH);
+    public void setReplayKey(String replayKey) {
+        panelTwo.setReplayKey(replayKey);
     }
 
     /**
@@ -126,6 +125,24 @@ public class Home extends JPanel {
         panelTwo.addThreePlayerButtonListener(listener);
     }
 
+    /**
+     * Aggiunge un listener al pulsante "Riproduci una partita".
+     *
+     * @param listener L'ActionListener da aggiungere.
+     */
+    public void addReplayButtonListener(ActionListener listener) {
+        panelTwo.addReplayButtonListener(listener);
+    }
+
+    /**
+     * Aggiunge un listener al pulsante "Rivedi l'ultima partita".
+     *
+     * @param listener L'ActionListener da aggiungere.
+     */
+    public void addReviewButtonListener(ActionListener listener) {
+        panelTwo.addReviewButtonListener(listener);
+    }
+
     // Classe interna PanelOne, un pannello che visualizza gli avatar e le statistiche dei giocatori
     class PanelOne extends JPanel {
 
@@ -142,15 +159,15 @@ public class Home extends JPanel {
             Font smallerFont = new Font("Arial", Font.PLAIN, 14);
 
             // Crea e aggiunge i pannelli per l'avatar del giocatore e dei bot
-            JPanel firstAvatarPanel = createAvatarPanel(nickname, avatarImage, winCount, defeatCount, drawCount, firstFont, 120, 170);
+            JPanel firstAvatarPanel = createAvatarPanel(nickname, avatar, winCount, defeatCount, drawCount, firstFont, 120, 170);
             add(firstAvatarPanel);
 
             add(Box.createRigidArea(new Dimension(30, 0)));
 
-            JPanel secondAvatarPanel = createAvatarPanel("Player 2", avatarBot1image, winCountBot1, defeatCountBot1, drawCountBot1, smallerFont, 90, 130);
+            JPanel secondAvatarPanel = createAvatarPanel("Player 2", avatarBot1, winCountBot1, defeatCountBot1, drawCountBot1, smallerFont, 90, 130);
             add(secondAvatarPanel);
 
-            JPanel thirdAvatarPanel = createAvatarPanel("Player 3", avatarBot2image, winCountBot2, defeatCountBot2, drawCountBot2, smallerFont, 90, 130);
+            JPanel thirdAvatarPanel = createAvatarPanel("Player 3", avatarBot2, winCountBot2, defeatCountBot2, drawCountBot2, smallerFont, 90, 130);
             add(thirdAvatarPanel);
         }
 
@@ -158,7 +175,7 @@ public class Home extends JPanel {
          * Crea un pannello che contiene l'avatar di un giocatore o bot e le sue statistiche.
          *
          * @param nickname      Il nickname del giocatore o bot.
-         * @param avatarImage   L'immagine dell'avatar.
+         * @param avatar        L'indice dell'avatar.
          * @param winCount      Numero di vittorie.
          * @param defeatCount   Numero di sconfitte.
          * @param drawCount     Numero di pareggi.
@@ -167,7 +184,7 @@ public class Home extends JPanel {
          * @param avatarHeight  Altezza dell'avatar.
          * @return Un JPanel contenente l'avatar e le statistiche.
          */
-        private JPanel createAvatarPanel(String nickname, Image avatarImage, int winCount, int defeatCount, int drawCount, Font font, int avatarWidth, int avatarHeight) {
+        private JPanel createAvatarPanel(String nickname, int avatar, int winCount, int defeatCount, int drawCount, Font font, int avatarWidth, int avatarHeight) {
             JPanel avatarPanel = new JPanel();
             avatarPanel.setLayout(new BorderLayout());
             avatarPanel.setBackground(JBlackJack.BACKGROUND_COLOR);
@@ -176,11 +193,16 @@ public class Home extends JPanel {
             imagePanel.setLayout(new BoxLayout(imagePanel, BoxLayout.Y_AXIS));
             imagePanel.setBackground(JBlackJack.BACKGROUND_COLOR);
 
-            // Ridimensiona l'immagine dell'avatar e crea un'etichetta per essa
-            Image scaledAvatarImage = avatarImage.getScaledInstance(avatarWidth, avatarHeight, Image.SCALE_SMOOTH);
-            JLabel avatarLabel = new JLabel(new ImageIcon(scaledAvatarImage));
+            // Etichetta per l'avatar, che riceve l'immagine appena l'atlante è caricato
+            JLabel avatarLabel = new JLabel();
             avatarLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 5, 5));
+            Dimension labelSize = new Dimension(avatarWidth + 15, avatarHeight + 15);
+            avatarLabel.setPreferredSize(labelSize);
+            avatarLabel.setMinimumSize(labelSize);
+            avatarLabel.setMaximumSize(labelSize);
             imagePanel.add(avatarLabel);
+            SpriteAtlas.whenLoaded(atlas -> avatarLabel.setIcon(
+                    new ImageIcon(atlas.getScaledImage("avatars/avatar" + avatar, avatarWidth, avatarHeight))));
 
             // Etichetta per il nickname
             JLabel descriptionLabel = new JLabel(nickname);
@@ -218,6 +240,13 @@ public class Home extends JPanel {
         private JButton onePlayerButton;
         private JButton twoPlayerButton;
         private JButton threePlayerButton;
+        private JButton replayButton;
+        private JButton reviewButton;
+        private JLabel replayKeyLabel;
+
+        // true quando l'atlante è caricato e i pulsanti sono abilitati; true se c'è una partita da rivedere
+        private boolean loaded;
+        private boolean reviewAvailable;
 
         /**
          * Costruttore della classe PanelTwo. Configura il layout e aggiunge i componenti al pannello.
@@ -240,27 +269,89 @@ public class Home extends JPanel {
             cardPanel.setOpaque(false);
 
             // Aggiunge i pulsanti delle carte al pannello
-            onePlayerButton = addCard(cardPanel, "/BlackJack/resources/images/cards/A-C.png", "1 Player");
-            twoPlayerButton = addCard(cardPanel, "/BlackJack/resources/images/cards/2-H.png", "2 Players");
-            threePlayerButton = addCard(cardPanel, "/BlackJack/resources/images/cards/3-S.png", "3 Players");
+            onePlayerButton = addCard(cardPanel, "1 Player");
+            twoPlayerButton = addCard(cardPanel, "2 Players");
+            threePlayerButton = addCard(cardPanel, "3 Players");
 
             add(cardPanel, BorderLayout.CENTER);
+
+            // Dati dell'ultima partita, da allegare a una segnalazione, e pulsanti per rivederla o riprodurne una
+            JPanel replayPanel = new JPanel();
+            replayPanel.setLayout(new BorderLayout(0, 8));
+            replayPanel.setOpaque(false);
+            replayPanel.setBorder(new EmptyBorder(0, 0, 20, 0));
+
+            replayKeyLabel = new JLabel(" ", SwingConstants.CENTER);
+            replayKeyLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+            replayKeyLabel.setForeground(new Color(185, 185, 185));
+            replayPanel.add(replayKeyLabel, BorderLayout.NORTH);
+
+            JPanel buttonPanel = new JPanel();
+            buttonPanel.setLayout(new FlowLayout(FlowLayout.CENTER, 15, 0));
+            buttonPanel.setOpaque(false);
+
+            reviewButton = new JButton("Rivedi l'ultima partita");
+            reviewButton.setFont(new Font("Arial", Font.PLAIN, 14));
+            reviewButton.setFocusPainted(false);
+            reviewButton.setEnabled(false);
+            buttonPanel.add(reviewButton);
+
+            replayButton = new JButton("Riproduci una partita");
+            replayButton.setFont(new Font("Arial", Font.PLAIN, 14));
+            replayButton.setFocusPainted(false);
+            buttonPanel.add(replayButton);
+
+            replayPanel.add(buttonPanel, BorderLayout.CENTER);
+            add(replayPanel, BorderLayout.SOUTH);
+
+            // Tutti i pulsanti portano a schermate che usano l'atlante: si abilitano quando è caricato
+            replayButton.setEnabled(false);
+            SpriteAtlas.whenLoaded(atlas -> {
+                setCardImage(onePlayerButton, atlas, "cards/A-C");
+                setCardImage(twoPlayerButton, atlas, "cards/2-H");
+                setCardImage(threePlayerButton, atlas, "cards/3-S");
+                replayButton.setEnabled(true);
+                reviewButton.setEnabled(reviewAvailable);
+                loaded = true;
+            });
+        }
+
+        /**
+         * Mostra l'immagine di una carta sul suo pulsante e lo abilita.
+         *
+         * @param button   Il pulsante.
+         * @param atlas    L'atlante caricato.
+         * @param imageKey La chiave dell'immagine della carta nell'atlante.
+         */
+        private void setCardImage(JButton button, SpriteAtlas atlas, String imageKey) {
+            button.setIcon(new ImageIcon(atlas.getScaledImage(imageKey, 170, 238)));
+            button.setEnabled(true);
         }
 
         /**
-         * Aggiunge una carta (pulsante) al pannello specificato.
+         * Mostra i dati dell'ultima partita giocata; il pulsante per rivederla è abilitato solo se c'è.
+         *
+         * @param replayKey La descrizione della partita, o null per non mostrare nulla.
+         */
+        public void setReplayKey(String replayKey) {
+            replayKeyLabel.setText(replayKey != null ? replayKey : " ");
+            reviewAvailable = replayKey != null;
+            reviewButton.setEnabled(loaded && reviewAvailable);
+        }
+
+        /**
+         * Aggiunge una carta (pulsante) al pannello specificato, disabilitata e senza immagine
+         * finché l'atlante non è caricato.
          *
          * @param panel     Il pannello a cui aggiungere la carta.
-         * @param imagePath Il percorso dell'immagine della carta.
          * @param labelText Il testo dell'etichetta sotto la carta.
          * @return Il pulsante creato e aggiunto al pannello.
          */
-        private JButton addCard(JPanel panel, String imagePath, String labelText) {
+        private JButton addCard(JPanel panel, String labelText) {
             Font font = new Font("Arial", Font.PLAIN, 20);
 
-            ImageIcon icon = new ImageIcon(getClass().getResource(imagePath));
-            Image image = icon.getImage().getScaledInstance(170, 238, Image.SCALE_SMOOTH);
-            JButton button = new JButton(new ImageIcon(image));
+            JButton button = new JButton();
+            button.setEnabled(false);
             button.setPreferredSize(new Dimension(170, 238));
             button.setFocusPainted(false);
             button.setBorder(BorderFactory.createEmptyBorder());
@@ -314,5 +405,23 @@ public class Home extends JPanel {
         public void addThreePlayerButtonListener(ActionListener listener) {
             threePlayerButton.addActionListener(listener);
         }
+
+        /**
+         * Aggiunge un listener al pulsante "Riproduci una partita".
+         *
+         * @param listener L'ActionListener da aggiungere.
+         */
+        public void addReplayButtonListener(ActionListener listener) {
+            replayButton.addActionListener(listener);
+        }
+
+        /**
+         * Aggiunge un listener al pulsante "Rivedi l'ultima partita".
+         *
+         * @param listener L'ActionListener da aggiungere.
+         */
+        public void addReviewButtonListener(ActionListener listener) {
+            reviewButton.addActionListener(listener);
+        }
     }
 }
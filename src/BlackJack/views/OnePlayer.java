@@ -1,6 +1,7 @@
 package BlackJack.views;
 
 import BlackJack.*;
+import BlackJack.analysis.EvSolver;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,14 +18,24 @@ public class OnePlayer extends JPanel implements GameView, Observer {
 
     private static final int CARD_WIDTH = 110; // Larghezza della carta
 
+    // Calcolatore del valore atteso per il suggerimento, condiviso tra le partite e usato fuori dall'EDT
+    private static final EvSolver HINT_SOLVER = new EvSolver();
+
+    // Nomi delle mosse nel suggerimento, nell'ordine degli indici di EvSolver
+    private static final String[] HINT_MOVES = { "stai", "carta", "raddoppia", "dividi", "resa" };
+
     public GamePanel gamePanel;
 
     private JPanel buttonPanel;
     private JButton hitButton;
     private JButton stayButton;
+    private JButton doubleButton;
+    private JButton splitButton;
+    private JButton surrenderButton;
 
     private boolean gameEnded = false; // Flag per verificare se il gioco è terminato
     private int result; // Risultato del gioco
+    private double payout; // Vincita netta in unità della puntata
 
     /**
      * Costruttore della classe OnePlayer.
@@ -51,7 +62,7 @@ public class OnePlayer extends JPanel implements GameView, Observer {
     /**
      * Crea e restituisce il pannello dei bottoni.
      *
-     * @return Il pannello contenente i bottoni "Hit" e "Stay".
+     * @return Il pannello contenente i bottoni "Hit", "Stay", "Double", "Split" e "Surrender".
      */
     private JPanel createButtonPanel() {
         JPanel panel = new JPanel();
@@ -59,9 +70,15 @@ public class OnePlayer extends JPanel implements GameView, Observer {
 
         hitButton = createButton("Hit");
         stayButton = createButton("Stay");
+        doubleButton = createButton("Double");
+        splitButton = createButton("Split");
+        surrenderButton = createButton("Surrender");
 
         panel.add(hitButton);
         panel.add(stayButton);
+        panel.add(doubleButton);
+        panel.add(splitButton);
+        panel.add(surrenderButton);
 
         return panel;
     }
@@ -88,6 +105,21 @@ public class OnePlayer extends JPanel implements GameView, Observer {
         return stayButton;
     }
 
+    @Override
+    public JButton getDoubleButton() {
+        return doubleButton;
+    }
+
+    @Override
+    public JButton getSplitButton() {
+        return splitButton;
+    }
+
+    @Override
+    public JButton getSurrenderButton() {
+        return surrenderButton;
+    }
+
     /**
      * Restituisce il risultato del gioco.
      *
@@ -97,18 +129,30 @@ public class OnePlayer extends JPanel implements GameView, Observer {
         return result;
     }
 
+    /**
+     * Restituisce la vincita netta del giocatore, in unità della puntata.
+     *
+     * @return La vincita netta (negativa in caso di perdita).
+     */
+    public double getPayout() {
+        return payout;
+    }
+
     /**
      * Classe interna che rappresenta il pannello di gioco.
      */
-    public class GamePanel extends JPanel {
+    public class GamePanel extends JPanel implements FrameScheduler.Animated {
 
         private Model model;
         private JButton homeButton;
         private List<AnimationCard.AnimatedCard1> playerCards;
         private List<AnimationCard.AnimatedCard1> dealerCards;
-        private Timer animationTimer;
         private boolean dealerCardsInitialized = false;
 
+        // Suggerimento sulla mossa migliore mostrato sopra le carte del giocatore
+        private String hint;
+        private int hintRequest = 0;
+
         /**
          * Costruttore della classe GamePanel.
          * Inizializza il pannello di gioco e le liste di carte.
@@ -129,8 +173,6 @@ public class OnePlayer extends JPanel implements GameView, Observer {
             homeButton.setBounds(getHomeButtonBounds());
             homeButton.setVisible(false);
             add(homeButton);
-
-            animationTimer = new Timer(16, e -> updateAnimations());
         }
 
         /**
@@ -147,14 +189,18 @@ public class OnePlayer extends JPanel implements GameView, Observer {
         }
 
         /**
-         * Aggiorna le animazioni delle carte.
+         * Aggiorna le animazioni delle carte a ogni fotogramma del {@link FrameScheduler}.
+         *
+         * @return true finché qualche carta è ancora in movimento.
          */
-        private void updateAnimations() {
+        @Override
+        public boolean tick() {
             updatePlayerCardPositions();
             if (dealerCardsInitialized) {
                 updateDealerCardPositions();
             }
             repaint();
+            return !AnimationCard.allSettled(playerCards) || !AnimationCard.allSettled(dealerCards);
         }
 
         /**
@@ -164,12 +210,69 @@ public class OnePlayer extends JPanel implements GameView, Observer {
          */
         public void setModel(Model model) {
             this.model = model;
-            updatePlayerCardList(model.getPlayerHand());
+            updatePlayerCardList(model.getPlayerCards());
             if (!dealerCardsInitialized) {
                 initializeDealerCards(model.getDealerHand(), model.getHiddenCard());
                 dealerCardsInitialized = true;
             }
-            animationTimer.start();
+            FrameScheduler.getInstance().start(this);
+        }
+
+        /**
+         * Calcola in background il suggerimento per la mano corrente, tra le mosse consentite in questo momento.
+         * Lo stato della mano viene copiato sull'EDT, il calcolo avviene in un SwingWorker;
+         * un risultato arrivato dopo una nuova richiesta viene scartato.
+         */
+        public void requestHint() {
+            int[] composition = new int[Cards.VALUE_CLASSES];
+            model.copyUnseenCounts(composition);
+            int hand = model.getActiveHand();
+            int state = model.getHandState(Table.PLAYER, hand);
+            int upcard = model.getDealerUpcard();
+            boolean peeked = !model.isDealerBlackjack();
+            boolean canDouble = model.canPlayerDouble();
+            boolean canSplit = model.canPlayerSplit();
+            boolean canSurrender = model.canPlayerSurrender();
+            int pair = canSplit ? Cards.valueClass(model.getTable().card(Table.PLAYER, hand, 0)) : -1;
+            boolean doubleAfterSplit = model.getRules().isDoubleAfterSplit();
+            int request = ++hintRequest;
+            hint = null;
+
+            new SwingWorker<double[], Void>() {
+                @Override
+                protected double[] doInBackground() {
+                    double[] ev = new double[EvSolver.ACTIONS];
+                    synchronized (HINT_SOLVER) {
+                        HINT_SOLVER.solve(HandState.hard(state), HandState.hasAce(state), upcard, composition, peeked, ev);
+                        ev[EvSolver.SPLIT] = canSplit
+                                ? HINT_SOLVER.split(pair, upcard, composition, peeked, doubleAfterSplit) : Double.NaN;
+                    }
+                    if (!canDouble) ev[EvSolver.DOUBLE] = Double.NaN;
+                    if (!canSurrender) ev[EvSolver.SURRENDER] = Double.NaN;
+                    return ev;
+                }
+
+                @Override
+                protected void done() {
+                    if (request != hintRequest || gameEnded) return;
+                    try {
+                        double[] ev = get();
+                        int best = EvSolver.STAND;
+                        StringBuilder values = new StringBuilder();
+                        for (int move = 0; move < EvSolver.ACTIONS; move++) {
+                            if (Double.isNaN(ev[move])) continue;
+                            if (ev[move] > ev[best]) best = move;
+                            values.append(values.length() > 0 ? ", " : "")
+                                    .append(String.format("%s %+.0f%%", HINT_MOVES[move], ev[move] * 100));
+                        }
+                        String move = HINT_MOVES[best];
+                        hint = "Suggerimento: " + Character.toUpperCase(move.charAt(0)) + move.substring(1) + " (" + values + ")";
+                        repaint();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            }.execute();
         }
 
         /**
@@ -194,10 +297,13 @@ public class OnePlayer extends JPanel implements GameView, Observer {
 
         /**
          * Aggiorna la lista delle carte del giocatore.
+         * Le carte già presenti vengono riallineate, perché una divisione ne cambia l'ordine.
          *
-         * @param hand La mano del giocatore.
+         * @param hand Le carte di tutte le mani del giocatore.
          */
         private void updatePlayerCardList(List<Model.Card> hand) {
+            IntStream.range(0, Math.min(playerCards.size(), hand.size()))
+                    .forEach(i -> playerCards.get(i).setCard(hand.get(i)));
             IntStream.range(playerCards.size(), hand.size()).forEach(i -> {
                 Model.Card card = hand.get(i);
                 playerCards.add(new AnimationCard.AnimatedCard1(card, JBlackJack.BOARD_WIDTH, 570));
@@ -247,7 +353,7 @@ public class OnePlayer extends JPanel implements GameView, Observer {
             });
 
             updateDealerCardPositions(newCards);
-            animationTimer.start();
+            FrameScheduler.getInstance().start(this);
         }
 
         /**
@@ -291,12 +397,9 @@ public class OnePlayer extends JPanel implements GameView, Observer {
                 showGameResult(g);
                 homeButton.setVisible(true);
             } else {
+                drawHint(g);
                 homeButton.setVisible(false);
             }
-
-            if (!animationTimer.isRunning()) {
-                animationTimer.start();
-            }
         }
 
         /**
@@ -313,6 +416,20 @@ public class OnePlayer extends JPanel implements GameView, Observer {
             g.drawString(message, x, 20);
         }
 
+        /**
+         * Disegna il suggerimento, se disponibile.
+         *
+         * @param g L'oggetto Graphics utilizzato per disegnare.
+         */
+        private void drawHint(Graphics g) {
+            if (hint == null) return;
+            g.setFont(new Font("Arial", Font.PLAIN, 16));
+            g.setColor(new Color(185, 185, 185));
+            FontMetrics fm = g.getFontMetrics();
+            int x = (JBlackJack.BOARD_WIDTH - fm.stringWidth(hint)) / 2;
+            g.drawString(hint, x, 555);
+        }
+
         /**
          * Disegna le carte del dealer.
          *
@@ -341,12 +458,11 @@ public class OnePlayer extends JPanel implements GameView, Observer {
          * @param g L'oggetto Graphics utilizzato per disegnare.
          */
         private void showGameResult(Graphics g) {
-            int dealerFinalSum = model.reduceAce(model.getDealerSum(), model.getDealerAceCount());
-            int playerFinalSum = model.reduceAce(model.getPlayerSum(), model.getPlayerAceCount());
             gameEnded = true;
 
-            String message = getGameResultMessage(playerFinalSum, dealerFinalSum);
-            result = getResultFromMessage(message);
+            result = model.getPlayerResult();
+            payout = model.getPayout(Table.PLAYER);
+            String message = getGameResultMessage(result);
 
             g.setFont(new Font("Arial", Font.BOLD, 30));
             g.setColor(Color.WHITE);
@@ -360,31 +476,20 @@ public class OnePlayer extends JPanel implements GameView, Observer {
         }
 
         /**
-         * Restituisce il messaggio del risultato del gioco basato sui punteggi del giocatore e del dealer.
+         * Restituisce il messaggio del risultato del gioco, distinguendo blackjack e resa.
          *
-         * @param playerSum Il punteggio finale del giocatore.
-         * @param dealerSum Il punteggio finale del dealer.
+         * @param result Il codice del risultato del giocatore.
          * @return Il messaggio del risultato del gioco.
          */
-        private String getGameResultMessage(int playerSum, int dealerSum) {
-            if (playerSum > 21) return "Hai perso";
-            if (dealerSum > 21) return "Hai vinto";
-            if (playerSum == dealerSum) return "Pareggio";
-            return (playerSum > dealerSum) ? "Hai vinto" : "Hai perso";
-        }
-
-        /**
-         * Restituisce il codice del risultato basato sul messaggio del risultato del gioco.
-         *
-         * @param message Il messaggio del risultato del gioco.
-         * @return Il codice del risultato.
-         */
-        private int getResultFromMessage(String message) {
-            switch (message) {
-                case "Hai vinto": return 1;
-                case "Hai perso": return 2;
-                case "Pareggio": return 3;
-                default: return 0;
+        private String getGameResultMessage(int result) {
+            int state = model.getHandState(Table.PLAYER);
+            if (HandState.isSurrendered(state)) return "Resa";
+            if (result == Model.RESULT_WIN && HandState.isBlackjack(state)) return "Blackjack!";
+            switch (result) {
+                case Model.RESULT_WIN: return "Hai vinto";
+                case Model.RESULT_LOSS: return "Hai perso";
+                case Model.RESULT_DRAW: return "Pareggio";
+                default: return "";
             }
         }
 
@@ -405,9 +510,17 @@ public class OnePlayer extends JPanel implements GameView, Observer {
         if (!gameEnded && !stayButton.isEnabled()) {
             gameEnded = true;
             gamePanel.startDealerRevealAnimation();
+        } else if (!gameEnded) {
+            gamePanel.requestHint();
         }
     }
 
+    @Override
+    public void showTurn(Model model) {
+        AudioManager.getInstance().play("src/BlackJack/resources/audio/card.wav");
+        gamePanel.setModel(model);
+    }
+
     @Override
     public void update(java.util.Observable o, Object arg) {
         if (o instanceof Model) {
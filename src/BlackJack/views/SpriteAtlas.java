@@ -0,0 +1,452 @@
+package BlackJack.views;
+
+import BlackJack.Cards;
+
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Atlante delle immagini del gioco: carte, chip, avatar e logo raccolti in un'unica immagine.
+ * Ogni immagine è conservata alla dimensione più grande con cui viene mostrata e si ottiene
+ * per chiave ({@code cards/A-S}, {@code cards/BACK}, {@code chips/25}, {@code avatars/avatar1}, {@code logo}).
+ * Alla prima esecuzione le immagini originali vengono decodificate, scalate e disposte a ripiani
+ * in un'immagine sola, salvata con il suo indice nella cartella {@code .jblackjack} della home;
+ * alle esecuzioni successive basta decodificare quell'immagine. L'indice contiene un'impronta dei nomi,
+ * delle dimensioni e dei byte delle immagini originali: se una di esse cambia, o ne viene aggiunta una,
+ * l'atlante viene ricostruito. I due file vengono scritti in file temporanei e spostati al loro posto,
+ * l'indice per ultimo, così che un'interruzione non lasci un indice che descrive un'altra immagine.
+ * Il caricamento avviene su un thread in background avviato da {@link #preload()} all'avvio.
+ * Le viste mostrate subito, come la schermata iniziale, ricevono le immagini con {@link #whenLoaded(Consumer)}
+ * senza bloccare il thread della GUI; {@link #getInstance()} attende la fine del caricamento solo se viene
+ * chiamato prima. Appena l'atlante è pronto, lo stesso thread prepara le carte scalate di {@link CardSprites}.
+ */
+public class SpriteAtlas {
+
+    // Versione del formato dell'indice; i cambiamenti delle immagini sono rilevati dall'impronta
+    private static final int MAGIC = 0x424A4154;
+    private static final int VERSION = 2;
+
+    // Larghezza dell'atlante e spazio tra le immagini, per evitare sbavature nella scalatura
+    private static final int ATLAS_WIDTH = 2048;
+    private static final int PADDING = 1;
+
+    private static final String IMAGES_PATH = "/BlackJack/resources/images/";
+
+    // Dimensioni con cui sono conservate le immagini (le più grandi usate dalle viste)
+    private static final int CARD_WIDTH = 170, CARD_HEIGHT = 238;
+    private static final int AVATAR_WIDTH = 170, AVATAR_HEIGHT = 257;
+    private static final int CHIP_SIZE = 70;
+    private static final int LOGO_WIDTH = 561, LOGO_HEIGHT = 215;
+    private static final int[] CHIPS = { 1, 5, 25, 100, 500, 1000 };
+    private static final int AVATARS = 4;
+
+    private static CompletableFuture<SpriteAtlas> loader;
+
+    // Immagine unica dell'atlante e sotto-immagini per chiave
+    private final BufferedImage atlas;
+    private final Map<String, BufferedImage> sprites = new HashMap<>();
+
+    // Copie scalate già richieste, per chiave e dimensioni
+    private final Map<String, BufferedImage> scaled = new ConcurrentHashMap<>();
+
+    /**
+     * Avvia il caricamento dell'atlante su un thread in background, se non è già stato avviato.
+     * Dopo aver reso disponibile l'atlante, il thread prepara le carte scalate per il tavolo.
+     */
+    public static synchronized void preload() {
+        if (loader == null) {
+            CompletableFuture<SpriteAtlas> future = new CompletableFuture<>();
+            loader = future;
+            Thread thread = new Thread(() -> {
+                SpriteAtlas atlas;
+                try {
+                    atlas = load();
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                future.complete(atlas);
+                // Le carte servono solo dalla prima partita: si preparano dopo aver sbloccato le schermate iniziali
+                CardSprites.prepare(atlas);
+            }, "atlante");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Esegue un'azione sul thread della GUI appena l'atlante è caricato, subito dopo se lo è già.
+     * Se il caricamento non riesce l'azione non viene eseguita e l'errore viene stampato.
+     * @param action L'azione, che riceve l'atlante.
+     */
+    public static void whenLoaded(Consumer<SpriteAtlas> action) {
+        preload();
+        loader.whenComplete((atlas, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+            } else {
+                SwingUtilities.invokeLater(() -> action.accept(atlas));
+            }
+        });
+    }
+
+    /**
+     * Restituisce l'atlante, attendendo la fine del caricamento se è ancora in corso.
+     * @return L'atlante condiviso.
+     */
+    public static SpriteAtlas getInstance() {
+        preload();
+        try {
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Caricamento delle immagini interrotto", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Impossibile caricare le immagini", e.getCause());
+        }
+    }
+
+    private SpriteAtlas(BufferedImage atlas, Map<String, Rectangle> index) {
+        this.atlas = atlas;
+        index.forEach((key, r) -> sprites.put(key, atlas.getSubimage(r.x, r.y, r.width, r.height)));
+    }
+
+    /**
+     * Carica l'atlante dalla cartella del programma, costruendolo e salvandolo se manca,
+     * è di una versione diversa o è stato costruito da immagini diverse.
+     * @return L'atlante caricato.
+     */
+    private static SpriteAtlas load() {
+        Path directory = Paths.get(System.getProperty("user.home"), ".jblackjack");
+        Path imageFile = directory.resolve("atlante.png");
+        Path indexFile = directory.resolve("atlante.idx");
+        Map<String, Dimension> sources = sources();
+        byte[] fingerprint = fingerprint(sources);
+        Map<String, Rectangle> index = new HashMap<>();
+
+        BufferedImage image = null;
+        if (Files.exists(imageFile) && Files.exists(indexFile)) {
+            try {
+                if (readIndex(indexFile, fingerprint, index) && index.keySet().equals(sources.keySet())) {
+                    image = ImageIO.read(imageFile.toFile());
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (image == null) {
+            index.clear();
+            image = build(sources, index);
+            try {
+                Files.createDirectories(directory);
+                BufferedImage built = image;
+                replace(imageFile, out -> ImageIO.write(built, "png", out));
+                replace(indexFile, out -> writeIndex(out, fingerprint, index));
+            } catch (IOException e) {
+                // Senza cache l'atlante viene ricostruito alla prossima esecuzione
+                e.printStackTrace();
+            }
+        }
+        return new SpriteAtlas(toCompatible(image), index);
+    }
+
+    /**
+     * Scrittura del contenuto di un file della cache.
+     */
+    private interface CacheWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Scrive un file in un file temporaneo della stessa cartella e lo sposta al posto di quello indicato
+     * con uno spostamento atomico: chi legge trova il file vecchio o quello nuovo, mai uno scritto a metà.
+     * @param file Il file da sostituire.
+     * @param writer La scrittura del contenuto.
+     * @throws IOException Se la scrittura o lo spostamento non riescono.
+     */
+    private static void replace(Path file, CacheWriter writer) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Elenca le immagini dell'atlante con le dimensioni con cui sono conservate.
+     * @return Le dimensioni per chiave, nell'ordine in cui le immagini vengono decodificate.
+     */
+    private static Map<String, Dimension> sources() {
+        Map<String, Dimension> sources = new LinkedHashMap<>();
+        for (int code = 0; code <= Cards.DECK_SIZE; code++) {
+            String name = code == Cards.DECK_SIZE ? "BACK" : Cards.name(code);
+            sources.put("cards/" + name, new Dimension(CARD_WIDTH, CARD_HEIGHT));
+        }
+        for (int avatar = 1; avatar <= AVATARS; avatar++) {
+            sources.put("avatars/avatar" + avatar, new Dimension(AVATAR_WIDTH, AVATAR_HEIGHT));
+        }
+        for (int chip : CHIPS) {
+            sources.put("chips/" + chip, new Dimension(CHIP_SIZE, CHIP_SIZE));
+        }
+        sources.put("logo", new Dimension(LOGO_WIDTH, LOGO_HEIGHT));
+        return sources;
+    }
+
+    /**
+     * Calcola l'impronta delle immagini originali: per ognuna chiave, dimensioni, lunghezza e CRC32C dei byte.
+     * Leggere i file costa molto meno che decodificarli, quindi il controllo si fa a ogni avvio.
+     * @param sources Le immagini dell'atlante.
+     * @return L'impronta.
+     */
+    private static byte[] fingerprint(Map<String, Dimension> sources) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Map.Entry<String, Dimension> entry : sources.entrySet()) {
+                String path = IMAGES_PATH + entry.getKey() + ".png";
+                byte[] image;
+                try (InputStream in = SpriteAtlas.class.getResourceAsStream(path)) {
+                    if (in == null) {
+                        throw new IllegalStateException("Immagine non trovata: " + path);
+                    }
+                    image = in.readAllBytes();
+                }
+                crc.reset();
+                crc.update(image);
+                out.writeUTF(entry.getKey());
+                out.writeShort(entry.getValue().width);
+                out.writeShort(entry.getValue().height);
+                out.writeInt(image.length);
+                out.writeInt((int) crc.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossibile leggere le immagini", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodifica le immagini originali, le scala alla dimensione di destinazione e le dispone a ripiani,
+     * dalla più alta alla più bassa.
+     * @param sources Le immagini da disporre, con le loro dimensioni.
+     * @param index L'indice da riempire con la posizione di ogni immagine.
+     * @return L'immagine dell'atlante.
+     */
+    private static BufferedImage build(Map<String, Dimension> sources, Map<String, Rectangle> index) {
+        List<String> keys = new ArrayList<>();
+        List<BufferedImage> images = new ArrayList<>();
+        sources.forEach((key, size) -> {
+            keys.add(key);
+            images.add(scale(decode(IMAGES_PATH + key + ".png"), size.width, size.height));
+        });
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> images.get(i).getHeight()).reversed());
+
+        int x = 0, y = 0, shelf = 0;
+        for (int i : order) {
+            BufferedImage image = images.get(i);
+            if (x + image.getWidth() > ATLAS_WIDTH) {
+                x = 0;
+                y += shelf + PADDING;
+                shelf = 0;
+            }
+            index.put(keys.get(i), new Rectangle(x, y, image.getWidth(), image.getHeight()));
+            x += image.getWidth() + PADDING;
+            shelf = Math.max(shelf, image.getHeight());
+        }
+
+        BufferedImage atlas = new BufferedImage(ATLAS_WIDTH, y + shelf, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (int i = 0; i < keys.size(); i++) {
+            Rectangle r = index.get(keys.get(i));
+            g.drawImage(images.get(i), r.x, r.y, null);
+        }
+        g.dispose();
+        return atlas;
+    }
+
+    /**
+     * Legge l'indice: intestazione, impronta delle immagini originali, numero di immagini e,
+     * per ognuna, chiave e rettangolo.
+     * @param file Il file dell'indice.
+     * @param fingerprint L'impronta delle immagini originali attuali.
+     * @param index L'indice da riempire.
+     * @return false se l'indice è di un'altra versione o è stato costruito da immagini diverse.
+     * @throws IOException Se la lettura non riesce.
+     */
+    private static boolean readIndex(Path file, byte[] fingerprint, Map<String, Rectangle> index) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            if (in.readInt() != fingerprint.length) {
+                return false;
+            }
+            byte[] saved = new byte[fingerprint.length];
+            in.readFully(saved);
+            if (!Arrays.equals(saved, fingerprint)) {
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                index.put(key, new Rectangle(in.readShort(), in.readShort(), in.readShort(), in.readShort()));
+            }
+            return true;
+        }
+    }
+
+    private static void writeIndex(OutputStream stream, byte[] fingerprint, Map<String, Rectangle> index) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fingerprint.length);
+            out.write(fingerprint);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Rectangle> entry : index.entrySet()) {
+                Rectangle r = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeShort(r.x);
+                out.writeShort(r.y);
+                out.writeShort(r.width);
+                out.writeShort(r.height);
+            }
+        }
+    }
+
+    /**
+     * Decodifica un'immagine dalle risorse.
+     * @param path Il percorso della risorsa.
+     * @return L'immagine decodificata.
+     */
+    private static BufferedImage decode(String path) {
+        URL url = SpriteAtlas.class.getResource(path);
+        if (url == null) {
+            throw new IllegalStateException("Immagine non trovata: " + path);
+        }
+        try {
+            return ImageIO.read(url);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossibile leggere l'immagine " + path, e);
+        }
+    }
+
+    /**
+     * Restituisce la configurazione dello schermo, o null senza schermo.
+     * @return La configurazione dello schermo predefinito.
+     */
+    private static GraphicsConfiguration screen() {
+        return GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /**
+     * Copia l'immagine in una compatibile con lo schermo, che Java2D può tenere in memoria video.
+     * @param image L'immagine di origine.
+     * @return L'immagine compatibile.
+     */
+    private static BufferedImage toCompatible(BufferedImage image) {
+        GraphicsConfiguration gc = screen();
+        if (gc == null) {
+            return image;
+        }
+        BufferedImage copy = gc.createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    /**
+     * Crea un'immagine trasparente vuota, compatibile con lo schermo se disponibile.
+     * @param width La larghezza.
+     * @param height L'altezza.
+     * @return La nuova immagine.
+     */
+    static BufferedImage createImage(int width, int height) {
+        GraphicsConfiguration gc = screen();
+        return gc != null
+                ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Crea una copia scalata dell'immagine, compatibile con lo schermo se disponibile.
+     * @param source L'immagine di origine.
+     * @param width La larghezza.
+     * @param height L'altezza.
+     * @return L'immagine scalata.
+     */
+    static BufferedImage scale(Image source, int width, int height) {
+        BufferedImage image = createImage(width, height);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Restituisce l'immagine con la chiave indicata, che condivide i pixel dell'atlante.
+     * @param key La chiave dell'immagine.
+     * @return L'immagine.
+     */
+    public BufferedImage getImage(String key) {
+        BufferedImage image = sprites.get(key);
+        if (image == null) {
+            throw new IllegalArgumentException("Immagine non presente nell'atlante: " + key);
+        }
+        return image;
+    }
+
+    /**
+     * Restituisce l'immagine scalata alle dimensioni indicate. La copia scalata viene creata alla prima
+     * richiesta e poi riusata, quindi le viste ricostruite a ogni partita non ripetono la scalatura;
+     * essendo condivisa non va modificata.
+     * @param key La chiave dell'immagine.
+     * @param width La larghezza.
+     * @param height L'altezza.
+     * @return L'immagine scalata.
+     */
+    public BufferedImage getScaledImage(String key, int width, int height) {
+        BufferedImage image = getImage(key);
+        if (image.getWidth() == width && image.getHeight() == height) {
+            return image;
+        }
+        return scaled.computeIfAbsent(key + "@" + width + "x" + height, k -> scale(image, width, height));
+    }
+
+    public BufferedImage getAtlas() { return atlas; }
+}
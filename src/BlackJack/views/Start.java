@@ -7,6 +7,7 @@ import java.awt.event.ActionListener;
 
 /**
  * Interfaccia utente all'avvio del gioco Blackjack.
+ * Il pannello si mostra subito: il logo e l'avatar compaiono appena l'{@link SpriteAtlas} è caricato.
  */
 public class Start extends JPanel{
     private final PanelOne panelOne;
@@ -79,20 +80,24 @@ public class Start extends JPanel{
      * Estende {@code JPanel} e gestisce la visualizzazione dell'immagine del logo.
      */
     class PanelOne extends JPanel {
-        private final Image logoImage;
+        private Image logoImage; // null finché l'atlante non è caricato
 
         /**
-         * Costruisce un nuovo {@code PanelOne}, imposta il colore di sfondo e carica l'immagine del logo.
+         * Costruisce un nuovo {@code PanelOne}, imposta il colore di sfondo e richiede l'immagine del logo.
          */
         PanelOne() {
             setBackground(JBlackJack.BACKGROUND_COLOR);
             setPreferredSize(new Dimension(JBlackJack.BOARD_WIDTH, JBlackJack.BOARD_HEIGHT / 3));
-            logoImage = new ImageIcon(Start.class.getResource("/BlackJack/resources/images/logo.png")).getImage();
+            SpriteAtlas.whenLoaded(atlas -> {
+                logoImage = atlas.getImage("logo");
+                repaint();
+            });
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
+            if (logoImage == null) return;
             int logoWidth = 561;
             int logoHeight = 215;
             g.drawImage(logoImage, (JBlackJack.BOARD_WIDTH / 2) - (logoWidth / 2), (JBlackJack.BOARD_HEIGHT / 6) - (logoHeight / 2), logoWidth, logoHeight, null);
@@ -107,6 +112,8 @@ public class Start extends JPanel{
         private final JButton leftButton;
         private final JButton rightButton;
         private final JLabel avatarLabel;
+        private String avatarName = "avatar1.png"; // Avatar da mostrare, anche prima che l'atlante sia caricato
+        private SpriteAtlas atlas; // null finché l'atlante non è caricato
 
         /**
          * Costruisce un nuovo {@code PanelTwo}, imposta il layout, aggiunge i componenti e imposta l'immagine predefinita dell'avatar.
@@ -130,6 +137,7 @@ public class Start extends JPanel{
             add(leftButton, gbc);
 
             avatarLabel = new JLabel();
+            avatarLabel.setPreferredSize(new Dimension(170, 247)); // Spazio riservato all'avatar
             gbc.gridx = 1;
             gbc.gridy = 1;
             add(avatarLabel, gbc);
@@ -143,7 +151,10 @@ public class Start extends JPanel{
             setPreferredSize(new Dimension(JBlackJack.BOARD_WIDTH, JBlackJack.BOARD_HEIGHT / 2));
             setBackground(JBlackJack.BACKGROUND_COLOR);
 
-            setAvatarImage("avatar1.png");
+            SpriteAtlas.whenLoaded(loaded -> {
+                atlas = loaded;
+                setAvatarImage(avatarName);
+            });
         }
 
         /**
@@ -165,13 +176,16 @@ public class Start extends JPanel{
         }
 
         /**
-         * Imposta l'immagine dell'avatar mostrata nel {@code PanelTwo}.
+         * Imposta l'immagine dell'avatar mostrata nel {@code PanelTwo}; se l'atlante non è ancora caricato
+         * l'immagine compare al termine del caricamento.
          * 
          * @param imageName il nome del file dell'immagine dell'avatar
          */
         public void setAvatarImage(String imageName) {
-            Image avatarImage = new ImageIcon(getClass().getResource("/BlackJack/resources/images/avatars/" + imageName)).getImage();
-            avatarLabel.setIcon(new ImageIcon(avatarImage.getScaledInstance(170, 247, Image.SCALE_SMOOTH)));
+            avatarName = imageName;
+            if (atlas == null) return;
+            String key = "avatars/" + imageName.substring(0, imageName.lastIndexOf('.'));
+            avatarLabel.setIcon(new ImageIcon(atlas.getScaledImage(key, 170, 247)));
         }
     }
 
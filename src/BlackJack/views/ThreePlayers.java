@@ -23,11 +23,15 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
 
     private JButton hitButton;
     private JButton stayButton;
+    private JButton doubleButton;
+    private JButton splitButton;
+    private JButton surrenderButton;
     private JButton homeButton;
 
     private int result;
     private int bot1result;
     private int bot2result;
+    private double payout;
 
     private boolean gameEnded = false;
 
@@ -60,11 +64,17 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
 
         hitButton = createButton("Hit");
         stayButton = createButton("Stay");
+        doubleButton = createButton("Double");
+        splitButton = createButton("Split");
+        surrenderButton = createButton("Surrender");
         homeButton = createButton("Home");
         homeButton.setVisible(false);
 
         buttonPanel.add(hitButton);
         buttonPanel.add(stayButton);
+        buttonPanel.add(doubleButton);
+        buttonPanel.add(splitButton);
+        buttonPanel.add(surrenderButton);
         buttonPanel.add(homeButton);
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -91,6 +101,21 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
         return stayButton;
     }
 
+    @Override
+    public JButton getDoubleButton() {
+        return doubleButton;
+    }
+
+    @Override
+    public JButton getSplitButton() {
+        return splitButton;
+    }
+
+    @Override
+    public JButton getSurrenderButton() {
+        return surrenderButton;
+    }
+
     /**
      * Aggiorna la vista del gioco con il modello fornito.
      * 
@@ -110,6 +135,13 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
         gamePanel.repaint();
     }
 
+    @Override
+    public void showTurn(Model model) {
+        AudioManager.getInstance().play("src/BlackJack/resources/audio/card.wav");
+        gamePanel.setModel(model);
+        gamePanel.repaint();
+    }
+
     /**
      * Restituisce il risultato della partita per il giocatore principale.
      * 
@@ -137,16 +169,22 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
         return bot2result;
     }
 
-    public class GamePanel extends JPanel {
-        private static final int TIMER_DELAY = 16;
+    /**
+     * Restituisce la vincita netta del giocatore principale, in unità della puntata.
+     * 
+     * @return La vincita netta (negativa in caso di perdita).
+     */
+    public double getPayout() {
+        return payout;
+    }
 
+    public class GamePanel extends JPanel implements FrameScheduler.Animated {
         private Model model;
         private JButton homeButton;
         private List<AnimationCard.AnimatedCard3> playerCards = new ArrayList<>();
         private List<AnimationCard.AnimatedCard3> dealerCards = new ArrayList<>();
         private List<AnimationCard.AnimatedCard3> bot1Cards = new ArrayList<>();
         private List<AnimationCard.AnimatedCard3> bot2Cards = new ArrayList<>();
-        private Timer animationTimer;
 
         private boolean dealerCardsInitialized = false;
         private boolean bot1CardsInitialized = false;
@@ -154,12 +192,11 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
 
         /**
          * Costruttore della classe GamePanel.
-         * Inizializza il pannello e il timer per le animazioni.
+         * Inizializza il pannello.
          */
         public GamePanel() {
             setLayout(null);
             initializeHomeButton();
-            initializeAnimationTimer();
         }
 
         /**
@@ -177,13 +214,16 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
         }
 
         /**
-         * Inizializza il timer per le animazioni delle carte.
+         * Aggiorna le animazioni delle carte a ogni fotogramma del {@link FrameScheduler}.
+         * 
+         * @return true finché qualche carta è ancora in movimento.
          */
-        private void initializeAnimationTimer() {
-            animationTimer = new Timer(TIMER_DELAY, e -> {
-                updateCardPositions();
-                repaint();
-            });
+        @Override
+        public boolean tick() {
+            updateCardPositions();
+            repaint();
+            return !AnimationCard.allSettled(playerCards) || !AnimationCard.allSettled(dealerCards)
+                    || !AnimationCard.allSettled(bot1Cards) || !AnimationCard.allSettled(bot2Cards);
         }
 
         /**
@@ -193,7 +233,7 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
          */
         public void setModel(Model model) {
             this.model = model;
-            updatePlayerCardList(model.getPlayerHand());
+            updatePlayerCardList(model.getPlayerCards());
             if (!dealerCardsInitialized) {
                 initializeDealerCards(model.getDealerHand(), model.getHiddenCard());
                 dealerCardsInitialized = true;
@@ -206,7 +246,7 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
                 initializeBot2Cards(model.getBot2Hand());
                 bot2CardsInitialized = true;
             }
-            animationTimer.start();
+            FrameScheduler.getInstance().start(this);
         }
 
         /**
@@ -250,10 +290,14 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
 
         /**
          * Aggiorna la lista delle carte del giocatore e la loro posizione.
+         * Le carte già presenti vengono riallineate, perché una divisione ne cambia l'ordine.
          * 
-         * @param hand La mano del giocatore.
+         * @param hand Le carte di tutte le mani del giocatore.
          */
         private void updatePlayerCardList(List<Model.Card> hand) {
+            for (int i = 0; i < playerCards.size() && i < hand.size(); i++) {
+                playerCards.get(i).setCard(hand.get(i));
+            }
             while (playerCards.size() < hand.size()) {
                 playerCards.add(new AnimationCard.AnimatedCard3(hand.get(playerCards.size()), JBlackJack.BOARD_WIDTH, 620, false, 0));
             }
@@ -392,10 +436,6 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
             } else {
                 homeButton.setVisible(false);
             }
-
-            if (!animationTimer.isRunning()) {
-                animationTimer.start();
-            }
         }
 
         /**
@@ -464,14 +504,10 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
          * @param g Il contesto grafico su cui disegnare il risultato.
          */
         private void showGameResult(Graphics g) {
-            int dealerFinalSum = model.reduceAce(model.getDealerSum(), model.getDealerAceCount());
-            int playerFinalSum = model.reduceAce(model.getPlayerSum(), model.getPlayerAceCount());
-            int bot1FinalSum = model.reduceAce(model.getBot1Sum(), model.getBot1AceCount());
-            int bot2FinalSum = model.reduceAce(model.getBot2Sum(), model.getBot2AceCount());
-
-            result = determineResult(playerFinalSum, dealerFinalSum);
-            bot1result = determineResult(bot1FinalSum, dealerFinalSum);
-            bot2result = determineResult(bot2FinalSum, dealerFinalSum);
+            result = model.getPlayerResult();
+            bot1result = model.getBot1Result();
+            bot2result = model.getBot2Result();
+            payout = model.getPayout(Table.PLAYER);
 
             g.setFont(new Font("Arial", Font.BOLD, 30));
             g.setColor(Color.WHITE);
@@ -486,27 +522,6 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
             g.drawString(message, x, y);
         }
 
-        /**
-         * Determina il risultato del gioco confrontando la somma finale del giocatore con quella del mazziere.
-         * 
-         * @param finalSum La somma finale del giocatore.
-         * @param dealerFinalSum La somma finale del mazziere.
-         * @return Il codice del risultato (1: vinto, 2: perso, 3: pareggio).
-         */
-        private int determineResult(int finalSum, int dealerFinalSum) {
-            if (finalSum > 21) {
-                return 2;
-            } else if (dealerFinalSum > 21) {
-                return 1; 
-            } else if (finalSum == dealerFinalSum) {
-                return 3;
-            } else if (finalSum > dealerFinalSum) {
-                return 1; 
-            } else {
-                return 2; 
-            }
-        }
-
         /**
          * Ottiene il messaggio del risultato basato sul codice del risultato.
          * 
@@ -514,6 +529,9 @@ public class ThreePlayers extends JPanel implements GameView, Observer {
          * @return Il messaggio del risultato.
          */
         private String getResultMessage(int resultCode) {
+            int state = model.getHandState(Table.PLAYER);
+            if (HandState.isSurrendered(state)) return "Resa";
+            if (resultCode == 1 && HandState.isBlackjack(state)) return "Blackjack!";
             switch (resultCode) {
                 case 1:
                     return "Hai vinto";
@@ -0,0 +1,99 @@
+package BlackJack.views;
+
+/**
+ * Interpolazione a tempo di una posizione: dal punto di partenza al punto di arrivo in una durata fissa,
+ * secondo una curva di {@link Easing}. La posizione dipende solo dal tempo trascorso, letto con
+ * {@link System#nanoTime()}, e non da quanti fotogrammi sono stati disegnati: l'animazione ha lo stesso
+ * aspetto anche quando il timer ritarda, arriva esattamente sul punto finale allo scadere della durata
+ * e a quel punto esegue una sola volta l'azione di completamento.
+ * Un'istanza si riusa per animazioni successive, senza crearne di nuove.
+ */
+public class Tween {
+
+    private float fromX, fromY;
+    private float toX, toY;
+    private float x, y;
+    private long startNanos;
+    private long durationNanos;
+    private Easing easing = Easing.LINEAR;
+    private Runnable onComplete;
+    private boolean running;
+
+    /**
+     * Avvia un'animazione da adesso, sostituendo quella in corso senza completarla.
+     * @param fromX La coordinata x di partenza.
+     * @param fromY La coordinata y di partenza.
+     * @param toX La coordinata x di arrivo.
+     * @param toY La coordinata y di arrivo.
+     * @param durationMillis La durata in millisecondi.
+     * @param easing La curva di andamento.
+     * @param onComplete L'azione da eseguire all'arrivo, o null.
+     */
+    public void start(float fromX, float fromY, float toX, float toY, long durationMillis, Easing easing, Runnable onComplete) {
+        if (durationMillis < 0) {
+            throw new IllegalArgumentException("Durata non valida: " + durationMillis);
+        }
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.toX = toX;
+        this.toY = toY;
+        this.x = fromX;
+        this.y = fromY;
+        this.durationNanos = durationMillis * 1_000_000L;
+        this.easing = easing;
+        this.onComplete = onComplete;
+        this.startNanos = System.nanoTime();
+        this.running = true;
+    }
+
+    /**
+     * Calcola la posizione all'istante corrente.
+     * @return true se l'animazione è ancora in corso, false se è arrivata (o non era in corso).
+     */
+    public boolean update() {
+        return update(System.nanoTime());
+    }
+
+    /**
+     * Calcola la posizione all'istante indicato; allo scadere della durata porta la posizione
+     * esattamente sul punto di arrivo ed esegue l'azione di completamento.
+     * @param now L'istante, letto con {@link System#nanoTime()}.
+     * @return true se l'animazione è ancora in corso, false se è arrivata (o non era in corso).
+     */
+    public boolean update(long now) {
+        if (!running) {
+            return false;
+        }
+        long elapsed = now - startNanos;
+        if (elapsed >= durationNanos) {
+            x = toX;
+            y = toY;
+            running = false;
+            Runnable action = onComplete;
+            onComplete = null;
+            if (action != null) {
+                action.run();
+            }
+            return false;
+        }
+        double p = easing.apply((double) elapsed / durationNanos);
+        x = (float) (fromX + (toX - fromX) * p);
+        y = (float) (fromY + (toY - fromY) * p);
+        return true;
+    }
+
+    /**
+     * Interrompe l'animazione senza eseguire l'azione di completamento.
+     */
+    public void cancel() {
+        running = false;
+        onComplete = null;
+    }
+
+    // Metodi getter
+    public float getX() { return x; }
+    public float getY() { return y; }
+    public float getToX() { return toX; }
+    public float getToY() { return toY; }
+    public boolean isRunning() { return running; }
+}
@@ -20,6 +20,9 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
 
     private JButton hitButton;
     private JButton stayButton;
+    private JButton doubleButton;
+    private JButton splitButton;
+    private JButton surrenderButton;
     private JButton homeButton;
 
     public static final int CARD_WIDTH = 78;
@@ -27,6 +30,7 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
 
     private int result;
     private int bot1Result;
+    private double payout;
     private boolean gameEnded = false;
 
     /**
@@ -67,9 +71,15 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
 
         hitButton = createButton("Hit");
         stayButton = createButton("Stay");
+        doubleButton = createButton("Double");
+        splitButton = createButton("Split");
+        surrenderButton = createButton("Surrender");
 
         panel.add(hitButton);
         panel.add(stayButton);
+        panel.add(doubleButton);
+        panel.add(splitButton);
+        panel.add(surrenderButton);
 
         return panel;
     }
@@ -96,6 +106,21 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
         return stayButton;
     }
 
+    @Override
+    public JButton getDoubleButton() {
+        return doubleButton;
+    }
+
+    @Override
+    public JButton getSplitButton() {
+        return splitButton;
+    }
+
+    @Override
+    public JButton getSurrenderButton() {
+        return surrenderButton;
+    }
+
     /**
      * Aggiorna la vista con i dati del modello.
      * 
@@ -115,6 +140,13 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
         gamePanel.repaint();
     }
 
+    @Override
+    public void showTurn(Model model) {
+        AudioManager.getInstance().play("src/BlackJack/resources/audio/card.wav");
+        gamePanel.setModel(model);
+        gamePanel.repaint();
+    }
+
     /**
      * Restituisce il risultato del giocatore.
      * 
@@ -133,15 +165,23 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
         return bot1Result;
     }
 
+    /**
+     * Restituisce la vincita netta del giocatore, in unità della puntata.
+     * 
+     * @return La vincita netta (negativa in caso di perdita).
+     */
+    public double getPayout() {
+        return payout;
+    }
+
     /**
      * Classe interna che rappresenta il pannello di gioco.
      */
-    public class GamePanel extends JPanel {
+    public class GamePanel extends JPanel implements FrameScheduler.Animated {
         private Model model;
         private List<AnimationCard.AnimatedCard2> playerCards = new ArrayList<>();
         private List<AnimationCard.AnimatedCard2> dealerCards = new ArrayList<>();
         private List<AnimationCard.AnimatedCard2> botCards = new ArrayList<>();
-        private Timer animationTimer;
         private boolean dealerCardsInitialized = false;
         private boolean botCardsInitialized = false;
 
@@ -153,12 +193,11 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
         }
 
         /**
-         * Configura il pannello, inclusi i pulsanti e il timer per le animazioni.
+         * Configura il pannello e i pulsanti.
          */
         private void setupPanel() {
             setLayout(null);
             setupHomeButton();
-            setupAnimationTimer();
         }
 
         /**
@@ -176,13 +215,16 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
         }
 
         /**
-         * Configura il timer per le animazioni delle carte.
+         * Aggiorna le animazioni delle carte a ogni fotogramma del {@link FrameScheduler}.
+         * 
+         * @return true finché qualche carta è ancora in movimento.
          */
-        private void setupAnimationTimer() {
-            animationTimer = new Timer(16, e -> {
-                updateCardPositions();
-                repaint();
-            });
+        @Override
+        public boolean tick() {
+            updateCardPositions();
+            repaint();
+            return !AnimationCard.allSettled(playerCards) || !AnimationCard.allSettled(dealerCards)
+                    || !AnimationCard.allSettled(botCards);
         }
 
         /**
@@ -192,7 +234,7 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
          */
         public void setModel(Model model) {
             this.model = model;
-            updatePlayerCardList(model.getPlayerHand());
+            updatePlayerCardList(model.getPlayerCards());
 
             if (!dealerCardsInitialized) {
                 initializeDealerCards(model.getDealerHand(), model.getHiddenCard());
@@ -204,7 +246,7 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
                 botCardsInitialized = true;
             }
 
-            animationTimer.start();
+            FrameScheduler.getInstance().start(this);
         }
 
         /**
@@ -246,10 +288,13 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
 
         /**
          * Aggiorna la lista delle carte del giocatore.
+         * Le carte già presenti vengono riallineate, perché una divisione ne cambia l'ordine.
          * 
-         * @param hand La mano del giocatore.
+         * @param hand Le carte di tutte le mani del giocatore.
          */
         private void updatePlayerCardList(List<Model.Card> hand) {
+            IntStream.range(0, Math.min(playerCards.size(), hand.size()))
+                    .forEach(i -> playerCards.get(i).setCard(hand.get(i)));
             IntStream.range(playerCards.size(), hand.size()).forEach(i -> 
                 playerCards.add(createAnimatedCard(hand.get(i), JBlackJack.BOARD_WIDTH, 620, false))
             );
@@ -357,10 +402,6 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
             } else {
                 homeButton.setVisible(false);
             }
-
-            if (!animationTimer.isRunning()) {
-                animationTimer.start();
-            }
         }
 
         /**
@@ -429,58 +470,39 @@ public class TwoPlayers extends JPanel implements GameView, Observer {
          * @param g L'oggetto Graphics utilizzato per disegnare il risultato.
          */
         private void showGameResult(Graphics g) {
-            int dealerFinalSum = model.reduceAce(model.getDealerSum(), model.getDealerAceCount());
-            int playerFinalSum = model.reduceAce(model.getPlayerSum(), model.getPlayerAceCount());
-            int bot1FinalSum = model.reduceAce(model.getBot1Sum(), model.getBot1AceCount());
-
-            determineResults(playerFinalSum, dealerFinalSum, bot1FinalSum);
+            determineResults();
 
             g.setFont(new Font("Arial", Font.BOLD, 30));
             g.setColor(Color.WHITE);
 
             FontMetrics fm = g.getFontMetrics();
-            String message = getResultMessage(playerFinalSum, dealerFinalSum);
+            String message = getResultMessage(result);
             drawResultMessage(g, fm, message);
         }
 
         /**
-         * Determina i risultati della partita.
-         * 
-         * @param playerFinalSum La somma finale delle carte del giocatore.
-         * @param dealerFinalSum La somma finale delle carte del dealer.
-         * @param bot1FinalSum La somma finale delle carte del bot.
-         */
-        private void determineResults(int playerFinalSum, int dealerFinalSum, int bot1FinalSum) {
-            result = calculateResult(playerFinalSum, dealerFinalSum);
-            bot1Result = calculateResult(bot1FinalSum, dealerFinalSum);
-        }
-
-        /**
-         * Calcola il risultato della partita.
-         * 
-         * @param playerSum La somma delle carte del giocatore.
-         * @param dealerSum La somma delle carte del dealer.
-         * @return Il risultato della partita (1 = vittoria, 2 = sconfitta, 3 = pareggio).
+         * Determina i risultati della partita secondo le regole del modello
+         * (blackjack, raddoppi, divisioni e resa compresi).
          */
-        private int calculateResult(int playerSum, int dealerSum) {
-            if (playerSum > 21) return 2; // Perdita
-            if (dealerSum > 21) return 1; // Vittoria
-            if (playerSum == dealerSum) return 3; // Pareggio
-            return playerSum > dealerSum ? 1 : 2; // Vittoria o Perdita
+        private void determineResults() {
+            result = model.getPlayerResult();
+            bot1Result = model.getBot1Result();
+            payout = model.getPayout(Table.PLAYER);
         }
 
         /**
-         * Restituisce il messaggio di risultato della partita.
+         * Restituisce il messaggio di risultato della partita, distinguendo blackjack e resa.
          * 
-         * @param playerFinalSum La somma finale delle carte del giocatore.
-         * @param dealerFinalSum La somma finale delle carte del dealer.
+         * @param result Il codice del risultato del giocatore.
          * @return Il messaggio di risultato.
          */
-        private String getResultMessage(int playerFinalSum, int dealerFinalSum) {
-            if (playerFinalSum > 21) return "Hai perso";
-            if (dealerFinalSum > 21) return "Hai vinto";
-            if (playerFinalSum == dealerFinalSum) return "Pareggio";
-            return playerFinalSum > dealerFinalSum ? "Hai vinto" : "Hai perso";
+        private String getResultMessage(int result) {
+            int state = model.getHandState(Table.PLAYER);
+            if (HandState.isSurrendered(state)) return "Resa";
+            if (result == Model.RESULT_WIN && HandState.isBlackjack(state)) return "Blackjack!";
+            if (result == Model.RESULT_WIN) return "Hai vinto";
+            if (result == Model.RESULT_DRAW) return "Pareggio";
+            return "Hai perso";
         }
 
         /**